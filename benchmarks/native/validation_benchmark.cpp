@@ -0,0 +1,160 @@
+// Multi-threaded validation throughput and memory benchmark for the native library.
+//
+// Usage: blaze4j_native_benchmark [--threads 1,2,4,8] [--seconds 5] [--items 50]
+//                                 [--parser default|simdjson]
+//
+// Every thread validates the same kind of document through blaze_validate_with_parser, so
+// each iteration parses a fresh JSON tree exactly as the Java binding does. Run it once per
+// BLAZE4J_ALLOCATOR build to compare allocators; see scripts/bench-allocators.sh.
+#include <atomic>
+#include <chrono>
+#include <cstdint>
+#include <cstdio>
+#include <cstdlib>
+#include <cstring>
+#include <fstream>
+#include <string>
+#include <thread>
+#include <vector>
+
+#include <sys/resource.h>
+#include <unistd.h>
+
+extern "C" {
+int32_t blaze_compile_ex(const char* schema, size_t schema_length, const char* walker, void* resolver,
+                         const char* default_dialect, int64_t* handle_out, char* error, size_t error_capacity);
+int32_t blaze_validate_with_parser(int64_t handle, const char* instance, size_t instance_length,
+                                   size_t instance_capacity, int32_t parser, char* error, size_t error_capacity);
+void blaze_free_template(int64_t handle);
+const char* blaze_allocator_name();
+const char* blaze_instance_parser_name(int32_t parser);
+}
+
+static const char* SCHEMA = R"({
+  "$schema": "https://json-schema.org/draft/2020-12/schema",
+  "type": "object",
+  "required": ["id", "customer", "items"],
+  "properties": {
+    "id": { "type": "string", "pattern": "^order-[0-9]+$" },
+    "customer": {
+      "type": "object",
+      "required": ["name", "email"],
+      "properties": {
+        "name": { "type": "string", "minLength": 1 },
+        "email": { "type": "string" },
+        "tags": { "type": "array", "items": { "type": "string" }, "uniqueItems": true }
+      }
+    },
+    "items": {
+      "type": "array",
+      "minItems": 1,
+      "items": {
+        "type": "object",
+        "required": ["sku", "quantity", "price"],
+        "properties": {
+          "sku": { "type": "string" },
+          "quantity": { "type": "integer", "minimum": 1 },
+          "price": { "type": "number", "exclusiveMinimum": 0 }
+        },
+        "additionalProperties": false
+      }
+    }
+  }
+})";
+
+static std::string make_instance(int items) {
+    std::string instance = R"({"id":"order-42","customer":{"name":"Ada","email":"ada@example.com","tags":["a","b","c"]},"items":[)";
+    for (int i = 0; i < items; i++) {
+        if (i > 0) instance += ",";
+        instance += R"({"sku":"sku-)" + std::to_string(i) + R"(","quantity":)" + std::to_string(i % 5 + 1) +
+                    R"(,"price":)" + std::to_string(i + 0.5) + "}";
+    }
+    return instance + "]}";
+}
+
+static std::vector<int> parse_threads(const char* value) {
+    std::vector<int> threads;
+    std::string list(value);
+    size_t start = 0;
+    while (start < list.size()) {
+        size_t end = list.find(',', start);
+        if (end == std::string::npos) end = list.size();
+        threads.push_back(std::atoi(list.substr(start, end - start).c_str()));
+        start = end + 1;
+    }
+    return threads;
+}
+
+static long current_rss_kb() {
+    std::ifstream statm("/proc/self/statm");
+    long pages = 0;
+    long resident = 0;
+    statm >> pages >> resident;
+    return resident * (sysconf(_SC_PAGESIZE) / 1024);
+}
+
+static long peak_rss_kb() {
+    struct rusage usage;
+    getrusage(RUSAGE_SELF, &usage);
+    return usage.ru_maxrss;
+}
+
+int main(int argc, char** argv) {
+    std::vector<int> thread_counts = {1, 2, 4, 8};
+    int seconds = 5;
+    int items = 50;
+    int32_t parser = 0;
+    for (int i = 1; i + 1 < argc; i += 2) {
+        if (std::strcmp(argv[i], "--threads") == 0) thread_counts = parse_threads(argv[i + 1]);
+        else if (std::strcmp(argv[i], "--seconds") == 0) seconds = std::atoi(argv[i + 1]);
+        else if (std::strcmp(argv[i], "--items") == 0) items = std::atoi(argv[i + 1]);
+        else if (std::strcmp(argv[i], "--parser") == 0) parser = std::strcmp(argv[i + 1], "simdjson") == 0 ? 1 : 0;
+    }
+
+    char error[1024] = {0};
+    int64_t handle = 0;
+    if (blaze_compile_ex(SCHEMA, std::strlen(SCHEMA), "{}", nullptr, nullptr, &handle, error, sizeof(error)) != 0) {
+        std::fprintf(stderr, "Failed to compile benchmark schema: %s\n", error);
+        return 1;
+    }
+    std::string instance = make_instance(items);
+    // Leave the slack the Java binding's buffers have, so simdjson parses in place as it does there
+    instance.reserve(instance.size() + 64);
+    if (blaze_validate_with_parser(handle, instance.data(), instance.size(), instance.capacity(), parser,
+                                   error, sizeof(error)) != 0) {
+        std::fprintf(stderr, "Benchmark instance does not validate: %s\n", error);
+        return 1;
+    }
+
+    std::printf("allocator=%s parser=%s instance_bytes=%zu seconds=%d\n", blaze_allocator_name(),
+                blaze_instance_parser_name(parser), instance.size(), seconds);
+    std::printf("%8s %14s %14s %12s %12s\n", "threads", "ops/s", "ops/s/thread", "rss_kb", "peak_rss_kb");
+    for (int threads : thread_counts) {
+        std::atomic<bool> running{true};
+        std::atomic<int64_t> operations{0};
+        std::vector<std::thread> workers;
+        for (int t = 0; t < threads; t++) {
+            workers.emplace_back([&] {
+                int64_t local = 0;
+                while (running.load(std::memory_order_relaxed)) {
+                    blaze_validate_with_parser(handle, instance.data(), instance.size(), instance.capacity(), parser,
+                                               nullptr, 0);
+                    local++;
+                }
+                operations.fetch_add(local);
+            });
+        }
+        auto start = std::chrono::steady_clock::now();
+        std::this_thread::sleep_for(std::chrono::seconds(seconds));
+        running = false;
+        for (auto& worker : workers) worker.join();
+        double elapsed = std::chrono::duration<double>(std::chrono::steady_clock::now() - start).count();
+
+        double throughput = operations.load() / elapsed;
+        std::printf("%8d %14.0f %14.0f %12ld %12ld\n", threads, throughput, throughput / threads,
+                    current_rss_kb(), peak_rss_kb());
+    }
+
+    blaze_free_template(handle);
+    return 0;
+}
@@ -0,0 +1,84 @@
+package com.github.madhavdhatrak.blaze4j.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a checked-in baseline and exits with status 1 if any
+ * benchmark regressed by more than the threshold.
+ * <p>
+ * Usage: {@code BaselineComparator <baseline.json> <result.json> [threshold-percent]}
+ */
+public final class BaselineComparator {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> baseline = read(Paths.get(args[0]));
+        Map<String, JsonNode> result = read(Paths.get(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-100s %14s %14s %9s%n", "benchmark", "baseline", "result", "change");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode current = entry.getValue().get("primaryMetric");
+            JsonNode previous = baseline.containsKey(entry.getKey())
+                ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            if (previous == null) {
+                System.out.printf("%-100s %14s %14.2f %9s%n", entry.getKey(), "-", current.get("score").asDouble(), "new");
+                continue;
+            }
+            double before = previous.get("score").asDouble();
+            double after = current.get("score").asDouble();
+            double change = before == 0 ? 0 : (after - before) / before * 100;
+            // Throughput should not drop; times per operation should not grow
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-100s %14.2f %14.2f %+8.1f%%%s%n", entry.getKey(), before, after, change,
+                regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    // Keys each benchmark by name, thread count and parameters
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(Files.readString(file))) {
+            Map<String, String> params = new TreeMap<>();
+            JsonNode declared = run.get("params");
+            if (declared != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = declared.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    params.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            String name = run.get("benchmark").asText().replace("com.github.madhavdhatrak.blaze4j.benchmarks.", "");
+            runs.put(name + " t=" + run.get("threads").asInt() + " " + params, run);
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.madhavdhatrak.blaze4j.benchmarks;
+
+/**
+ * Schemas and instance documents shared by the benchmarks. Every document is an object with
+ * an array of generated records; the three schemas describe the same records with different
+ * amounts of indirection, so their results are comparable.
+ */
+final class BenchmarkData {
+
+    /**
+     * Schema complexity
+     */
+    enum Complexity {
+        /** Every record keyword inline */
+        FLAT,
+        /** Records reached through a chain of 32 $refs, with each property behind its own $ref */
+        REFS,
+        /** Records split across allOf branches and closed with unevaluatedProperties */
+        UNEVALUATED
+    }
+
+    private static final String DIALECT = "https://json-schema.org/draft/2020-12/schema";
+    private static final int REF_DEPTH = 32;
+
+    private BenchmarkData() {
+    }
+
+    static String schema(Complexity complexity) {
+        switch (complexity) {
+            case FLAT:
+                return root("""
+                    {
+                      "type": "object",
+                      "required": ["id", "name", "price"],
+                      "properties": {
+                        "id": { "type": "integer", "minimum": 0 },
+                        "name": { "type": "string", "minLength": 1 },
+                        "price": { "type": "number", "exclusiveMinimum": 0 },
+                        "tags": { "type": "array", "items": { "type": "string" } },
+                        "attributes": {
+                          "type": "object",
+                          "properties": {
+                            "color": { "enum": ["red", "green", "blue"] },
+                            "size": { "type": "integer" }
+                          }
+                        }
+                      },
+                      "additionalProperties": false
+                    }""", "");
+            case REFS:
+                StringBuilder defs = new StringBuilder();
+                for (int i = 0; i < REF_DEPTH; i++) {
+                    defs.append("\"link").append(i).append("\": { \"$ref\": \"#/$defs/")
+                        .append(i + 1 < REF_DEPTH ? "link" + (i + 1) : "record").append("\" },\n");
+                }
+                defs.append("""
+                    "identifier": { "type": "integer", "minimum": 0 },
+                    "label": { "type": "string", "minLength": 1 },
+                    "amount": { "type": "number", "exclusiveMinimum": 0 },
+                    "tag": { "type": "string" },
+                    "color": { "enum": ["red", "green", "blue"] },
+                    "attributes": {
+                      "type": "object",
+                      "properties": {
+                        "color": { "$ref": "#/$defs/color" },
+                        "size": { "$ref": "#/$defs/identifier" }
+                      }
+                    },
+                    "record": {
+                      "type": "object",
+                      "required": ["id", "name", "price"],
+                      "properties": {
+                        "id": { "$ref": "#/$defs/identifier" },
+                        "name": { "$ref": "#/$defs/label" },
+                        "price": { "$ref": "#/$defs/amount" },
+                        "tags": { "type": "array", "items": { "$ref": "#/$defs/tag" } },
+                        "attributes": { "$ref": "#/$defs/attributes" }
+                      },
+                      "additionalProperties": false
+                    }""");
+                return root("{ \"$ref\": \"#/$defs/link0\" }", ",\n\"$defs\": {\n" + defs + "\n}");
+            case UNEVALUATED:
+                return root("""
+                    {
+                      "type": "object",
+                      "required": ["id", "name", "price"],
+                      "allOf": [
+                        {
+                          "properties": {
+                            "id": { "type": "integer", "minimum": 0 },
+                            "name": { "type": "string", "minLength": 1 }
+                          }
+                        },
+                        {
+                          "properties": {
+                            "price": { "type": "number", "exclusiveMinimum": 0 },
+                            "tags": { "type": "array", "items": { "type": "string" } }
+                          }
+                        }
+                      ],
+                      "properties": {
+                        "attributes": {
+                          "allOf": [{ "properties": { "color": { "enum": ["red", "green", "blue"] } } }],
+                          "properties": { "size": { "type": "integer" } },
+                          "unevaluatedProperties": false
+                        }
+                      },
+                      "unevaluatedProperties": false
+                    }""", "");
+            default:
+                throw new IllegalArgumentException("Unknown complexity: " + complexity);
+        }
+    }
+
+    private static String root(String record, String extra) {
+        return "{\n\"$schema\": \"" + DIALECT + "\",\n"
+            + "\"type\": \"object\",\n"
+            + "\"required\": [\"items\"],\n"
+            + "\"properties\": { \"items\": { \"type\": \"array\", \"items\": " + record + " } }"
+            + extra + "\n}";
+    }
+
+    /**
+     * Generates a document of at least the given size. An invalid document differs from the
+     * valid one only in its last record, so validators cannot stop early.
+     *
+     * @param size A size such as {@code 1KB}, {@code 64KB} or {@code 50MB}
+     * @param valid Whether the document satisfies the schemas
+     * @return The JSON document
+     */
+    static String document(String size, boolean valid) {
+        long target = parseSize(size);
+        StringBuilder document = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 16, target + 256));
+        document.append("{\"items\":[");
+        int i = 0;
+        do {
+            if (i > 0) {
+                document.append(',');
+            }
+            appendRecord(document, i, 1 + (i % 1000) + 0.25);
+            i++;
+        } while (document.length() < target);
+        if (!valid) {
+            document.append(',');
+            appendRecord(document, i, -1);
+        }
+        return document.append("]}").toString();
+    }
+
+    private static void appendRecord(StringBuilder document, int id, double price) {
+        document.append("{\"id\":").append(id)
+            .append(",\"name\":\"item-").append(id)
+            .append("\",\"price\":").append(price)
+            .append(",\"tags\":[\"t").append(id % 7).append("\",\"t").append((id + 1) % 7)
+            .append("\"],\"attributes\":{\"color\":\"").append(id % 2 == 0 ? "red" : "blue")
+            .append("\",\"size\":").append(id % 50).append("}}");
+    }
+
+    static long parseSize(String size) {
+        String normalized = size.trim().toUpperCase();
+        if (normalized.endsWith("MB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) * 1024 * 1024;
+        }
+        if (normalized.endsWith("KB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) * 1024;
+        }
+        return Long.parseLong(normalized);
+    }
+
+    /**
+     * Spreads invalid documents evenly over a cycle of 100 validations
+     *
+     * @param invalidPercent Share of invalid documents, from 0 to 100
+     * @return For each position in the cycle, whether to use the invalid document
+     */
+    static boolean[] invalidPattern(int invalidPercent) {
+        boolean[] pattern = new boolean[100];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = (i + 1) * invalidPercent / 100 > i * invalidPercent / 100;
+        }
+        return pattern;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.madhavdhatrak.blaze4j.benchmarks;
+
+import com.github.madhavdhatrak.blaze4j.CompiledSchema;
+import com.github.madhavdhatrak.blaze4j.SchemaCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles and frees a schema per operation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class CompileBenchmark {
+
+    @Param({"FLAT", "REFS", "UNEVALUATED"})
+    public BenchmarkData.Complexity complexity;
+
+    private SchemaCompiler compiler;
+    private String schema;
+
+    @Setup
+    public void setup() {
+        compiler = new SchemaCompiler();
+        schema = BenchmarkData.schema(complexity);
+    }
+
+    @Benchmark
+    public long compile() {
+        try (CompiledSchema compiled = compiler.compile(schema)) {
+            return compiled.getHandle();
+        }
+    }
+}
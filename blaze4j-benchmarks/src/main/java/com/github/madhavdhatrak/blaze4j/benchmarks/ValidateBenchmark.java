@@ -0,0 +1,89 @@
+package com.github.madhavdhatrak.blaze4j.benchmarks;
+
+import com.github.madhavdhatrak.blaze4j.BlazeValidator;
+import com.github.madhavdhatrak.blaze4j.CompiledSchema;
+import com.github.madhavdhatrak.blaze4j.SchemaCompiler;
+import com.github.madhavdhatrak.blaze4j.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates documents of one size against one schema. A share of the validations, set by
+ * {@code invalidPercent}, uses a document whose last record is invalid. Run with
+ * {@code -t <threads>} to validate the same compiled schema from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-native-access=ALL-UNNAMED", "-Xmx4g"})
+public class ValidateBenchmark {
+
+    @Param({"FLAT", "REFS", "UNEVALUATED"})
+    public BenchmarkData.Complexity complexity;
+
+    @Param({"1KB", "64KB", "1MB", "50MB"})
+    public String size;
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    private final BlazeValidator validator = new BlazeValidator();
+    private CompiledSchema schema;
+    private String validDocument;
+    private String invalidDocument;
+    private boolean[] pattern;
+
+    /**
+     * Position of each thread in the valid/invalid cycle
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        schema = new SchemaCompiler().compile(BenchmarkData.schema(complexity));
+        validDocument = BenchmarkData.document(size, true);
+        invalidDocument = BenchmarkData.document(size, false);
+        pattern = BenchmarkData.invalidPattern(invalidPercent);
+        if (!validator.validate(schema, validDocument) || validator.validate(schema, invalidDocument)) {
+            throw new IllegalStateException("Benchmark documents do not match the " + complexity + " schema");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        schema.close();
+    }
+
+    private String nextDocument(Cursor cursor) {
+        int position = cursor.next;
+        cursor.next = position + 1 == pattern.length ? 0 : position + 1;
+        return pattern[position] ? invalidDocument : validDocument;
+    }
+
+    @Benchmark
+    public boolean validate(Cursor cursor) {
+        return validator.validate(schema, nextDocument(cursor));
+    }
+
+    @Benchmark
+    public ValidationResult validateWithDetails(Cursor cursor) {
+        return validator.validateWithDetails(schema, nextDocument(cursor));
+    }
+}
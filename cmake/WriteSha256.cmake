@@ -0,0 +1,3 @@
+# Writes <library>.sha256 containing the SHA-256 of the library
+file(SHA256 "${LIBRARY}" LIBRARY_HASH)
+file(WRITE "${LIBRARY}.sha256" "${LIBRARY_HASH}\n")
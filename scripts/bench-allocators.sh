@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Compares native allocators, with and without the instance arena, on multi-threaded
+# validation throughput and RSS.
+#
+#   ./scripts/bench-allocators.sh [--threads 1,2,4,8,16,32,64] [--seconds 5] [--items 50]
+#
+# Each allocator is built into its own tree and benchmarked right away, because all builds
+# write the library to the same resources directory. Rebuild with the allocator you want
+# to ship afterwards.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+cd "${ROOT}"
+
+# <allocator>[+arena]: +arena also enables the per-thread instance arena
+for config in system system+arena mimalloc mimalloc+arena jemalloc jemalloc+arena; do
+  allocator="${config%+arena}"
+  arena=OFF
+  [[ "${config}" == *+arena ]] && arena=ON
+  echo "==> ${config}"
+  cmake -S . -B "build-alloc/${config}" -DCMAKE_BUILD_TYPE=Release \
+    -DBLAZE4J_ALLOCATOR="${allocator}" -DBLAZE4J_INSTANCE_ARENA="${arena}" -DBLAZE4J_BUILD_BENCHMARKS=ON > /dev/null
+  cmake --build "build-alloc/${config}" --config Release > /dev/null
+  "build-alloc/${config}/blaze4j_native_benchmark" "$@"
+  echo
+done
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Builds an LTO + profile-guided native library and packages it under the "pgo" classifier.
+#
+#   1. Build an instrumented library (BLAZE4J_PGO=GENERATE)
+#   2. Train it on the JSON-Schema-Test-Suite runners and any extra workload
+#   3. Rebuild with the collected profile (BLAZE4J_PGO=USE)
+#   4. mvn -Ppgo package, which attaches blaze4j-<version>-pgo.jar next to the main jar
+#
+# Both libraries are written under build-pgo/, never to src/main/resources/native, so the
+# library bundled in the main jar stays the regular build.
+#
+# Environment:
+#   PGO_TRAINING_TESTS  Surefire test selection used for training (default: all draft runners)
+#   PGO_EXTRA_TRAINING  Extra command run against the instrumented library, e.g. a benchmark corpus;
+#                       its path is in BLAZE4J_PGO_LIBRARY, to pass as -Dblaze4j.native.path
+#   CMAKE_GENERATOR     Passed through to CMake as usual
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+BUILD="${ROOT}/build-pgo"
+PROFILES="${BUILD}/profiles"
+# Packaged by the pgo Maven profile, which reads native/<platform>/ from here
+RESOURCES="${BUILD}/resources"
+TRAINING_TESTS="${PGO_TRAINING_TESTS:-Draft2020Runner,Draft2019Runner,Draft7Runner,Draft6Runner,Draft4Runner}"
+
+cd "${ROOT}"
+rm -rf "${PROFILES}" "${RESOURCES}"
+
+echo "==> Building instrumented library"
+cmake -S . -B "${BUILD}/native" -DCMAKE_BUILD_TYPE=Release \
+  -DBLAZE4J_LTO=ON -DBLAZE4J_PGO=GENERATE -DBLAZE4J_PGO_DIR="${PROFILES}" \
+  -DBLAZE4J_NATIVE_OUTPUT_DIR="${RESOURCES}/native"
+cmake --build "${BUILD}/native" --config Release
+
+LIBRARY="$(find "${RESOURCES}/native" -name 'libblaze4j.*' ! -name '*.sha256' | head -n 1)"
+if [[ -z "${LIBRARY}" ]]; then
+  echo "Instrumented library not found under ${RESOURCES}/native" >&2
+  exit 1
+fi
+
+echo "==> Training on ${TRAINING_TESTS}"
+# The tests load the instrumented library through blaze4j.native.path instead of the bundled one.
+# Training only needs the workload to run; failing test cases still produce a profile
+mvn -B -q test -Dtest="${TRAINING_TESTS}" -Dsurefire.failIfNoSpecifiedTests=false -Dmaven.test.failure.ignore=true \
+  -Dblaze4j.native.path="${LIBRARY}"
+if [[ -n "${PGO_EXTRA_TRAINING:-}" ]]; then
+  echo "==> Extra training: ${PGO_EXTRA_TRAINING}"
+  BLAZE4J_PGO_LIBRARY="${LIBRARY}" bash -c "${PGO_EXTRA_TRAINING}"
+fi
+
+# Clang writes raw profiles that must be merged; GCC reads its .gcda files directly
+if compgen -G "${PROFILES}/*.profraw" > /dev/null; then
+  echo "==> Merging Clang profiles"
+  "${LLVM_PROFDATA:-llvm-profdata}" merge -output="${PROFILES}/default.profdata" "${PROFILES}"/*.profraw
+fi
+
+# GCC names profiles after object paths, so the optimized build reuses the same build tree
+echo "==> Building optimized library"
+cmake -S . -B "${BUILD}/native" -DCMAKE_BUILD_TYPE=Release \
+  -DBLAZE4J_LTO=ON -DBLAZE4J_PGO=USE -DBLAZE4J_PGO_DIR="${PROFILES}" \
+  -DBLAZE4J_NATIVE_OUTPUT_DIR="${RESOURCES}/native"
+cmake --build "${BUILD}/native" --config Release
+
+echo "==> Packaging"
+mvn -B -q -Ppgo package -DskipTests -Dblaze4j.pgo.resources="${RESOURCES}"
+ls -1 target/*-pgo.jar
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks and compares them with this machine's baseline.
+#
+#   ./scripts/run-benchmarks.sh [--threads 1,4,16] [--threshold 10] [--update-baseline] [-- <JMH options>]
+#
+# JMH options after -- narrow the run, e.g. -- ValidateBenchmark.validate -p size=1KB,64KB.
+# Results go to blaze4j-benchmarks/results/threads-<n>.json. Baselines are not committed, as
+# scores depend on the hardware. Without a baseline for a thread count the results are only
+# printed; --update-baseline records them as the new baseline.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+cd "${ROOT}"
+
+THREADS="1,4,16"
+THRESHOLD=10
+UPDATE_BASELINE=0
+while [[ $# -gt 0 ]]; do
+  case "$1" in
+    --threads) THREADS="$2"; shift 2 ;;
+    --threshold) THRESHOLD="$2"; shift 2 ;;
+    --update-baseline) UPDATE_BASELINE=1; shift ;;
+    --) shift; break ;;
+    *) echo "Unknown option: $1" >&2; exit 2 ;;
+  esac
+done
+
+mvn -B -q install -DskipTests -Dgpg.skip
+(cd blaze4j-benchmarks && mvn -B -q package)
+
+JAR="blaze4j-benchmarks/target/benchmarks.jar"
+mkdir -p blaze4j-benchmarks/results
+status=0
+for threads in ${THREADS//,/ }; do
+  result="blaze4j-benchmarks/results/threads-${threads}.json"
+  baseline="blaze4j-benchmarks/baseline/threads-${threads}.json"
+  echo "==> ${threads} thread(s)"
+  java --enable-native-access=ALL-UNNAMED -jar "${JAR}" -t "${threads}" -rf json -rff "${result}" "$@"
+
+  if [[ "${UPDATE_BASELINE}" == 1 ]]; then
+    cp "${result}" "${baseline}"
+    echo "Recorded ${baseline}"
+  elif [[ -f "${baseline}" ]]; then
+    java -cp "${JAR}" com.github.madhavdhatrak.blaze4j.benchmarks.BaselineComparator \
+      "${baseline}" "${result}" "${THRESHOLD}" || status=1
+  else
+    echo "No baseline for ${threads} thread(s); record one with --update-baseline"
+  fi
+done
+exit "${status}"
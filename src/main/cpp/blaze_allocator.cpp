@@ -0,0 +1,234 @@
+#include "blaze_allocator.h"
+
+#include <cstdint>
+#include <cstdlib>
+#include <new>
+
+// The replacement operator new/delete below only affect this library: the linker script
+// keeps every non-blaze_* symbol local, and libstdc++ is linked statically, so neither
+// the JVM nor other native libraries in the process see them.
+#if defined(BLAZE4J_ALLOCATOR_MIMALLOC)
+  #include <mimalloc.h>
+  #define BLAZE4J_MALLOC(size) mi_malloc(size)
+  #define BLAZE4J_ALIGNED_MALLOC(size, alignment) mi_malloc_aligned(size, alignment)
+  #define BLAZE4J_FREE(ptr) mi_free(ptr)
+  #define BLAZE4J_ALLOCATOR_NAME "mimalloc"
+  #define BLAZE4J_REPLACE_OPERATOR_NEW
+#elif defined(BLAZE4J_ALLOCATOR_JEMALLOC)
+  // Built with --with-jemalloc-prefix=je_ so it never replaces the process malloc
+  #include <jemalloc/jemalloc.h>
+  #define BLAZE4J_MALLOC(size) je_malloc(size)
+  #define BLAZE4J_ALIGNED_MALLOC(size, alignment) je_aligned_alloc(alignment, size)
+  #define BLAZE4J_FREE(ptr) je_free(ptr)
+  #define BLAZE4J_ALLOCATOR_NAME "jemalloc"
+  #define BLAZE4J_REPLACE_OPERATOR_NEW
+#else
+  #define BLAZE4J_MALLOC(size) std::malloc(size)
+  #define BLAZE4J_ALIGNED_MALLOC(size, alignment) system_aligned_malloc(size, alignment)
+  #define BLAZE4J_FREE(ptr) std::free(ptr)
+  #define BLAZE4J_ALLOCATOR_NAME "system"
+  #if defined(BLAZE4J_INSTANCE_ARENA)
+    #define BLAZE4J_REPLACE_OPERATOR_NEW
+  #endif
+
+static void* system_aligned_malloc(std::size_t size, std::size_t alignment) {
+    void* ptr = nullptr;
+    if (alignment < sizeof(void*)) {
+        alignment = sizeof(void*);
+    }
+    return posix_memalign(&ptr, alignment, size) == 0 ? ptr : nullptr;
+}
+#endif
+
+#if defined(BLAZE4J_INSTANCE_ARENA)
+namespace {
+
+constexpr std::size_t ARENA_ALIGNMENT = alignof(std::max_align_t);
+constexpr std::size_t ARENA_FIRST_BLOCK = 64 * 1024;
+// Largest block the arena grows to; beyond it, allocations go to the allocator
+constexpr std::size_t ARENA_MAX_BLOCK = 256 * 1024 * 1024;
+// Larger requests (big arrays, long strings) go straight to the allocator
+constexpr std::size_t ARENA_MAX_REQUEST = 16 * 1024;
+// Block kept across validations; a larger one is given back on reset
+constexpr std::size_t ARENA_RETAINED_BYTES = 1024 * 1024;
+
+// One contiguous block, so telling arena pointers apart on delete is a single range check.
+// Allocations that do not fit are served by the allocator, and the next block is sized for
+// what the scope asked for in total. The block comes from the allocator directly, never
+// from operator new.
+struct InstanceArena {
+    char* data = nullptr;
+    std::size_t capacity = 0;
+    std::size_t offset = 0;
+    // Bytes requested in the current scope, including those that did not fit
+    std::size_t demand = 0;
+    std::size_t next_capacity = ARENA_FIRST_BLOCK;
+    int depth = 0;
+    int paused = 0;
+
+    ~InstanceArena() {
+        BLAZE4J_FREE(data);
+    }
+
+    void* allocate(std::size_t size) noexcept {
+        if (depth == 0 || paused != 0 || size > ARENA_MAX_REQUEST) {
+            return nullptr;
+        }
+        size = (size + ARENA_ALIGNMENT - 1) & ~(ARENA_ALIGNMENT - 1);
+        demand += size;
+        if (data == nullptr) {
+            data = static_cast<char*>(BLAZE4J_MALLOC(next_capacity));
+            if (data == nullptr) {
+                return nullptr;
+            }
+            capacity = next_capacity;
+        }
+        if (offset + size > capacity) {
+            return nullptr;
+        }
+        void* ptr = data + offset;
+        offset += size;
+        return ptr;
+    }
+
+    bool owns(const void* ptr) const noexcept {
+        auto address = reinterpret_cast<std::uintptr_t>(ptr);
+        auto start = reinterpret_cast<std::uintptr_t>(data);
+        return address - start < capacity;
+    }
+
+    void reset() noexcept {
+        std::size_t wanted = ARENA_FIRST_BLOCK;
+        while (wanted < demand && wanted < ARENA_MAX_BLOCK) {
+            wanted *= 2;
+        }
+        if (data != nullptr && (wanted > capacity || capacity > ARENA_RETAINED_BYTES)) {
+            BLAZE4J_FREE(data);
+            data = nullptr;
+            capacity = 0;
+        }
+        next_capacity = data != nullptr ? capacity : wanted;
+        offset = 0;
+        demand = 0;
+    }
+};
+
+thread_local InstanceArena instance_arena;
+
+}
+#endif
+
+namespace blaze4j {
+
+void* allocate(std::size_t size) noexcept {
+    return BLAZE4J_MALLOC(size);
+}
+
+void deallocate(void* ptr) noexcept {
+    BLAZE4J_FREE(ptr);
+}
+
+const char* allocator_name() noexcept {
+#if defined(BLAZE4J_INSTANCE_ARENA)
+    return BLAZE4J_ALLOCATOR_NAME "+arena";
+#else
+    return BLAZE4J_ALLOCATOR_NAME;
+#endif
+}
+
+#if defined(BLAZE4J_INSTANCE_ARENA)
+InstanceArenaScope::InstanceArenaScope() noexcept {
+    instance_arena.depth++;
+}
+
+InstanceArenaScope::~InstanceArenaScope() {
+    if (--instance_arena.depth == 0) {
+        instance_arena.reset();
+    }
+}
+
+InstanceArenaPause::InstanceArenaPause() noexcept {
+    instance_arena.paused++;
+}
+
+InstanceArenaPause::~InstanceArenaPause() {
+    instance_arena.paused--;
+}
+#else
+InstanceArenaScope::InstanceArenaScope() noexcept = default;
+InstanceArenaScope::~InstanceArenaScope() = default;
+InstanceArenaPause::InstanceArenaPause() noexcept = default;
+InstanceArenaPause::~InstanceArenaPause() = default;
+#endif
+
+}
+
+#if defined(BLAZE4J_REPLACE_OPERATOR_NEW)
+
+static void* allocate_or_throw(std::size_t size) {
+#if defined(BLAZE4J_INSTANCE_ARENA)
+    if (void* arena_ptr = instance_arena.allocate(size == 0 ? 1 : size)) {
+        return arena_ptr;
+    }
+#endif
+    void* ptr = BLAZE4J_MALLOC(size == 0 ? 1 : size);
+    if (ptr == nullptr) {
+        throw std::bad_alloc();
+    }
+    return ptr;
+}
+
+static void* allocate_nothrow(std::size_t size) noexcept {
+#if defined(BLAZE4J_INSTANCE_ARENA)
+    if (void* arena_ptr = instance_arena.allocate(size == 0 ? 1 : size)) {
+        return arena_ptr;
+    }
+#endif
+    return BLAZE4J_MALLOC(size == 0 ? 1 : size);
+}
+
+// Arena memory is released all at once when the scope ends
+static void release(void* ptr) noexcept {
+#if defined(BLAZE4J_INSTANCE_ARENA)
+    if (ptr != nullptr && instance_arena.owns(ptr)) {
+        return;
+    }
+#endif
+    BLAZE4J_FREE(ptr);
+}
+
+static void* allocate_aligned_or_throw(std::size_t size, std::align_val_t alignment) {
+    void* ptr = BLAZE4J_ALIGNED_MALLOC(size == 0 ? 1 : size, static_cast<std::size_t>(alignment));
+    if (ptr == nullptr) {
+        throw std::bad_alloc();
+    }
+    return ptr;
+}
+
+void* operator new(std::size_t size) { return allocate_or_throw(size); }
+void* operator new[](std::size_t size) { return allocate_or_throw(size); }
+void* operator new(std::size_t size, const std::nothrow_t&) noexcept { return allocate_nothrow(size); }
+void* operator new[](std::size_t size, const std::nothrow_t&) noexcept { return allocate_nothrow(size); }
+void* operator new(std::size_t size, std::align_val_t alignment) { return allocate_aligned_or_throw(size, alignment); }
+void* operator new[](std::size_t size, std::align_val_t alignment) { return allocate_aligned_or_throw(size, alignment); }
+void* operator new(std::size_t size, std::align_val_t alignment, const std::nothrow_t&) noexcept {
+    return BLAZE4J_ALIGNED_MALLOC(size == 0 ? 1 : size, static_cast<std::size_t>(alignment));
+}
+void* operator new[](std::size_t size, std::align_val_t alignment, const std::nothrow_t&) noexcept {
+    return BLAZE4J_ALIGNED_MALLOC(size == 0 ? 1 : size, static_cast<std::size_t>(alignment));
+}
+
+void operator delete(void* ptr) noexcept { release(ptr); }
+void operator delete[](void* ptr) noexcept { release(ptr); }
+void operator delete(void* ptr, std::size_t) noexcept { release(ptr); }
+void operator delete[](void* ptr, std::size_t) noexcept { release(ptr); }
+void operator delete(void* ptr, const std::nothrow_t&) noexcept { release(ptr); }
+void operator delete[](void* ptr, const std::nothrow_t&) noexcept { release(ptr); }
+void operator delete(void* ptr, std::align_val_t) noexcept { release(ptr); }
+void operator delete[](void* ptr, std::align_val_t) noexcept { release(ptr); }
+void operator delete(void* ptr, std::size_t, std::align_val_t) noexcept { release(ptr); }
+void operator delete[](void* ptr, std::size_t, std::align_val_t) noexcept { release(ptr); }
+void operator delete(void* ptr, std::align_val_t, const std::nothrow_t&) noexcept { release(ptr); }
+void operator delete[](void* ptr, std::align_val_t, const std::nothrow_t&) noexcept { release(ptr); }
+
+#endif
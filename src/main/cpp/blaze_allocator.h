@@ -0,0 +1,37 @@
+#pragma once
+
+#include <cstddef>
+
+// Allocator used by the library. Selected at build time with BLAZE4J_ALLOCATOR; with a
+// scalable allocator the library's operator new/delete are routed to it as well.
+namespace blaze4j {
+
+void* allocate(std::size_t size) noexcept;
+void deallocate(void* ptr) noexcept;
+const char* allocator_name() noexcept;
+
+// While a scope is alive, small allocations made by this thread through operator new are
+// carved out of a per-thread bump arena and their deletes are no-ops. Leaving the
+// outermost scope resets the arena in O(1). Everything allocated inside the scope must be
+// destroyed before it ends, including exceptions thrown inside it: catch them, and copy
+// their message out, while the scope is still alive. Without BLAZE4J_INSTANCE_ARENA the
+// scope does nothing.
+class InstanceArenaScope {
+public:
+    InstanceArenaScope() noexcept;
+    ~InstanceArenaScope();
+    InstanceArenaScope(const InstanceArenaScope&) = delete;
+    InstanceArenaScope& operator=(const InstanceArenaScope&) = delete;
+};
+
+// While a pause is alive, this thread allocates from the allocator even inside a scope, so
+// objects built under it may outlive the scope. Does nothing without BLAZE4J_INSTANCE_ARENA.
+class InstanceArenaPause {
+public:
+    InstanceArenaPause() noexcept;
+    ~InstanceArenaPause();
+    InstanceArenaPause(const InstanceArenaPause&) = delete;
+    InstanceArenaPause& operator=(const InstanceArenaPause&) = delete;
+};
+
+}
@@ -1,3 +1,6 @@
+#include "blaze_allocator.h"
+#include "instance_parser.h"
+
 #include <sourcemeta/blaze/compiler.h>
 #include <sourcemeta/blaze/evaluator.h>
 #include <sourcemeta/core/json.h>
@@ -6,13 +9,19 @@
 #include <string>
 #include <cstring>
 #include <sstream>
-#include <iostream>
 #include <cstdint>
 #include <cstdlib>
 #include <optional>
 #include <mutex>
 #include <unordered_map>
+#include <shared_mutex>
 #include <memory>
+#include <algorithm>
+#include <atomic>
+#include <chrono>
+#include <cstddef>
+#include <new>
+#include <vector>
 
 // Portable export macro
 #if defined(_WIN32) || defined(_WIN64)
@@ -23,149 +32,446 @@
   #define BLAZE_EXPORT BLAZE_VISIBILITY
 #endif
 
+// Native memory accounting. Buffers handed across the FFM boundary carry a size header
+// so their bytes can be subtracted again when they are freed.
+struct AllocationCounters {
+    std::atomic<int64_t> live_count{0};
+    std::atomic<int64_t> live_bytes{0};
+    std::atomic<int64_t> total_bytes{0};
+};
+
+static AllocationCounters string_counters;
+static AllocationCounters output_counters;
+static std::atomic<int64_t> live_templates{0};
+static std::atomic<int64_t> templates_compiled{0};
+static std::atomic<int64_t> templates_freed{0};
+
+// Keeps the returned pointer aligned like malloc's
+static constexpr size_t ALLOCATION_HEADER = alignof(std::max_align_t);
+
+static char* tracked_alloc(AllocationCounters& counters, size_t size) {
+    auto* block = static_cast<char*>(blaze4j::allocate(size + ALLOCATION_HEADER));
+    if (block == nullptr) {
+        return nullptr;
+    }
+    *reinterpret_cast<size_t*>(block) = size;
+    counters.live_count.fetch_add(1, std::memory_order_relaxed);
+    counters.live_bytes.fetch_add(static_cast<int64_t>(size), std::memory_order_relaxed);
+    counters.total_bytes.fetch_add(static_cast<int64_t>(size), std::memory_order_relaxed);
+    return block + ALLOCATION_HEADER;
+}
+
+static void tracked_free(AllocationCounters& counters, const char* ptr) {
+    if (ptr == nullptr) {
+        return;
+    }
+    auto* block = const_cast<char*>(ptr) - ALLOCATION_HEADER;
+    size_t size = *reinterpret_cast<size_t*>(block);
+    counters.live_count.fetch_sub(1, std::memory_order_relaxed);
+    counters.live_bytes.fetch_sub(static_cast<int64_t>(size), std::memory_order_relaxed);
+    blaze4j::deallocate(block);
+}
+
+// Resolver upcall. Returns the schema text for a URI and its byte length. When
+// *owned is set the text was allocated with blaze_alloc_string and must be freed
+// here; otherwise it is borrowed from Java and stays valid until compile returns.
+typedef const char* (*blaze_resolver_fn)(const char* uri, size_t* length, int32_t* owned);
+
 // Resolver pointer
-thread_local const char* (*current_custom_resolver)(const char*) = nullptr;
+thread_local blaze_resolver_fn current_custom_resolver = nullptr;
+
+// Frees resolver text handed over with ownership once parsing is done
+struct ResolvedText {
+    const char* data;
+    bool owned;
+
+    ~ResolvedText() {
+        if (owned) {
+            tracked_free(string_counters, data);
+        }
+    }
+};
+
+// Process-wide cache of parsed schemas handed out by the resolver, keyed by URI.
+// Custom resolver entries keep the text they were parsed from, so a registry
+// that returns different text for the same URI is re-parsed instead of served stale.
+// The cache holds at most RESOLVER_CACHE_BYTE_LIMIT bytes of URIs and source text;
+// inserting past that evicts the least recently used entries.
+struct CachedSchema {
+    CachedSchema(std::string source, sourcemeta::core::JSON document)
+        : source(std::move(source)), document(std::move(document)) {}
+
+    std::string source;
+    sourcemeta::core::JSON document;
+    // Tick of the last lookup that returned this entry, bumped under the shared lock
+    mutable std::atomic<uint64_t> last_used{0};
+};
+
+static constexpr size_t RESOLVER_CACHE_BYTE_LIMIT = 64 * 1024 * 1024;
+
+static std::shared_mutex resolver_cache_mutex;
+static std::unordered_map<std::string, std::shared_ptr<const CachedSchema>> resolver_cache;
+// Guarded by resolver_cache_mutex
+static size_t resolver_cache_bytes = 0;
+static std::atomic<uint64_t> resolver_cache_clock{0};
+
+static size_t cache_entry_bytes(const std::string& uri, const CachedSchema& entry) {
+    return uri.size() + entry.source.size();
+}
+
+// Drops the least recently used entries until incoming more bytes fit. Called with the
+// unique lock held; inserts are rare next to lookups, so a scan is cheaper than keeping
+// a recency list up to date on every hit.
+static void evict_resolver_cache(size_t incoming) {
+    while (!resolver_cache.empty() && resolver_cache_bytes + incoming > RESOLVER_CACHE_BYTE_LIMIT) {
+        auto oldest = resolver_cache.begin();
+        for (auto it = resolver_cache.begin(); it != resolver_cache.end(); ++it) {
+            if (it->second->last_used.load(std::memory_order_relaxed)
+                    < oldest->second->last_used.load(std::memory_order_relaxed)) {
+                oldest = it;
+            }
+        }
+        resolver_cache_bytes -= cache_entry_bytes(oldest->first, *oldest->second);
+        resolver_cache.erase(oldest);
+    }
+}
+
+// Removes one entry. Called with the unique lock held.
+static void erase_resolver_cache(const std::string& uri) {
+    auto it = resolver_cache.find(uri);
+    if (it != resolver_cache.end()) {
+        resolver_cache_bytes -= cache_entry_bytes(it->first, *it->second);
+        resolver_cache.erase(it);
+    }
+}
+
+static std::shared_mutex official_cache_mutex;
+static std::unordered_map<std::string, std::shared_ptr<const sourcemeta::core::JSON>> official_cache;
+
+static std::optional<sourcemeta::core::JSON> resolve_official_cached(std::string_view uri_sv) {
+    std::string uri(uri_sv);
+    {
+        std::shared_lock lock(official_cache_mutex);
+        auto it = official_cache.find(uri);
+        if (it != official_cache.end()) {
+            return *it->second;
+        }
+    }
+
+    auto official_result = sourcemeta::core::schema_official_resolver(uri_sv);
+    if (official_result.has_value()) {
+        auto entry = std::make_shared<const sourcemeta::core::JSON>(official_result.value());
+        std::unique_lock lock(official_cache_mutex);
+        official_cache.emplace(std::move(uri), std::move(entry));
+    }
+    return official_result;
+}
+
+static std::optional<sourcemeta::core::JSON> parse_custom_cached(const std::string& uri, std::string_view source_sv) {
+    {
+        std::shared_lock lock(resolver_cache_mutex);
+        auto it = resolver_cache.find(uri);
+        if (it != resolver_cache.end() && it->second->source == source_sv) {
+            it->second->last_used.store(resolver_cache_clock.fetch_add(1, std::memory_order_relaxed) + 1,
+                std::memory_order_relaxed);
+            return it->second->document;
+        }
+    }
+
+    std::string source_str(source_sv);
+    auto document = sourcemeta::core::parse_json(source_str);
+    auto entry = std::make_shared<const CachedSchema>(std::move(source_str), std::move(document));
+    entry->last_used.store(resolver_cache_clock.fetch_add(1, std::memory_order_relaxed) + 1,
+        std::memory_order_relaxed);
+    size_t bytes = cache_entry_bytes(uri, *entry);
+    // Entries larger than the whole budget are parsed but never cached
+    if (bytes <= RESOLVER_CACHE_BYTE_LIMIT) {
+        std::unique_lock lock(resolver_cache_mutex);
+        erase_resolver_cache(uri);
+        evict_resolver_cache(bytes);
+        resolver_cache.emplace(uri, entry);
+        resolver_cache_bytes += bytes;
+    }
+    return entry->document;
+}
+
+// Status codes returned by the *_ex entry points, mirrored by NativeStatus on the Java side
+enum BlazeStatus : int32_t {
+    BLAZE_STATUS_OK = 0,
+    BLAZE_STATUS_INVALID = 1,
+    BLAZE_STATUS_PARSE_ERROR = 2,
+    BLAZE_STATUS_SCHEMA_ERROR = 3,
+    BLAZE_STATUS_INVALID_ARGUMENT = 4,
+    BLAZE_STATUS_INTERNAL_ERROR = 5
+};
+
+// Last failure of the resolver during the compilation running on this thread
+thread_local std::string resolver_error;
+
+// Copies a message into the caller's error buffer, truncating it and always terminating it
+static void write_error(char* error, size_t error_capacity, const std::string& message) {
+    if (error == nullptr || error_capacity == 0) {
+        return;
+    }
+    size_t length = message.size() < error_capacity - 1 ? message.size() : error_capacity - 1;
+    std::memcpy(error, message.data(), length);
+    error[length] = '\0';
+}
+
+// Basic escaping for quotes, backslashes and control characters
+static std::string escape_json(const std::string& s) {
+    std::string out;
+    for (char c : s) {
+        if (c == '"' || c == '\\') {
+            out.push_back('\\');
+            out.push_back(c);
+        } else if (static_cast<unsigned char>(c) < 0x20) {
+            static const char hex[] = "0123456789abcdef";
+            out += "\\u00";
+            out.push_back(hex[(c >> 4) & 0xf]);
+            out.push_back(hex[c & 0xf]);
+        } else {
+            out.push_back(c);
+        }
+    }
+    return out;
+}
+
+static char* copy_output(const std::string& output) {
+    char* buffer = tracked_alloc(output_counters, output.size() + 1);
+    if (buffer != nullptr) {
+        std::memcpy(buffer, output.c_str(), output.size() + 1);
+    }
+    return buffer;
+}
+
+static std::string describe(const sourcemeta::core::JSONParseError& e) {
+    return std::string(e.what()) + " at line " + std::to_string(e.line()) + ", column " + std::to_string(e.column());
+}
 
 extern "C" {
 
 BLAZE_EXPORT char* blaze_alloc_string(size_t size) {
-    return static_cast<char*>(malloc(size));
+    return tracked_alloc(string_counters, size);
 }
 
 BLAZE_EXPORT void blaze_free_string(char* ptr) {
-    free(ptr);
+    tracked_free(string_counters, ptr);
 }
 
-BLAZE_EXPORT int64_t blaze_compile(const char* schema, const char* walker, const char* (*custom_resolver)(const char*), const char* default_dialect) {
-    try {
-        if (schema == nullptr) {
-            std::cerr << "Error: Schema is null" << std::endl;
-            throw std::runtime_error("Schema is null");
-        }
+BLAZE_EXPORT int32_t blaze_compile_ex(const char* schema, size_t schema_length, const char* walker,
+                                       blaze_resolver_fn custom_resolver, const char* default_dialect,
+                                       int64_t* handle_out, char* error, size_t error_capacity) {
+    if (handle_out != nullptr) {
+        *handle_out = 0;
+    }
+    if (schema == nullptr || handle_out == nullptr) {
+        write_error(error, error_capacity, "Schema is null");
+        return BLAZE_STATUS_INVALID_ARGUMENT;
+    }
 
-        std::string schema_str(schema);
-        
-        // Process default dialect
-        std::optional<std::string> dialect_opt = std::nullopt;
-        if (default_dialect != nullptr && strlen(default_dialect) > 0) {
-            dialect_opt = std::string(default_dialect);
-        }
+    // Process default dialect
+    std::optional<std::string> dialect_opt = std::nullopt;
+    if (default_dialect != nullptr && strlen(default_dialect) > 0) {
+        dialect_opt = std::string(default_dialect);
+    }
 
-        try {
-            auto json_schema = sourcemeta::core::parse_json(schema_str);
+    current_custom_resolver = custom_resolver;
+    resolver_error.clear();
+    try {
+        auto json_schema = sourcemeta::core::parse_json(std::string(schema, schema_length));
 
-            auto walker_obj = sourcemeta::core::schema_official_walker;
-            current_custom_resolver = custom_resolver;
+        auto walker_obj = sourcemeta::core::schema_official_walker;
 
-            auto resolver_obj = [](std::string_view uri_sv) -> std::optional<sourcemeta::core::JSON> {
-                std::string uri(uri_sv);
+        auto resolver_obj = [](std::string_view uri_sv) -> std::optional<sourcemeta::core::JSON> {
+            std::string uri(uri_sv);
 
-                auto official_result = sourcemeta::core::schema_official_resolver(uri_sv);
-                if (official_result.has_value()) {
-                    return official_result;
-                }
+            auto official_result = resolve_official_cached(uri_sv);
+            if (official_result.has_value()) {
+                return official_result;
+            }
+
+            if (current_custom_resolver != nullptr) {
+                size_t length = 0;
+                int32_t owned = 0;
+                const char* result_c_str = current_custom_resolver(uri.c_str(), &length, &owned);
 
-                if (current_custom_resolver != nullptr) {
-                    const char* result_c_str = current_custom_resolver(uri.c_str());
-
-                    if (result_c_str != nullptr) {
-                        std::string result_str(result_c_str);
-                        try {
-                            auto parsed_json = sourcemeta::core::parse_json(result_str);
-                            return parsed_json;
-                        } catch (const std::exception& e) {
-                            std::cerr << "Error parsing JSON from custom resolver: " << e.what() << std::endl;
-                        }
+                if (result_c_str != nullptr) {
+                    ResolvedText text{result_c_str, owned != 0};
+                    try {
+                        return parse_custom_cached(uri, std::string_view(text.data, length));
+                    } catch (const sourcemeta::core::JSONParseError& e) {
+                        // Reported with the compilation error, if the schema turns out to be needed
+                        resolver_error = "Resolved schema " + uri + " is not valid JSON: " + describe(e);
                     }
                 }
+            }
 
-                return std::nullopt;
-            };
+            return std::nullopt;
+        };
 
-            auto compiler = sourcemeta::blaze::default_schema_compiler;
+        auto compiler = sourcemeta::blaze::default_schema_compiler;
 
-            auto compiled = sourcemeta::blaze::compile(
-                json_schema,
-                walker_obj,
-                resolver_obj,
-                compiler,
-                sourcemeta::blaze::Mode::FastValidation,
-                dialect_opt
-            );
+        auto compiled = sourcemeta::blaze::compile(
+            json_schema,
+            walker_obj,
+            resolver_obj,
+            compiler,
+            sourcemeta::blaze::Mode::FastValidation,
+            dialect_opt
+        );
 
-            current_custom_resolver = nullptr;
+        current_custom_resolver = nullptr;
 
-            auto* template_ptr = new sourcemeta::blaze::Template(compiled);
-            return reinterpret_cast<int64_t>(template_ptr);
-        } catch (const std::exception& internal_e) {
-            current_custom_resolver = nullptr;
-            std::cerr << "Internal error during compilation: " << internal_e.what() << std::endl;
-            throw;
-        }
+        auto* template_ptr = new sourcemeta::blaze::Template(compiled);
+        live_templates.fetch_add(1, std::memory_order_relaxed);
+        templates_compiled.fetch_add(1, std::memory_order_relaxed);
+        *handle_out = reinterpret_cast<int64_t>(template_ptr);
+        return BLAZE_STATUS_OK;
+    } catch (const sourcemeta::core::JSONParseError& e) {
+        current_custom_resolver = nullptr;
+        write_error(error, error_capacity, "Schema is not valid JSON: " + describe(e));
+        return BLAZE_STATUS_PARSE_ERROR;
     } catch (const std::exception& e) {
         current_custom_resolver = nullptr;
-        std::cerr << "Compilation error: " << e.what() << std::endl;
-        return 0;
+        std::string message = e.what();
+        if (!resolver_error.empty()) {
+            message += " (" + resolver_error + ")";
+        }
+        write_error(error, error_capacity, message);
+        return BLAZE_STATUS_SCHEMA_ERROR;
     } catch (...) {
         current_custom_resolver = nullptr;
-        std::cerr << "Unknown error during compilation" << std::endl;
-        return 0;
+        write_error(error, error_capacity, "Unknown error during compilation");
+        return BLAZE_STATUS_INTERNAL_ERROR;
     }
 }
 
-BLAZE_EXPORT bool blaze_validate(int64_t schemaHandle, const char* instance) {
-    try {
-        if (instance == nullptr) {
-            std::cerr << "Error: Instance is null" << std::endl;
-            return false;
-        }
+// Kept for existing callers; reports failures as a zero handle
+BLAZE_EXPORT int64_t blaze_compile(const char* schema, const char* walker, blaze_resolver_fn custom_resolver, const char* default_dialect) {
+    int64_t handle = 0;
+    blaze_compile_ex(schema, schema == nullptr ? 0 : strlen(schema), walker, custom_resolver,
+                     default_dialect, &handle, nullptr, 0);
+    return handle;
+}
 
-        if (schemaHandle == 0) {
-            std::cerr << "Error: Invalid schema handle" << std::endl;
-            return false;
-        }
+// The instance must be readable up to instance_capacity bytes, at least instance_length; any
+// slack lets the simdjson parser read it in place instead of copying it.
+BLAZE_EXPORT int32_t blaze_validate_with_parser(int64_t schemaHandle, const char* instance, size_t instance_length,
+                                                size_t instance_capacity, int32_t parser,
+                                                char* error, size_t error_capacity) {
+    if (instance == nullptr) {
+        write_error(error, error_capacity, "Instance is null");
+        return BLAZE_STATUS_INVALID_ARGUMENT;
+    }
+    if (schemaHandle == 0) {
+        write_error(error, error_capacity, "Invalid schema handle");
+        return BLAZE_STATUS_INVALID_ARGUMENT;
+    }
+    if (blaze4j::instance_parser_name(parser) == nullptr) {
+        write_error(error, error_capacity, "Instance parser " + std::to_string(parser) + " is not available");
+        return BLAZE_STATUS_INVALID_ARGUMENT;
+    }
 
-        std::string instance_str(instance);
-        auto json_instance = sourcemeta::core::parse_json(instance_str);
+    try {
+        blaze4j::reserve_instance_parser(parser, instance_length);
+    } catch (...) {
+        write_error(error, error_capacity, "Out of memory reserving the instance parser");
+        return BLAZE_STATUS_INTERNAL_ERROR;
+    }
+
+    // The instance tree lives in the per-thread arena and is released in one step. The scope
+    // also encloses the handlers: an exception thrown inside it keeps its message in the
+    // arena, so the message is copied out, and the exception destroyed, before the reset.
+    blaze4j::InstanceArenaScope arena_scope;
+    try {
+        auto json_instance = blaze4j::parse_instance(instance, instance_length, instance_capacity, parser);
 
         sourcemeta::blaze::Evaluator evaluator;
         auto* schema_template = reinterpret_cast<sourcemeta::blaze::Template*>(schemaHandle);
-
-        if (!schema_template) {
-            std::cerr << "Error: Schema template is null" << std::endl;
-            return false;
-        }
-
-        return evaluator.validate(*schema_template, json_instance);
+        return evaluator.validate(*schema_template, json_instance) ? BLAZE_STATUS_OK : BLAZE_STATUS_INVALID;
+    } catch (const blaze4j::InstanceParseError& e) {
+        write_error(error, error_capacity, std::string("Instance is not valid JSON: ") + e.what());
+        return BLAZE_STATUS_PARSE_ERROR;
     } catch (const std::exception& e) {
-        std::cerr << "Validation error: " << e.what() << std::endl;
-        return false;
+        write_error(error, error_capacity, e.what());
+        return BLAZE_STATUS_INTERNAL_ERROR;
     } catch (...) {
-        std::cerr << "Unknown error during validation" << std::endl;
-        return false;
+        write_error(error, error_capacity, "Unknown error during validation");
+        return BLAZE_STATUS_INTERNAL_ERROR;
     }
 }
 
+BLAZE_EXPORT int32_t blaze_validate_ex(int64_t schemaHandle, const char* instance, size_t instance_length,
+                                        char* error, size_t error_capacity) {
+    return blaze_validate_with_parser(schemaHandle, instance, instance_length, instance_length,
+                                      blaze4j::INSTANCE_PARSER_DEFAULT, error, error_capacity);
+}
+
+// Kept for existing callers; every failure reads as invalid
+BLAZE_EXPORT bool blaze_validate(int64_t schemaHandle, const char* instance) {
+    return blaze_validate_ex(schemaHandle, instance, instance == nullptr ? 0 : strlen(instance),
+                             nullptr, 0) == BLAZE_STATUS_OK;
+}
+
 BLAZE_EXPORT void blaze_free_template(int64_t schemaHandle) {
     if (schemaHandle != 0) {
         auto* template_ptr = reinterpret_cast<sourcemeta::blaze::Template*>(schemaHandle);
         delete template_ptr;
+        live_templates.fetch_sub(1, std::memory_order_relaxed);
+        templates_freed.fetch_add(1, std::memory_order_relaxed);
     }
 }
 
 BLAZE_EXPORT void blaze_free_result(const char* result) {
-    if (result) {
-        delete[] result;
-    }
+    tracked_free(output_counters, result);
 }
 
-BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char* instance) {
+// Slots of the timings array filled by blaze_validate_with_output_timed
+enum BlazeTiming : int32_t {
+    BLAZE_TIMING_PARSE = 0,
+    BLAZE_TIMING_EVALUATE = 1,
+    BLAZE_TIMING_FORMAT = 2,
+    BLAZE_TIMING_COUNT = 3
+};
+
+// Monotonic nanoseconds, only read when the caller asked for timings
+static int64_t monotonic_nanos() {
+    return std::chrono::duration_cast<std::chrono::nanoseconds>(
+        std::chrono::steady_clock::now().time_since_epoch()).count();
+}
+
+// Fills timings[BLAZE_TIMING_COUNT] with the nanoseconds spent parsing the instance, evaluating
+// the template and formatting errors and the output document, when timings is not null.
+// Error messages are built while evaluating, so their cost is moved from evaluate to format.
+BLAZE_EXPORT char* blaze_validate_with_output_timed(int64_t schemaHandle, const char* instance,
+                                                    size_t instance_length, int32_t parser, int64_t* timings) {
+    if (timings != nullptr) {
+        std::fill(timings, timings + BLAZE_TIMING_COUNT, 0);
+    }
     try {
         if (instance == nullptr) return nullptr;
         if (schemaHandle == 0) return nullptr;
+        if (blaze4j::instance_parser_name(parser) == nullptr) {
+            return copy_output("{\"valid\":false,\"status\":\"error\",\"error\":\"Instance parser " +
+                               std::to_string(parser) + " is not available\"}");
+        }
 
-        std::string instance_str(instance);
-        auto json_instance = sourcemeta::core::parse_json(instance_str);
+        std::optional<sourcemeta::core::JSON> parsed_instance;
+        int64_t started = timings != nullptr ? monotonic_nanos() : 0;
+        try {
+            parsed_instance = blaze4j::parse_instance(instance, instance_length, instance_length, parser);
+            if (timings != nullptr) {
+                timings[BLAZE_TIMING_PARSE] = monotonic_nanos() - started;
+            }
+        } catch (const blaze4j::InstanceParseError& e) {
+            if (timings != nullptr) {
+                timings[BLAZE_TIMING_PARSE] = monotonic_nanos() - started;
+            }
+            return copy_output("{\"valid\":false,\"status\":\"malformed_instance\",\"error\":\"" +
+                               escape_json(std::string("Instance is not valid JSON: ") + e.what()) + "\"}");
+        }
+        const auto& json_instance = parsed_instance.value();
         auto* schema_template = reinterpret_cast<sourcemeta::blaze::Template*>(schemaHandle);
         
         // Collect errors using callback
@@ -175,8 +481,9 @@ BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char*
             std::string evaluate_path;
         };
         std::vector<ErrorInfo> errors;
+        int64_t callback_nanos = 0;
         
-        auto callback = [&errors](
+        auto callback = [&errors, &callback_nanos, timings](
             const sourcemeta::blaze::EvaluationType type,
             bool result,
             const sourcemeta::blaze::Instruction &instruction,
@@ -184,6 +491,7 @@ BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char*
             const sourcemeta::core::WeakPointer &instance_location,
             const sourcemeta::core::JSON &annotation) -> void {
             if (!result) {
+                int64_t formatting = timings != nullptr ? monotonic_nanos() : 0;
                 ErrorInfo error;
                 
                 // Extract instance location
@@ -201,11 +509,19 @@ BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char*
                                " (schema path: " + error.evaluate_path + ")";
                 
                 errors.push_back(error);
+                if (timings != nullptr) {
+                    callback_nanos += monotonic_nanos() - formatting;
+                }
             }
         };
         
         sourcemeta::blaze::Evaluator evaluator;
+        started = timings != nullptr ? monotonic_nanos() : 0;
         bool valid = evaluator.validate(*schema_template, json_instance, callback);
+        if (timings != nullptr) {
+            timings[BLAZE_TIMING_EVALUATE] = monotonic_nanos() - started - callback_nanos;
+            started = monotonic_nanos();
+        }
         
         // Build JSON result
         std::ostringstream json_ss;
@@ -218,37 +534,274 @@ BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char*
                     json_ss << ",";
                 }
                 first_error = false;
-                // Basic escaping for quotes and backslashes
-                auto escape = [](const std::string& s) {
-                    std::string out;
-                    for (char c : s) {
-                        if (c == '"' || c == '\\') out.push_back('\\');
-                        out.push_back(c);
-                    }
-                    return out;
-                };
-                json_ss << "{\"message\":\"" << escape(error.message) 
-                       << "\",\"instance_location\":\"" << escape(error.instance_location)
-                       << "\",\"evaluate_path\":\"" << escape(error.evaluate_path) << "\"}";
+                json_ss << "{\"message\":\"" << escape_json(error.message) 
+                       << "\",\"instance_location\":\"" << escape_json(error.instance_location)
+                       << "\",\"evaluate_path\":\"" << escape_json(error.evaluate_path) << "\"}";
             }
             json_ss << "]";
         }
         json_ss << "}";
-        std::string result_str = json_ss.str();
-        char* buffer = new char[result_str.size() + 1];
-        std::strcpy(buffer, result_str.c_str());
-        return buffer;
+        char* output = copy_output(json_ss.str());
+        if (timings != nullptr) {
+            timings[BLAZE_TIMING_FORMAT] = callback_nanos + monotonic_nanos() - started;
+        }
+        return output;
     } catch (const std::exception& e) {
-        std::cerr << "Detailed validation error: " << e.what() << std::endl;
+        return copy_output("{\"valid\":false,\"status\":\"error\",\"error\":\"" + escape_json(e.what()) + "\"}");
+    } catch (...) {
+        return copy_output("{\"valid\":false,\"status\":\"error\",\"error\":\"Unknown error during validation\"}");
+    }
+}
+
+BLAZE_EXPORT char* blaze_validate_with_output_ex(int64_t schemaHandle, const char* instance,
+                                               size_t instance_length, int32_t parser) {
+    return blaze_validate_with_output_timed(schemaHandle, instance, instance_length, parser, nullptr);
+}
+
+BLAZE_EXPORT char* blaze_validate_with_output(int64_t schemaHandle, const char* instance) {
+    return blaze_validate_with_output_ex(schemaHandle, instance, instance == nullptr ? 0 : strlen(instance),
+                                         blaze4j::INSTANCE_PARSER_DEFAULT);
+}
+
+BLAZE_EXPORT void blaze_free_json(char* json) {
+    tracked_free(output_counters, json);
+}
+
+// Invocations and time of the instructions evaluated at one schema location. Total time
+// includes the instructions nested under it; self time does not.
+struct LocationProfile {
+    int64_t invocations = 0;
+    int64_t total_nanos = 0;
+    int64_t self_nanos = 0;
+};
+
+// Per-location costs accumulated across the validations profiled into it. Recursive schemas
+// could produce evaluate paths without end, so locations past the cap are only counted.
+struct ValidationProfile {
+    static constexpr size_t MAX_LOCATIONS = 4096;
+
+    std::mutex mutex;
+    int64_t validations = 0;
+    int64_t dropped = 0;
+    std::unordered_map<std::string, LocationProfile> locations;
+};
+
+BLAZE_EXPORT int64_t blaze_profile_create() {
+    return reinterpret_cast<int64_t>(new (std::nothrow) ValidationProfile());
+}
+
+BLAZE_EXPORT void blaze_profile_free(int64_t profileHandle) {
+    delete reinterpret_cast<ValidationProfile*>(profileHandle);
+}
+
+BLAZE_EXPORT void blaze_profile_reset(int64_t profileHandle) {
+    if (profileHandle == 0) {
+        return;
+    }
+    auto* profile = reinterpret_cast<ValidationProfile*>(profileHandle);
+    std::lock_guard<std::mutex> lock(profile->mutex);
+    profile->validations = 0;
+    profile->dropped = 0;
+    profile->locations.clear();
+}
+
+// Validates like blaze_validate_with_parser, timing every instruction through the evaluator
+// callback and adding the costs to the profile under its evaluate path. Bookkeeping done in
+// the callback is subtracted from the enclosing instructions, so it does not skew them.
+BLAZE_EXPORT int32_t blaze_validate_profiled(int64_t schemaHandle, const char* instance, size_t instance_length,
+                                             size_t instance_capacity, int32_t parser, int64_t profileHandle) {
+    if (instance == nullptr || schemaHandle == 0 || profileHandle == 0 ||
+        blaze4j::instance_parser_name(parser) == nullptr) {
+        return BLAZE_STATUS_INVALID_ARGUMENT;
+    }
+
+    try {
+        blaze4j::reserve_instance_parser(parser, instance_length);
+    } catch (...) {
+        return BLAZE_STATUS_INTERNAL_ERROR;
+    }
+
+    struct Frame {
+        int64_t started;
+        int64_t children;
+        int64_t overhead;
+    };
+    // Built outside the instance arena, as the costs are merged into the profile after it
+    // is reset: they are declared before its scope, and the callback pauses it.
+    std::vector<Frame> frames;
+    std::unordered_map<std::string, LocationProfile> locations;
+    std::ostringstream path_ss;
+
+    auto callback = [&frames, &locations, &path_ss](
+        const sourcemeta::blaze::EvaluationType type,
+        bool,
+        const sourcemeta::blaze::Instruction &,
+        const sourcemeta::core::WeakPointer &evaluate_path,
+        const sourcemeta::core::WeakPointer &,
+        const sourcemeta::core::JSON &) -> void {
+        blaze4j::InstanceArenaPause arena_pause;
+        if (type == sourcemeta::blaze::EvaluationType::Pre) {
+            frames.push_back(Frame{0, 0, 0});
+            frames.back().started = monotonic_nanos();
+            return;
+        }
+        int64_t ended = monotonic_nanos();
+        if (frames.empty()) {
+            return;
+        }
+        Frame frame = frames.back();
+        frames.pop_back();
+        int64_t elapsed = ended - frame.started - frame.overhead;
+
+        path_ss.str(std::string());
+        sourcemeta::core::stringify(evaluate_path, path_ss);
+        auto& location = locations[path_ss.str()];
+        location.invocations++;
+        location.total_nanos += elapsed;
+        location.self_nanos += elapsed - frame.children;
+
+        if (!frames.empty()) {
+            frames.back().children += elapsed;
+            frames.back().overhead += frame.overhead + (monotonic_nanos() - ended);
+        }
+    };
+
+    bool valid;
+    {
+        // Only the instance and the evaluation use the arena. The handlers run inside the
+        // scope, so the exceptions are destroyed before the reset.
+        blaze4j::InstanceArenaScope arena_scope;
+        try {
+            auto json_instance = blaze4j::parse_instance(instance, instance_length, instance_capacity, parser);
+            auto* schema_template = reinterpret_cast<sourcemeta::blaze::Template*>(schemaHandle);
+            sourcemeta::blaze::Evaluator evaluator;
+            valid = evaluator.validate(*schema_template, json_instance, callback);
+        } catch (const blaze4j::InstanceParseError&) {
+            return BLAZE_STATUS_PARSE_ERROR;
+        } catch (...) {
+            return BLAZE_STATUS_INTERNAL_ERROR;
+        }
+    }
+
+    try {
+        auto* profile = reinterpret_cast<ValidationProfile*>(profileHandle);
+        std::lock_guard<std::mutex> lock(profile->mutex);
+        profile->validations++;
+        for (auto& entry : locations) {
+            auto it = profile->locations.find(entry.first);
+            if (it == profile->locations.end()) {
+                if (profile->locations.size() >= ValidationProfile::MAX_LOCATIONS) {
+                    profile->dropped += entry.second.invocations;
+                    continue;
+                }
+                it = profile->locations.emplace(entry.first, LocationProfile{}).first;
+            }
+            it->second.invocations += entry.second.invocations;
+            it->second.total_nanos += entry.second.total_nanos;
+            it->second.self_nanos += entry.second.self_nanos;
+        }
+    } catch (...) {
+        return BLAZE_STATUS_INTERNAL_ERROR;
+    }
+    return valid ? BLAZE_STATUS_OK : BLAZE_STATUS_INVALID;
+}
+
+// Writes the limit locations with the most self time as JSON, to be freed with blaze_free_json:
+// {"validations":N,"dropped":N,"locations":[{"evaluate_path":...,"invocations":N,"total_nanos":N,"self_nanos":N}]}
+BLAZE_EXPORT char* blaze_profile_report(int64_t profileHandle, int32_t limit) {
+    if (profileHandle == 0) {
         return nullptr;
+    }
+    try {
+        auto* profile = reinterpret_cast<ValidationProfile*>(profileHandle);
+        std::vector<std::pair<std::string, LocationProfile>> hottest;
+        int64_t validations;
+        int64_t dropped;
+        {
+            std::lock_guard<std::mutex> lock(profile->mutex);
+            validations = profile->validations;
+            dropped = profile->dropped;
+            hottest.assign(profile->locations.begin(), profile->locations.end());
+        }
+        size_t count = std::min(hottest.size(), static_cast<size_t>(std::max(limit, 0)));
+        std::partial_sort(hottest.begin(), hottest.begin() + count, hottest.end(),
+            [](const auto& left, const auto& right) { return left.second.self_nanos > right.second.self_nanos; });
+
+        std::ostringstream json_ss;
+        json_ss << "{\"validations\":" << validations << ",\"dropped\":" << dropped << ",\"locations\":[";
+        for (size_t i = 0; i < count; i++) {
+            if (i > 0) {
+                json_ss << ",";
+            }
+            const auto& location = hottest[i];
+            json_ss << "{\"evaluate_path\":\"" << escape_json(location.first)
+                    << "\",\"invocations\":" << location.second.invocations
+                    << ",\"total_nanos\":" << location.second.total_nanos
+                    << ",\"self_nanos\":" << location.second.self_nanos << "}";
+        }
+        json_ss << "]}";
+        return copy_output(json_ss.str());
     } catch (...) {
-        std::cerr << "Unknown error during detailed validation" << std::endl;
         return nullptr;
     }
 }
 
-BLAZE_EXPORT void blaze_free_json(char* json) {
-    if (json) delete[] json;
+BLAZE_EXPORT void blaze_resolver_cache_invalidate(const char* uri) {
+    if (uri == nullptr) return;
+    std::unique_lock lock(resolver_cache_mutex);
+    erase_resolver_cache(std::string(uri));
+}
+
+BLAZE_EXPORT void blaze_resolver_cache_clear() {
+    std::unique_lock lock(resolver_cache_mutex);
+    resolver_cache.clear();
+    resolver_cache_bytes = 0;
+}
+
+// Name of the allocator the library was built with: system, mimalloc or jemalloc,
+// suffixed with +arena when instances are parsed in the per-thread arena
+BLAZE_EXPORT const char* blaze_allocator_name() {
+    return blaze4j::allocator_name();
+}
+
+// Implementation behind an instance parser backend, or null when the library was built
+// without it. For simdjson this names the SIMD kernel selected for the running CPU.
+BLAZE_EXPORT const char* blaze_instance_parser_name(int32_t parser) {
+    return blaze4j::instance_parser_name(parser);
+}
+
+// Fills stats with up to count counters, in the order listed below, and returns how many
+// were written. New counters are only ever appended, so older callers keep working.
+BLAZE_EXPORT int32_t blaze_memory_stats(int64_t* stats, int32_t count) {
+    if (stats == nullptr || count <= 0) return 0;
+
+    int64_t cache_entries = 0;
+    int64_t cache_bytes = 0;
+    {
+        std::shared_lock lock(resolver_cache_mutex);
+        cache_entries = static_cast<int64_t>(resolver_cache.size());
+        cache_bytes = static_cast<int64_t>(resolver_cache_bytes);
+    }
+
+    const int64_t values[] = {
+        live_templates.load(std::memory_order_relaxed),
+        templates_compiled.load(std::memory_order_relaxed),
+        templates_freed.load(std::memory_order_relaxed),
+        string_counters.live_count.load(std::memory_order_relaxed),
+        string_counters.live_bytes.load(std::memory_order_relaxed),
+        string_counters.total_bytes.load(std::memory_order_relaxed),
+        output_counters.live_count.load(std::memory_order_relaxed),
+        output_counters.live_bytes.load(std::memory_order_relaxed),
+        output_counters.total_bytes.load(std::memory_order_relaxed),
+        cache_entries,
+        cache_bytes,
+    };
+    int32_t available = static_cast<int32_t>(sizeof(values) / sizeof(values[0]));
+    int32_t written = count < available ? count : available;
+    for (int32_t i = 0; i < written; i++) {
+        stats[i] = values[i];
+    }
+    return written;
 }
 
 } 
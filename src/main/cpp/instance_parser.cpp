@@ -0,0 +1,142 @@
+#include "instance_parser.h"
+
+#include <new>
+#include <string>
+
+#ifdef BLAZE4J_SIMDJSON
+#include <simdjson.h>
+#endif
+
+namespace blaze4j {
+
+static sourcemeta::core::JSON parse_default(const char* data, std::size_t length) {
+    try {
+        return sourcemeta::core::parse_json(std::string(data, length));
+    } catch (const sourcemeta::core::JSONParseError& e) {
+        throw InstanceParseError(std::string(e.what()) + " at line " + std::to_string(e.line()) +
+                                 ", column " + std::to_string(e.column()));
+    }
+}
+
+#ifdef BLAZE4J_SIMDJSON
+
+// Numbers simdjson cannot represent exactly are handed back to the default parser, which
+// keeps them as big integers or decimals
+struct UnrepresentableNumber {};
+
+// One parser per thread: its tape and string buffers are reused across documents
+static simdjson::dom::parser& thread_parser() {
+    thread_local simdjson::dom::parser parser;
+    return parser;
+}
+
+static sourcemeta::core::JSON to_json(const simdjson::dom::element& element) {
+    switch (element.type()) {
+        case simdjson::dom::element_type::OBJECT: {
+            auto result = sourcemeta::core::JSON::make_object();
+            for (const auto field : element.get_object().value_unsafe()) {
+                result.assign(std::string(field.key), to_json(field.value));
+            }
+            return result;
+        }
+        case simdjson::dom::element_type::ARRAY: {
+            auto result = sourcemeta::core::JSON::make_array();
+            for (const auto child : element.get_array().value_unsafe()) {
+                result.push_back(to_json(child));
+            }
+            return result;
+        }
+        case simdjson::dom::element_type::STRING:
+            return sourcemeta::core::JSON{std::string(element.get_string().value_unsafe())};
+        case simdjson::dom::element_type::INT64:
+            return sourcemeta::core::JSON{element.get_int64().value_unsafe()};
+        case simdjson::dom::element_type::UINT64:
+            // Only integers above INT64_MAX are reported as unsigned
+            throw UnrepresentableNumber{};
+        case simdjson::dom::element_type::DOUBLE:
+            return sourcemeta::core::JSON{element.get_double().value_unsafe()};
+        case simdjson::dom::element_type::BOOL:
+            return sourcemeta::core::JSON{element.get_bool().value_unsafe()};
+        case simdjson::dom::element_type::NULL_VALUE:
+        default:
+            return sourcemeta::core::JSON{nullptr};
+    }
+}
+
+// simdjson reads up to SIMDJSON_PADDING bytes past the end of the document. Buffers with that
+// much slack are parsed in place; others are copied into a padded string first.
+static_assert(SIMDJSON_PADDING <= 64, "The Java binding leaves BlazeWrapper.INSTANCE_PADDING = 64 bytes of slack");
+
+static simdjson::error_code parse_dom(const char* data, std::size_t length, std::size_t capacity,
+                                      simdjson::dom::element& root) {
+    if (capacity >= length && capacity - length >= SIMDJSON_PADDING) {
+        return thread_parser().parse(data, length, false).get(root);
+    }
+    // The parser copies what it keeps, so the padded string may go once parsing is done
+    simdjson::padded_string padded(data, length);
+    return thread_parser().parse(padded).get(root);
+}
+
+static sourcemeta::core::JSON parse_simdjson(const char* data, std::size_t length, std::size_t capacity) {
+    simdjson::dom::element root;
+    auto error = parse_dom(data, length, capacity, root);
+    if (error == simdjson::BIGINT_ERROR || error == simdjson::NUMBER_ERROR ||
+        error == simdjson::NUMBER_OUT_OF_RANGE) {
+        return parse_default(data, length);
+    }
+    if (error) {
+        throw InstanceParseError(simdjson::error_message(error));
+    }
+
+    try {
+        return to_json(root);
+    } catch (const UnrepresentableNumber&) {
+        return parse_default(data, length);
+    }
+}
+
+#endif
+
+const char* instance_parser_name(int32_t parser) noexcept {
+    switch (parser) {
+        case INSTANCE_PARSER_DEFAULT:
+            return "sourcemeta";
+#ifdef BLAZE4J_SIMDJSON
+        case INSTANCE_PARSER_SIMDJSON:
+            // Chosen once from the CPU's features, falling back to portable code
+            return simdjson::get_active_implementation()->name().c_str();
+#endif
+        default:
+            return nullptr;
+    }
+}
+
+void reserve_instance_parser(int32_t parser, std::size_t length) {
+#ifdef BLAZE4J_SIMDJSON
+    if (parser == INSTANCE_PARSER_SIMDJSON && thread_parser().capacity() < length) {
+        if (thread_parser().allocate(length)) {
+            throw std::bad_alloc();
+        }
+    }
+#else
+    (void) parser;
+    (void) length;
+#endif
+}
+
+sourcemeta::core::JSON parse_instance(const char* data, std::size_t length, std::size_t capacity,
+                                      int32_t parser) {
+    switch (parser) {
+        case INSTANCE_PARSER_DEFAULT:
+            (void) capacity;
+            return parse_default(data, length);
+#ifdef BLAZE4J_SIMDJSON
+        case INSTANCE_PARSER_SIMDJSON:
+            return parse_simdjson(data, length, capacity);
+#endif
+        default:
+            throw std::invalid_argument("Unsupported instance parser: " + std::to_string(parser));
+    }
+}
+
+}
@@ -0,0 +1,39 @@
+#pragma once
+
+#include <sourcemeta/core/json.h>
+
+#include <cstddef>
+#include <cstdint>
+#include <stdexcept>
+
+// Backends that turn an instance document into the JSON tree the evaluator walks. The
+// simdjson backend is only compiled in with BLAZE4J_SIMDJSON; the values match the Java
+// InstanceParser enum.
+namespace blaze4j {
+
+enum InstanceParser : int32_t {
+    INSTANCE_PARSER_DEFAULT = 0,
+    INSTANCE_PARSER_SIMDJSON = 1
+};
+
+class InstanceParseError : public std::runtime_error {
+public:
+    using std::runtime_error::runtime_error;
+};
+
+// Name of the implementation behind a backend, e.g. "sourcemeta" or the SIMD kernel
+// simdjson picked for this CPU ("icelake", "haswell", "westmere", "arm64", "fallback").
+// Returns nullptr when the backend is unknown or not compiled in.
+const char* instance_parser_name(int32_t parser) noexcept;
+
+// Grows any buffers the backend keeps per thread so that parsing length bytes does not
+// allocate them. Call it outside an InstanceArenaScope: those buffers outlive the scope.
+void reserve_instance_parser(int32_t parser, std::size_t length);
+
+// Parses the first length bytes of data. The buffer must be readable up to capacity bytes: the
+// simdjson backend parses it in place when it leaves SIMDJSON_PADDING bytes of slack, and
+// copies it otherwise. Throws InstanceParseError if the document is not valid JSON.
+sourcemeta::core::JSON parse_instance(const char* data, std::size_t length, std::size_t capacity,
+                                      int32_t parser);
+
+}
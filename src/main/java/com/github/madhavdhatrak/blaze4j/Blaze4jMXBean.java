@@ -0,0 +1,84 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Management interface for Blaze4j, registered as
+ * {@code com.github.madhavdhatrak.blaze4j:type=Blaze4j} on the platform MBean server.
+ * <p>
+ * Native counters cover memory the JVM cannot see: compiled templates, strings handed
+ * to the native resolver, detailed-validation output buffers and the native resolver
+ * cache. Byte counts are the sizes requested by Blaze4j and exclude allocator overhead.
+ */
+public interface Blaze4jMXBean {
+
+    /**
+     * @return The allocator the native library was built with: system, mimalloc or jemalloc,
+     *         with a {@code +arena} suffix when instances are parsed in a per-thread arena
+     */
+    String getNativeAllocator();
+
+    /**
+     * @return Native templates currently allocated
+     */
+    long getLiveTemplates();
+
+    /**
+     * @return Native templates compiled since the library was loaded
+     */
+    long getTemplatesCompiled();
+
+    /**
+     * @return Native templates freed since the library was loaded
+     */
+    long getTemplatesFreed();
+
+    /**
+     * @return Resolver strings allocated with {@code blaze_alloc_string} and not yet freed
+     */
+    long getLiveResolverStrings();
+
+    /**
+     * @return Bytes held by live resolver strings
+     */
+    long getLiveResolverStringBytes();
+
+    /**
+     * @return Bytes ever allocated for resolver strings
+     */
+    long getTotalResolverStringBytes();
+
+    /**
+     * @return Detailed-validation output buffers not yet freed
+     */
+    long getLiveOutputBuffers();
+
+    /**
+     * @return Bytes held by live output buffers
+     */
+    long getLiveOutputBytes();
+
+    /**
+     * @return Bytes ever allocated for output buffers
+     */
+    long getTotalOutputBytes();
+
+    /**
+     * @return Parsed schemas held by the native resolver cache
+     */
+    long getResolverCacheEntries();
+
+    /**
+     * @return Bytes of schema text and URIs held by the native resolver cache
+     */
+    long getResolverCacheBytes();
+
+    /**
+     * @return Compiled schemas that have been neither closed nor reclaimed
+     */
+    long getOpenCompiledSchemas();
+
+    /**
+     * @return Compiled schemas that were never closed and had to be freed by the Cleaner.
+     *         A growing value points at a missing {@code close()}.
+     */
+    long getCompiledSchemasReclaimedByCleaner();
+}
@@ -0,0 +1,154 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+
+/**
+ * Exposes Blaze4j's {@link Blaze4jMXBean}. The bean is registered on the platform MBean
+ * server when the native library is loaded, unless {@code -Dblaze4j.jmx=false} is set.
+ * Native images, which usually run without a JMX server, only register it with
+ * {@code -Dblaze4j.jmx=true}.
+ */
+public final class Blaze4jManagement implements Blaze4jMXBean {
+    private static final Logger LOGGER = Logger.getLogger(Blaze4jManagement.class.getName());
+    private static final Blaze4jManagement INSTANCE = new Blaze4jManagement();
+
+    /**
+     * The name the bean is registered under
+     */
+    public static final String OBJECT_NAME = "com.github.madhavdhatrak.blaze4j:type=Blaze4j";
+
+    private Blaze4jManagement() {
+    }
+
+    /**
+     * Gets the management bean, whether or not it is registered with JMX
+     * 
+     * @return The Blaze4j management bean
+     */
+    public static Blaze4jMXBean getMXBean() {
+        return INSTANCE;
+    }
+
+    /**
+     * Publishes validation metrics on the platform MBean server as
+     * {@code com.github.madhavdhatrak.blaze4j:type=ValidationMetrics,name=<name>}
+     * 
+     * @param name The name to register the metrics under
+     * @param metrics The metrics
+     * @return The name the bean was registered under
+     * @throws JMException If the name is invalid or already taken
+     */
+    public static ObjectName registerValidationMetrics(String name, ValidationMetrics metrics) throws JMException {
+        ObjectName objectName = validationMetricsName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        return objectName;
+    }
+
+    /**
+     * Removes validation metrics published with {@link #registerValidationMetrics}
+     * 
+     * @param name The name the metrics were registered under
+     * @throws JMException If no metrics are registered under that name
+     */
+    public static void unregisterValidationMetrics(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(validationMetricsName(name));
+    }
+
+    private static ObjectName validationMetricsName(String name) throws JMException {
+        return new ObjectName("com.github.madhavdhatrak.blaze4j:type=ValidationMetrics,name=" + name);
+    }
+
+    static void register() {
+        if (!Boolean.parseBoolean(System.getProperty("blaze4j.jmx", String.valueOf(!NativeLoader.inNativeImage())))) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Another class loader already registered Blaze4j
+            LOGGER.fine("Blaze4j MXBean is already registered");
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("Failed to register Blaze4j MXBean: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getNativeAllocator() {
+        return BlazeWrapper.nativeAllocator();
+    }
+
+    @Override
+    public long getLiveTemplates() {
+        return nativeStat(BlazeWrapper.NATIVE_LIVE_TEMPLATES);
+    }
+
+    @Override
+    public long getTemplatesCompiled() {
+        return nativeStat(BlazeWrapper.NATIVE_TEMPLATES_COMPILED);
+    }
+
+    @Override
+    public long getTemplatesFreed() {
+        return nativeStat(BlazeWrapper.NATIVE_TEMPLATES_FREED);
+    }
+
+    @Override
+    public long getLiveResolverStrings() {
+        return nativeStat(BlazeWrapper.NATIVE_STRING_LIVE_COUNT);
+    }
+
+    @Override
+    public long getLiveResolverStringBytes() {
+        return nativeStat(BlazeWrapper.NATIVE_STRING_LIVE_BYTES);
+    }
+
+    @Override
+    public long getTotalResolverStringBytes() {
+        return nativeStat(BlazeWrapper.NATIVE_STRING_TOTAL_BYTES);
+    }
+
+    @Override
+    public long getLiveOutputBuffers() {
+        return nativeStat(BlazeWrapper.NATIVE_OUTPUT_LIVE_COUNT);
+    }
+
+    @Override
+    public long getLiveOutputBytes() {
+        return nativeStat(BlazeWrapper.NATIVE_OUTPUT_LIVE_BYTES);
+    }
+
+    @Override
+    public long getTotalOutputBytes() {
+        return nativeStat(BlazeWrapper.NATIVE_OUTPUT_TOTAL_BYTES);
+    }
+
+    @Override
+    public long getResolverCacheEntries() {
+        return nativeStat(BlazeWrapper.NATIVE_RESOLVER_CACHE_ENTRIES);
+    }
+
+    @Override
+    public long getResolverCacheBytes() {
+        return nativeStat(BlazeWrapper.NATIVE_RESOLVER_CACHE_BYTES);
+    }
+
+    @Override
+    public long getOpenCompiledSchemas() {
+        return BlazeWrapper.openCompiledSchemas();
+    }
+
+    @Override
+    public long getCompiledSchemasReclaimedByCleaner() {
+        return BlazeWrapper.compiledSchemasReclaimedByCleaner();
+    }
+
+    private static long nativeStat(int index) {
+        return BlazeWrapper.nativeMemoryStats()[index];
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Validates UTF-8 payloads against a schema and binds the valid ones with Jackson, like an
+ * {@link ObjectReader} that rejects what the schema does not accept. Readers are immutable
+ * and thread-safe; configure one per schema and type and reuse it.
+ * <p>
+ * By default the payload is validated natively from a pooled native buffer, as
+ * {@link BlazeValidator#validateStatus(CompiledSchema, byte[])} does, and only bound once it
+ * is known to be valid. With {@link #withSingleParse(boolean)}, schemas compiled with the
+ * Java backend are instead validated on the tokens Jackson reads for binding, so the payload
+ * is tokenized once.
+ *
+ * @param <T> The type values are bound to
+ */
+public final class Blaze4jReader<T> {
+    private final CompiledSchema schema;
+    private final ObjectReader reader;
+    private final BlazeValidator validator;
+    private final boolean singleParse;
+    private final boolean errorDetails;
+
+    private Blaze4jReader(CompiledSchema schema, ObjectReader reader, BlazeValidator validator,
+                          boolean singleParse, boolean errorDetails) {
+        this.schema = schema;
+        this.reader = reader;
+        this.validator = validator;
+        this.singleParse = singleParse;
+        this.errorDetails = errorDetails;
+    }
+
+    /**
+     * Creates a reader binding valid payloads to a class
+     *
+     * @param <T> The type values are bound to
+     * @param schema The compiled schema payloads must match
+     * @param mapper The mapper that binds them
+     * @param type The class to bind to
+     * @return A reader using a default {@link BlazeValidator}
+     * @throws IllegalArgumentException If an argument is null
+     */
+    public static <T> Blaze4jReader<T> forType(CompiledSchema schema, ObjectMapper mapper, Class<T> type) {
+        if (schema == null || mapper == null || type == null) {
+            throw new IllegalArgumentException("Schema, mapper and type cannot be null");
+        }
+        return new Blaze4jReader<>(schema, mapper.readerFor(type), new BlazeValidator(), false, false);
+    }
+
+    /**
+     * Creates a reader binding valid payloads to a generic type
+     *
+     * @param <T> The type values are bound to
+     * @param schema The compiled schema payloads must match
+     * @param mapper The mapper that binds them
+     * @param type The type to bind to, such as {@code new TypeReference<List<Order>>() {}}
+     * @return A reader using a default {@link BlazeValidator}
+     * @throws IllegalArgumentException If an argument is null
+     */
+    public static <T> Blaze4jReader<T> forType(CompiledSchema schema, ObjectMapper mapper, TypeReference<T> type) {
+        if (schema == null || mapper == null || type == null) {
+            throw new IllegalArgumentException("Schema, mapper and type cannot be null");
+        }
+        return new Blaze4jReader<>(schema, mapper.readerFor(type), new BlazeValidator(), false, false);
+    }
+
+    /**
+     * Returns a reader that validates with the given validator, and so with its instance
+     * parser, metrics and profiler
+     *
+     * @param validator The validator
+     * @return A reader using that validator
+     */
+    public Blaze4jReader<T> withValidator(BlazeValidator validator) {
+        if (validator == null) {
+            throw new IllegalArgumentException("Validator cannot be null");
+        }
+        return new Blaze4jReader<>(schema, reader, validator, singleParse, errorDetails);
+    }
+
+    /**
+     * Returns a reader that tokenizes each payload once when the schema was compiled with
+     * the Java backend: the tokens are buffered, validated in Java and bound from the buffer.
+     * Other schemas, payloads beyond Jackson's limits, payloads repeating an object key and
+     * the payloads sampled by the validator's profiler are still validated natively.
+     *
+     * @param singleParse Whether to validate the buffered tokens
+     * @return A reader with single parsing switched on or off
+     */
+    public Blaze4jReader<T> withSingleParse(boolean singleParse) {
+        return new Blaze4jReader<>(schema, reader, validator, singleParse, errorDetails);
+    }
+
+    /**
+     * Returns a reader whose {@link InstanceValidationException}s carry a detailed
+     * {@link ValidationResult}. Rejected payloads are validated a second time to build it.
+     *
+     * @param errorDetails Whether to report the validation errors
+     * @return A reader with error details switched on or off
+     */
+    public Blaze4jReader<T> withErrorDetails(boolean errorDetails) {
+        return new Blaze4jReader<>(schema, reader, validator, singleParse, errorDetails);
+    }
+
+    /**
+     * Validates a UTF-8 payload and binds it if it matches the schema
+     *
+     * @param json The UTF-8 bytes of the JSON payload
+     * @return The bound value
+     * @throws InstanceValidationException If the payload is not valid JSON or does not
+     *         match the schema
+     * @throws IOException If Jackson cannot bind the valid payload to the type
+     */
+    public T readValue(byte[] json) throws IOException {
+        if (json == null) {
+            throw new IllegalArgumentException("Instance cannot be null");
+        }
+        ValidationStatus status;
+        if (singleParse && schema instanceof JavaCompiledSchema javaSchema) {
+            SchemaProfiler profiler = validator.getProfiler();
+            if (profiler != null && profiler.sample()) {
+                // Profiles are collected by the native evaluator
+                status = validator.validateProfiledStatus(schema, json);
+            } else {
+                TokenBuffer tokens = validateTokens(javaSchema, json);
+                if (tokens != null) {
+                    return reader.readValue(tokens.asParser(reader));
+                }
+                status = validator.validateStatus(schema, json);
+            }
+        } else {
+            status = validator.validateStatus(schema, json);
+        }
+        if (status != ValidationStatus.VALID) {
+            throw rejected(status, json);
+        }
+        return reader.readValue(json);
+    }
+
+    // Buffers the payload's tokens and validates them in Java. Returns the buffer of a valid
+    // payload, or null if the payload must be validated natively.
+    private TokenBuffer validateTokens(JavaCompiledSchema javaSchema, byte[] json) throws IOException {
+        long start = System.nanoTime();
+        ValidationStatus status;
+        TokenBuffer tokens = null;
+        // Read as strictly as the native parser, whatever the features of the binding mapper
+        try (JsonParser parser = JavaValidator.MAPPER.createParser(json)) {
+            tokens = new TokenBuffer(parser);
+            if (parser.nextToken() != null) {
+                tokens.copyCurrentStructure(parser);
+            }
+            status = parser.nextToken() != null ? ValidationStatus.MALFORMED_INSTANCE
+                : javaSchema.validate(tokens.asParser(reader));
+        } catch (StreamReadException e) {
+            if (JavaValidator.isDuplicateKey(e)) {
+                return null;
+            }
+            status = ValidationStatus.MALFORMED_INSTANCE;
+        } catch (IOException e) {
+            // Beyond Jackson's limits
+            return null;
+        }
+        if (status == null) {
+            return null;
+        }
+        ValidationMetrics metrics = validator.getMetrics();
+        if (metrics != null) {
+            metrics.record(schema, status, System.nanoTime() - start);
+        }
+        if (status != ValidationStatus.VALID) {
+            throw rejected(status, json);
+        }
+        return tokens;
+    }
+
+    private InstanceValidationException rejected(ValidationStatus status, byte[] json) {
+        ValidationResult result = errorDetails
+            ? BlazeWrapper.validateInstanceWithDetails(schema, new String(json, StandardCharsets.UTF_8),
+                validator.getInstanceParser())
+            : null;
+        return new InstanceValidationException(status, result);
+    }
+}
@@ -1,20 +1,367 @@
 package com.github.madhavdhatrak.blaze4j;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+
 /**
  * Validator for JSON Schema validation
  */
 public class BlazeValidator {
+    // Writes JsonNodes, whose output does not depend on mapper configuration
+    private static final ObjectMapper NODE_MAPPER = new ObjectMapper();
+
+    private final InstanceParser instanceParser;
+    private final ValidationMetrics metrics;
+    private final boolean timings;
+    private final SchemaProfiler profiler;
+
+    /**
+     * Creates a validator that parses instances with the default parser
+     */
+    public BlazeValidator() {
+        this(InstanceParser.DEFAULT, null, false, null);
+    }
+
+    private BlazeValidator(InstanceParser instanceParser, ValidationMetrics metrics, boolean timings,
+                           SchemaProfiler profiler) {
+        this.instanceParser = instanceParser;
+        this.metrics = metrics;
+        this.timings = timings;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Returns a validator that parses instances with the given backend. Validation results
+     * are the same with every backend; only parsing speed differs.
+     * 
+     * @param instanceParser The instance parser backend
+     * @return A validator using that backend
+     * @throws UnsupportedOperationException If the native library was built without the backend
+     */
+    public BlazeValidator withInstanceParser(InstanceParser instanceParser) {
+        if (instanceParser == null) {
+            throw new IllegalArgumentException("Instance parser cannot be null");
+        }
+        if (!instanceParser.isAvailable()) {
+            throw new UnsupportedOperationException("The native library was built without the "
+                + instanceParser + " instance parser");
+        }
+        return new BlazeValidator(instanceParser, metrics, timings, profiler);
+    }
+
+    /**
+     * Returns the backend this validator parses instances with
+     * 
+     * @return The instance parser backend
+     */
+    public InstanceParser getInstanceParser() {
+        return instanceParser;
+    }
+
+    /**
+     * Returns a validator that records the outcome and latency of every validation, per
+     * schema, into the given metrics. Validators without metrics measure nothing.
+     * 
+     * @param metrics The metrics to record into, or null to stop recording
+     * @return A validator recording into those metrics
+     */
+    public BlazeValidator withMetrics(ValidationMetrics metrics) {
+        return new BlazeValidator(instanceParser, metrics, timings, profiler);
+    }
+
+    /**
+     * Returns the metrics this validator records into
+     * 
+     * @return The metrics, or null if this validator records nothing
+     */
+    public ValidationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns a validator whose detailed results carry the native parse, evaluation and
+     * formatting times in {@link ValidationResult#getTimings()}
+     * 
+     * @param timings Whether to measure detailed validations
+     * @return A validator with timings switched on or off
+     */
+    public BlazeValidator withTimings(boolean timings) {
+        return new BlazeValidator(instanceParser, metrics, timings, profiler);
+    }
+
+    /**
+     * Tells whether detailed results carry native timings
+     * 
+     * @return true if {@link #withTimings(boolean)} switched timings on
+     */
+    public boolean hasTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns a validator that profiles a sampled share of its boolean and status validations
+     * into the given profiler. Detailed validations are never profiled.
+     * 
+     * @param profiler The profiler to sample into, or null to stop profiling
+     * @return A validator sampling into that profiler
+     */
+    public BlazeValidator withProfiler(SchemaProfiler profiler) {
+        return new BlazeValidator(instanceParser, metrics, timings, profiler);
+    }
+
+    /**
+     * Returns the profiler this validator samples into
+     * 
+     * @return The profiler, or null if this validator profiles nothing
+     */
+    public SchemaProfiler getProfiler() {
+        return profiler;
+    }
+
     /**
      * Validates a JSON instance against a compiled schema
      * 
      * @param schema The compiled schema
      * @param instance The JSON instance to validate
-     * @return true if the instance is valid, false otherwise
+     * @return true if the instance is valid, false if it is invalid or not valid JSON
      */
     public boolean validate(CompiledSchema schema, String instance) {
-        return BlazeWrapper.validateInstance(schema, instance);
+        if (metrics != null || profiler != null) {
+            return validateStatus(schema, instance) == ValidationStatus.VALID;
+        }
+        return BlazeWrapper.validateInstance(schema, instance, instanceParser);
+    }
+    
+    /**
+     * Validates UTF-8 encoded JSON against a compiled schema. Once warmed up, this allocates
+     * nothing: instances up to 1 MiB are copied into a pooled native buffer, and the
+     * pure-Java backend is bypassed.
+     * 
+     * @param schema The compiled schema
+     * @param instance The UTF-8 bytes of the JSON instance
+     * @return true if the instance is valid, false if it is invalid or not valid JSON
+     */
+    public boolean validate(CompiledSchema schema, byte[] instance) {
+        return validateStatus(schema, instance) == ValidationStatus.VALID;
+    }
+
+    /**
+     * Validates UTF-8 encoded JSON held in a memory segment against a compiled schema.
+     * Native segments are read in place and heap segments are copied like byte arrays;
+     * either way, nothing is allocated once warmed up.
+     * 
+     * @param schema The compiled schema
+     * @param instance The UTF-8 bytes of the JSON instance, without a terminator
+     * @return true if the instance is valid, false if it is invalid or not valid JSON
+     */
+    public boolean validate(CompiledSchema schema, MemorySegment instance) {
+        return validateStatus(schema, instance) == ValidationStatus.VALID;
+    }
+
+    /**
+     * Validates a JSON instance against a compiled schema, telling schema violations
+     * apart from malformed instances
+     * 
+     * @param schema The compiled schema
+     * @param instance The JSON instance to validate
+     * @return The validation status
+     */
+    public ValidationStatus validateStatus(CompiledSchema schema, String instance) {
+        if (metrics == null) {
+            return status(schema, instance);
+        }
+        long start = System.nanoTime();
+        ValidationStatus status = status(schema, instance);
+        metrics.record(schema, status, System.nanoTime() - start);
+        return status;
     }
     
+    /**
+     * Validates UTF-8 encoded JSON against a compiled schema, telling schema violations
+     * apart from malformed instances, without allocating once warmed up
+     * 
+     * @param schema The compiled schema
+     * @param instance The UTF-8 bytes of the JSON instance
+     * @return The validation status
+     */
+    public ValidationStatus validateStatus(CompiledSchema schema, byte[] instance) {
+        if (instance == null) {
+            throw new IllegalArgumentException("Instance cannot be null");
+        }
+        if (metrics == null) {
+            return status(schema, instance);
+        }
+        long start = System.nanoTime();
+        ValidationStatus status = status(schema, instance);
+        metrics.record(schema, status, System.nanoTime() - start);
+        return status;
+    }
+
+    /**
+     * Validates UTF-8 encoded JSON held in a memory segment against a compiled schema,
+     * telling schema violations apart from malformed instances, without allocating once
+     * warmed up
+     * 
+     * @param schema The compiled schema
+     * @param instance The UTF-8 bytes of the JSON instance, without a terminator
+     * @return The validation status
+     */
+    public ValidationStatus validateStatus(CompiledSchema schema, MemorySegment instance) {
+        if (instance == null) {
+            throw new IllegalArgumentException("Instance cannot be null");
+        }
+        if (metrics == null) {
+            return status(schema, instance);
+        }
+        long start = System.nanoTime();
+        ValidationStatus status = status(schema, instance);
+        metrics.record(schema, status, System.nanoTime() - start);
+        return status;
+    }
+
+    /**
+     * Validates a Jackson tree against a compiled schema. The tree is written as UTF-8
+     * straight into a pooled native buffer, without an intermediate {@code String} or
+     * {@code byte[]}.
+     * 
+     * @param schema The compiled schema
+     * @param instance The JSON instance
+     * @return true if the instance is valid
+     */
+    public boolean validate(CompiledSchema schema, JsonNode instance) {
+        return validateStatus(schema, instance) == ValidationStatus.VALID;
+    }
+
+    /**
+     * Validates a Jackson tree against a compiled schema, telling schema violations apart
+     * from errors, without an intermediate {@code String} or {@code byte[]}
+     * 
+     * @param schema The compiled schema
+     * @param instance The JSON instance
+     * @return The validation status
+     */
+    public ValidationStatus validateStatus(CompiledSchema schema, JsonNode instance) {
+        return validateValueStatus(schema, instance, NODE_MAPPER);
+    }
+
+    /**
+     * Validates the JSON form of an object against a compiled schema. The object is
+     * serialized by the mapper, with its modules and annotations, as UTF-8 straight into a
+     * pooled native buffer, instead of through {@code writeValueAsString}.
+     * 
+     * @param schema The compiled schema
+     * @param value The object to serialize, such as a DTO or a {@link JsonNode}
+     * @param mapper The mapper that serializes it, which must write JSON
+     * @return true if the serialized object is valid
+     * @throws IllegalArgumentException If the mapper writes another format, such as YAML or
+     *         CBOR, or fails to serialize the object
+     */
+    public boolean validateValue(CompiledSchema schema, Object value, ObjectMapper mapper) {
+        return validateValueStatus(schema, value, mapper) == ValidationStatus.VALID;
+    }
+
+    /**
+     * Validates the JSON form of an object against a compiled schema, telling schema
+     * violations apart from errors
+     * 
+     * @param schema The compiled schema
+     * @param value The object to serialize, such as a DTO or a {@link JsonNode}
+     * @param mapper The mapper that serializes it, which must write JSON
+     * @return The validation status
+     * @throws IllegalArgumentException If the mapper writes another format, such as YAML or
+     *         CBOR, or fails to serialize the object
+     */
+    public ValidationStatus validateValueStatus(CompiledSchema schema, Object value, ObjectMapper mapper) {
+        if (value == null) {
+            throw new IllegalArgumentException("Instance cannot be null");
+        }
+        if (mapper == null) {
+            throw new IllegalArgumentException("Object mapper cannot be null");
+        }
+        // Other formats would only ever come out as malformed JSON
+        String format = mapper.getFactory().getFormatName();
+        if (!JsonFactory.FORMAT_NAME_JSON.equals(format)) {
+            throw new IllegalArgumentException("Object mapper must write JSON, not " + format);
+        }
+        NativeOutputStream out = NativeOutputStream.acquire();
+        try {
+            try {
+                mapper.writeValue(out, value);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to serialize instance: " + e.getMessage(), e);
+            }
+            return validateStatus(schema, out.segment(), out.size());
+        } finally {
+            NativeOutputStream.release(out);
+        }
+    }
+
+    // Validates with the profiler, for callers that already sampled the validation
+    ValidationStatus validateProfiledStatus(CompiledSchema schema, byte[] instance) {
+        long start = System.nanoTime();
+        ValidationStatus status = profiler.validate(schema, instance, instanceParser);
+        if (status == null) {
+            status = BlazeWrapper.validateStatus(schema, instance, instanceParser);
+        }
+        if (metrics != null) {
+            metrics.record(schema, status, System.nanoTime() - start);
+        }
+        return status;
+    }
+
+    // Validates the first length bytes of a native segment, whose remaining bytes the parser
+    // may read as padding
+    private ValidationStatus validateStatus(CompiledSchema schema, MemorySegment instance, long length) {
+        long start = metrics == null ? 0 : System.nanoTime();
+        ValidationStatus status = null;
+        if (profiler != null && profiler.sample()) {
+            status = profiler.validate(schema, instance, length, instanceParser);
+        }
+        if (status == null) {
+            status = BlazeWrapper.validateStatus(schema, instance, length, instanceParser);
+        }
+        if (metrics != null) {
+            metrics.record(schema, status, System.nanoTime() - start);
+        }
+        return status;
+    }
+
+    // Validates through the profiler when this call is sampled and the profiler is still open
+
+    private ValidationStatus status(CompiledSchema schema, String instance) {
+        if (profiler != null && profiler.sample()) {
+            ValidationStatus status = profiler.validate(schema, instance, instanceParser);
+            if (status != null) {
+                return status;
+            }
+        }
+        return BlazeWrapper.validateStatus(schema, instance, instanceParser);
+    }
+
+    private ValidationStatus status(CompiledSchema schema, byte[] instance) {
+        if (profiler != null && profiler.sample()) {
+            ValidationStatus status = profiler.validate(schema, instance, instanceParser);
+            if (status != null) {
+                return status;
+            }
+        }
+        return BlazeWrapper.validateStatus(schema, instance, instanceParser);
+    }
+
+    private ValidationStatus status(CompiledSchema schema, MemorySegment instance) {
+        if (profiler != null && profiler.sample()) {
+            ValidationStatus status = profiler.validate(schema, instance, instanceParser);
+            if (status != null) {
+                return status;
+            }
+        }
+        return BlazeWrapper.validateStatus(schema, instance, instanceParser);
+    }
+
     /**
      * Validates a JSON instance against a compiled schema with detailed results
      * 
@@ -23,6 +370,12 @@ public class BlazeValidator {
      * @return A ValidationResult containing detailed validation information
      */
     public ValidationResult validateWithDetails(CompiledSchema schema, String instance) {
-        return BlazeWrapper.validateInstanceWithDetails(schema, instance);
+        if (metrics == null) {
+            return BlazeWrapper.validateInstanceWithDetails(schema, instance, instanceParser, timings);
+        }
+        long start = System.nanoTime();
+        ValidationResult result = BlazeWrapper.validateInstanceWithDetails(schema, instance, instanceParser, timings);
+        metrics.record(schema, result.getStatus(), System.nanoTime() - start);
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -4,33 +4,62 @@ import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.Optional;
 import java.nio.charset.StandardCharsets;
-import java.io.InputStream;
-import java.io.IOException;
 import java.io.File;
 import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 class BlazeWrapper {
     private static final Logger LOGGER = Logger.getLogger(BlazeWrapper.class.getName());
     private static final Linker linker = Linker.nativeLinker();
     private static final SymbolLookup symbolLookup;
-    private static final MethodHandle blazeCompileHandle;
-    private static final MethodHandle blazeValidateHandle;
+    private static final MethodHandle blazeCompileExHandle;
+    private static final MethodHandle blazeValidateWithParserHandle;
     private static final MethodHandle blazeFreeTemplateHandle;
     private static final MethodHandle blazeAllocStringHandle;
     private static final MethodHandle blazeFreeStringHandle;
-    private static final MethodHandle blazeValidateWithOutputHandle;
+    private static final MethodHandle blazeValidateWithOutputTimedHandle;
+    private static final MethodHandle blazeInstanceParserNameHandle;
     private static final MethodHandle blazeFreeJsonHandle;
+    private static final MethodHandle blazeResolverCacheInvalidateHandle;
+    private static final MethodHandle blazeResolverCacheClearHandle;
+    private static final MethodHandle blazeMemoryStatsHandle;
+    private static final MethodHandle blazeAllocatorNameHandle;
+    private static final MethodHandle blazeProfileCreateHandle;
+    private static final MethodHandle blazeProfileFreeHandle;
+    private static final MethodHandle blazeProfileResetHandle;
+    private static final MethodHandle blazeValidateProfiledHandle;
+    private static final MethodHandle blazeProfileReportHandle;
     private static final MemorySegment resolverUpcallStub;
     private static final Cleaner cleaner = Cleaner.create();
 
+    // Order of the counters written by blaze_memory_stats
+    static final int NATIVE_LIVE_TEMPLATES = 0;
+    static final int NATIVE_TEMPLATES_COMPILED = 1;
+    static final int NATIVE_TEMPLATES_FREED = 2;
+    static final int NATIVE_STRING_LIVE_COUNT = 3;
+    static final int NATIVE_STRING_LIVE_BYTES = 4;
+    static final int NATIVE_STRING_TOTAL_BYTES = 5;
+    static final int NATIVE_OUTPUT_LIVE_COUNT = 6;
+    static final int NATIVE_OUTPUT_LIVE_BYTES = 7;
+    static final int NATIVE_OUTPUT_TOTAL_BYTES = 8;
+    static final int NATIVE_RESOLVER_CACHE_ENTRIES = 9;
+    static final int NATIVE_RESOLVER_CACHE_BYTES = 10;
+    private static final int NATIVE_STAT_COUNT = 11;
+
+    // Slots of the timings array written by blaze_validate_with_output_timed
+    private static final int TIMING_PARSE = 0;
+    private static final int TIMING_EVALUATE = 1;
+    private static final int TIMING_FORMAT = 2;
+    private static final int TIMING_COUNT = 3;
+
+    private static final long ERROR_BUFFER_SIZE = 1024;
+
     static {
         try {
             System.loadLibrary("blaze4j");
@@ -64,51 +93,62 @@ class BlazeWrapper {
             throw new RuntimeException("Failed to initialize blaze string allocation handles: " + e.getMessage());
         }
 
-        // Setup blaze_compile handle
-        FunctionDescriptor compileDesc = FunctionDescriptor.of(
-            ValueLayout.JAVA_LONG,
-            ValueLayout.ADDRESS,
-            ValueLayout.ADDRESS,
-            ValueLayout.ADDRESS,
-            ValueLayout.ADDRESS
-        );
+        // Setup status-returning entry points:
+        // int32_t blaze_compile_ex(schema, length, walker, resolver, dialect, handle_out, error, error_capacity)
+        // int32_t blaze_validate_with_parser(handle, instance, length, capacity, parser, error, error_capacity)
         try {
-            blazeCompileHandle = linker.downcallHandle(
-                symbolLookup.find("blaze_compile").orElseThrow(),
-                compileDesc
+            blazeCompileExHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_compile_ex").orElseThrow(),
+                FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG
+                )
             );
-        } catch (Throwable e) {
-            throw new RuntimeException("Failed to initialize blaze_compile handle", e);
-        }
-
-        // Setup blaze_validate handle
-        FunctionDescriptor validateDesc = FunctionDescriptor.of(
-            ValueLayout.JAVA_BOOLEAN,
-            ValueLayout.JAVA_LONG,
-            ValueLayout.ADDRESS
-        );
-        try {
-            blazeValidateHandle = linker.downcallHandle(
-                symbolLookup.find("blaze_validate").orElseThrow(),
-                validateDesc
+            blazeValidateWithParserHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_validate_with_parser").orElseThrow(),
+                FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG
+                )
             );
         } catch (Throwable e) {
-            throw new RuntimeException("Failed to initialize blaze_validate handle", e);
+            throw new RuntimeException("Failed to initialize status entry point handles", e);
         }
 
-        // Setup blaze_validate_with_output handle
+        // Setup blaze_validate_with_output_timed handle; timings may be NULL
+        // char* blaze_validate_with_output_timed(handle, instance, length, parser, timings)
         FunctionDescriptor validateWithOutputDesc = FunctionDescriptor.of(
             ValueLayout.ADDRESS,
             ValueLayout.JAVA_LONG,
+            ValueLayout.ADDRESS,
+            ValueLayout.JAVA_LONG,
+            ValueLayout.JAVA_INT,
             ValueLayout.ADDRESS
         );
         try {
-            blazeValidateWithOutputHandle = linker.downcallHandle(
-                symbolLookup.find("blaze_validate_with_output").orElseThrow(),
+            blazeValidateWithOutputTimedHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_validate_with_output_timed").orElseThrow(),
                 validateWithOutputDesc
             );
+            blazeInstanceParserNameHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_instance_parser_name").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+            );
         } catch (Throwable e) {
-            throw new RuntimeException("Failed to initialize blaze_validate_with_output handle", e);
+            throw new RuntimeException("Failed to initialize blaze_validate_with_output_timed handle", e);
         }
         
         // Setup blaze_free_json handle
@@ -133,13 +173,83 @@ class BlazeWrapper {
             throw new RuntimeException("Failed to initialize blaze_free_template handle", e);
         }
 
+        // Setup resolver cache invalidation handles
+        try {
+            blazeResolverCacheInvalidateHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_resolver_cache_invalidate").orElseThrow(),
+                FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+            );
+            blazeResolverCacheClearHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_resolver_cache_clear").orElseThrow(),
+                FunctionDescriptor.ofVoid()
+            );
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to initialize resolver cache handles", e);
+        }
+
+        // Setup blaze_memory_stats handle
+        try {
+            blazeMemoryStatsHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_memory_stats").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT)
+            );
+            blazeAllocatorNameHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_allocator_name").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.ADDRESS)
+            );
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to initialize native memory handles", e);
+        }
+
+        // Setup profiling handles:
+        // int32_t blaze_validate_profiled(handle, instance, length, capacity, parser, profile)
+        // char* blaze_profile_report(profile, limit)
+        try {
+            blazeProfileCreateHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_profile_create").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.JAVA_LONG)
+            );
+            blazeProfileFreeHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_profile_free").orElseThrow(),
+                FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG)
+            );
+            blazeProfileResetHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_profile_reset").orElseThrow(),
+                FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG)
+            );
+            blazeValidateProfiledHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_validate_profiled").orElseThrow(),
+                FunctionDescriptor.of(
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_LONG,
+                    ValueLayout.JAVA_INT,
+                    ValueLayout.JAVA_LONG
+                )
+            );
+            blazeProfileReportHandle = linker.downcallHandle(
+                symbolLookup.find("blaze_profile_report").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT)
+            );
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to initialize profiling handles", e);
+        }
+
         // Create upcall stub for custom resolver
         try {
-            FunctionDescriptor resolverDesc = FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS);
+            // const char* resolver(const char* uri, size_t* length, int32_t* owned)
+            FunctionDescriptor resolverDesc = FunctionDescriptor.of(
+                ValueLayout.ADDRESS,
+                ValueLayout.ADDRESS,
+                ValueLayout.ADDRESS,
+                ValueLayout.ADDRESS
+            );
             MethodHandle resolverMethod = MethodHandles.lookup().findStatic(
                 BlazeWrapper.class,
                 "customResolver",
-                MethodType.methodType(MemorySegment.class, MemorySegment.class)
+                MethodType.methodType(MemorySegment.class, MemorySegment.class, MemorySegment.class, MemorySegment.class)
             );
             resolverUpcallStub = linker.upcallStub(
                 resolverMethod,
@@ -149,6 +259,8 @@ class BlazeWrapper {
         } catch (Throwable e) {
             throw new RuntimeException("Failed to create resolver upcall stub", e);
         }
+
+        Blaze4jManagement.register();
     }
         
     /**
@@ -169,40 +281,33 @@ class BlazeWrapper {
         return new String(buf, StandardCharsets.UTF_8);
     }
 
-    private static String readClasspathResource(String resourcePath) {
-        // Remove leading slashes for classloader compatibility
-        String normalizedPath = resourcePath.replaceFirst("^/+", "");
-        
-        try (InputStream inputStream = BlazeWrapper.class.getClassLoader()
-                .getResourceAsStream(normalizedPath)) {
-            
-            if (inputStream == null) {
-                LOGGER.severe("Classpath resource not found: " + normalizedPath);
-                return null;
-            }
-            
-            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            return content;
-        } catch (IOException e) {
-            LOGGER.severe("Error reading classpath resource: " + e.getMessage());
-            return null;
+    // Resolution state of the compilation running on this thread
+    private static class ResolutionContext {
+        private final SchemaResolver resolver;
+        // Borrowed schema segments must stay reachable until the native compile returns
+        private final List<EncodedSchema> borrowed = new ArrayList<>();
+        // URIs requested by native code, reported by the compile event
+        private int resolved;
+
+        ResolutionContext(SchemaResolver resolver) {
+            this.resolver = resolver;
         }
     }
 
-    // Schema registry for the current resolution context
-    private static final ThreadLocal<SchemaRegistry> CURRENT_REGISTRY = new ThreadLocal<>();
+    // Schema resolver for the current resolution context
+    private static final ThreadLocal<ResolutionContext> CURRENT_RESOLUTION = new ThreadLocal<>();
 
-    // Set the current registry for schema resolution
-    static void setCurrentRegistry(SchemaRegistry registry) {
-        CURRENT_REGISTRY.set(registry);
+    // Set the current resolver for schema resolution
+    static void setCurrentResolver(SchemaResolver resolver) {
+        CURRENT_RESOLUTION.set(new ResolutionContext(resolver));
     }
     
-    // Remove the current registry from the thread local
-    static void clearCurrentRegistry() {
-        CURRENT_REGISTRY.remove();
+    // Remove the current resolver from the thread local
+    static void clearCurrentResolver() {
+        CURRENT_RESOLUTION.remove();
     }
     
-    private static MemorySegment customResolver(MemorySegment uriPtrSegment) {
+    private static MemorySegment customResolver(MemorySegment uriPtrSegment, MemorySegment lengthOut, MemorySegment ownedOut) {
         try {
             // Check if segment is null or NULL
             if (uriPtrSegment == null || uriPtrSegment.equals(MemorySegment.NULL)) {
@@ -249,34 +354,34 @@ class BlazeWrapper {
                     return MemorySegment.NULL;
                 }
                 
-                // Get the registry from the thread local storage
-                SchemaRegistry registry = CURRENT_REGISTRY.get();
-                if (uri != null && registry != null && registry.contains(uri)) {
-                    LOGGER.fine("Found schema in registry for URI: " + uri);
-                    String schemaJson = registry.resolve(uri);
-                    return processSchemaJson(schemaJson);
-                }
-
-                // Handle different URI schemes
-                if (uri != null) {
-                    if (uri.startsWith("http://") || uri.startsWith("https://")) {
-                        // Existing HTTP handling
-                        String schemaJson = fetchRemoteSchema(uri);
-                        return processSchemaJson(schemaJson);
-                    }
-                    else if (uri.startsWith("classpath://")) {
-                        // Existing classpath handling
-                        String resourcePath = uri.substring("classpath://".length());
-                        LOGGER.fine("Resolving classpath resource: " + resourcePath);
-                        String schemaJson = readClasspathResource(resourcePath);
-                        // Normalize JSON before returning
-                        if (schemaJson != null) {
-                            schemaJson = schemaJson.trim().replaceFirst("^\\{\\s+", "{");
+                // Get the resolver from the thread local storage
+                ResolutionContext context = CURRENT_RESOLUTION.get();
+                if (uri != null && context != null) {
+                    context.resolved++;
+                    ResolveEvent event = new ResolveEvent();
+                    event.begin();
+                    String outcome = "error";
+                    long bytes = 0;
+                    try {
+                        EncodedSchema schema = SchemaResolverChain.resolveEncoded(context.resolver, uri);
+                        if (schema != null) {
+                            LOGGER.fine("Resolved schema for URI: " + uri);
+                            MemorySegment result = processSchema(context, schema, lengthOut, ownedOut);
+                            if (!result.equals(MemorySegment.NULL)) {
+                                outcome = "hit";
+                                bytes = schema.isEncoded() ? schema.byteLength() : result.byteSize() - 1;
+                            }
+                            return result;
                         }
-                        return processSchemaJson(schemaJson);
-                    }
-                    else {
+                        outcome = "miss";
                         LOGGER.warning("Unsupported URI scheme or unregistered URI: " + uri);
+                    } finally {
+                        if (event.shouldCommit()) {
+                            event.uri = uri;
+                            event.bytes = bytes;
+                            event.outcome = outcome;
+                            event.commit();
+                        }
                     }
                 }
             }
@@ -289,12 +394,35 @@ class BlazeWrapper {
         }
     }
 
+    // Hands a resolved schema to native code. Pre-encoded schemas are lent without copying
+    // (owned = 0, native code must not free them); plain text is copied into a native
+    // string that native code frees after parsing (owned = 1).
+    private static MemorySegment processSchema(ResolutionContext context, EncodedSchema schema,
+                                               MemorySegment lengthOut, MemorySegment ownedOut) {
+        MemorySegment length = lengthOut.reinterpret(ValueLayout.JAVA_LONG.byteSize());
+        MemorySegment owned = ownedOut.reinterpret(ValueLayout.JAVA_INT.byteSize());
+
+        if (schema.isEncoded()) {
+            context.borrowed.add(schema);
+            length.set(ValueLayout.JAVA_LONG, 0, schema.byteLength());
+            owned.set(ValueLayout.JAVA_INT, 0, 0);
+            return schema.segment();
+        }
+
+        MemorySegment cString = processSchemaJson(schema.text());
+        if (!cString.equals(MemorySegment.NULL)) {
+            length.set(ValueLayout.JAVA_LONG, 0, cString.byteSize() - 1);
+            owned.set(ValueLayout.JAVA_INT, 0, 1);
+        }
+        return cString;
+    }
+
     private static MemorySegment processSchemaJson(String schemaJson) {
         if (schemaJson == null) return MemorySegment.NULL;
         
         try {
-           
-            long size = schemaJson.length() + 1;
+            byte[] schemaBytes = schemaJson.getBytes(StandardCharsets.UTF_8);
+            long size = schemaBytes.length + 1L;
             MemorySegment cStringPtr = (MemorySegment) blazeAllocStringHandle.invokeExact(size);
             
             if (cStringPtr == null || cStringPtr.equals(MemorySegment.NULL) || cStringPtr.address() == 0) {
@@ -303,11 +431,10 @@ class BlazeWrapper {
             }
             
             MemorySegment cString = cStringPtr.reinterpret(size);
-            byte[] schemaBytes = schemaJson.getBytes(StandardCharsets.UTF_8);
-            cString.copyFrom(MemorySegment.ofArray(schemaBytes));
+            MemorySegment.copy(schemaBytes, 0, cString, ValueLayout.JAVA_BYTE, 0, schemaBytes.length);
             cString.set(ValueLayout.JAVA_BYTE, schemaBytes.length, (byte) 0);
             
-            return cStringPtr;
+            return cString;
         } catch (Throwable e) {
             LOGGER.severe("Error processing schema: " + e.getMessage());
             e.printStackTrace();
@@ -315,31 +442,6 @@ class BlazeWrapper {
         }
     }
 
-    private static String fetchRemoteSchema(String uri) {
-        try {
-            HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(3))
-                .build();
-                
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(uri))
-                .timeout(Duration.ofSeconds(3))
-                .build();
-            
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                return response.body();
-            } else {
-                LOGGER.warning("Failed to fetch schema from " + uri + ": HTTP " + response.statusCode());
-                return null;
-            }
-        } catch (Exception e) {
-            LOGGER.severe("Error fetching schema from " + uri + ": " + e.getMessage());
-            return null;
-        }
-    }
-
     static String compile(String schema, String walker, String resolver) {
         try (Arena arena = Arena.ofConfined()) {
             CompiledSchema compiledSchema = compileSchema(schema, arena);
@@ -350,11 +452,11 @@ class BlazeWrapper {
     }
 
     static CompiledSchema compileSchema(String schema, Arena arena) {
-        return compileSchema(schema, null, arena, null);
+        return compileSchema(schema, (SchemaRegistry) null, arena, null);
     }
 
     static CompiledSchema compileSchema(String schema, Arena arena, String defaultDialect) {
-        return compileSchema(schema, null, arena, defaultDialect);
+        return compileSchema(schema, (SchemaRegistry) null, arena, defaultDialect);
     }
     
     static CompiledSchema compileSchema(String schema, SchemaRegistry registry, Arena arena) {
@@ -362,67 +464,233 @@ class BlazeWrapper {
     }
 
     static CompiledSchema compileSchema(String schema, SchemaRegistry registry, Arena arena, String defaultDialect) {
-        String walker = "{}";
-        
+        return compileSchema(schema, defaultResolver(registry), arena, defaultDialect);
+    }
+
+    // The registry is always consulted first, then the default network and classpath resolvers
+    static SchemaResolver defaultResolver(SchemaRegistry registry) {
+        SchemaResolverChain.Builder builder = SchemaResolverChain.builder();
         if (registry != null) {
-            setCurrentRegistry(registry);
+            builder.add("registry", registry.snapshot());
         }
+        return builder.add("defaults", SchemaResolverChain.defaults()).build();
+    }
+
+    static CompiledSchema compileSchema(String schema, SchemaResolver resolver, Arena arena, String defaultDialect) {
+        String walker = "{}";
+        
+        setCurrentResolver(resolver);
+        CompileEvent event = new CompileEvent();
+        event.begin();
+        String outcome = "error";
+        long schemaBytes = 0;
         
         try {
             MemorySegment schemaSeg = arena.allocateFrom(schema);
+            schemaBytes = schemaSeg.byteSize() - 1;
             MemorySegment walkerSeg = arena.allocateFrom(walker);
             
             // Use the provided default dialect or null
             MemorySegment dialectSeg = defaultDialect != null ? 
                 arena.allocateFrom(defaultDialect) : 
                 MemorySegment.NULL;
+            MemorySegment handleSeg = arena.allocate(ValueLayout.JAVA_LONG);
+            MemorySegment errorSeg = arena.allocate(ERROR_BUFFER_SIZE);
 
-            long schemaHandle;
+            int status;
             try {
-                schemaHandle = (long) blazeCompileHandle.invoke(
+                status = (int) blazeCompileExHandle.invokeExact(
                     schemaSeg,
+                    schemaSeg.byteSize() - 1,
                     walkerSeg,
                     resolverUpcallStub,
-                    dialectSeg
+                    dialectSeg,
+                    handleSeg,
+                    errorSeg,
+                    ERROR_BUFFER_SIZE
                 );
             } catch (Throwable e) {
                 throw new RuntimeException("Failed to invoke native compile function", e);
             }
 
-            if (schemaHandle == 0) {
-                throw new RuntimeException("Schema compilation failed");
+            if (status != NativeStatus.OK) {
+                SchemaCompilationException failure = SchemaCompilationException.fromNative(status, errorSeg.getString(0));
+                outcome = failure.getMessage();
+                throw failure;
             }
 
-            return new CompiledSchemaImpl(schemaHandle);
+            outcome = "success";
+            return new CompiledSchemaImpl(handleSeg.get(ValueLayout.JAVA_LONG, 0));
+        } catch (SchemaCompilationException e) {
+            throw e;
         } catch (Throwable e) {
             throw new RuntimeException("Unexpected error during schema compilation", e);
         } finally {
-            if (registry != null) {
-                clearCurrentRegistry();
+            if (event.shouldCommit()) {
+                event.bytes = schemaBytes;
+                event.defaultDialect = defaultDialect;
+                event.resolvedSchemas = CURRENT_RESOLUTION.get().resolved;
+                event.outcome = outcome;
+                event.commit();
             }
+            clearCurrentResolver();
         }
     }
 
     static boolean validateInstance(CompiledSchema schema, String instance) {
+        return validateStatus(schema, instance) == ValidationStatus.VALID;
+    }
+
+    static boolean validateInstance(CompiledSchema schema, String instance, InstanceParser parser) {
+        return validateStatus(schema, instance, parser) == ValidationStatus.VALID;
+    }
+
+    static ValidationStatus validateStatus(CompiledSchema schema, String instance) {
+        return validateStatus(schema, instance, InstanceParser.DEFAULT);
+    }
+
+    static ValidationStatus validateStatus(CompiledSchema schema, String instance, InstanceParser parser) {
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        if (schema instanceof JavaCompiledSchema javaSchema) {
+            ValidationStatus status = javaSchema.validate(instance);
+            if (status != null) {
+                if (event.shouldCommit()) {
+                    commitValidateEvent(event, utf8Length(instance), "java", false, status);
+                }
+                return status;
+            }
+        }
         try (Arena arena = Arena.ofConfined()) {
             MemorySegment instanceSeg = arena.allocateFrom(instance);
-            long schemaHandle = schema.getHandle();
+            long length = instanceSeg.byteSize() - 1;
+            long schemaHandle = acquireHandle(schema);
 
             try {
-                return (boolean) blazeValidateHandle.invoke(schemaHandle, instanceSeg);
+                // No error buffer: the status alone is enough on the boolean path
+                int status = (int) blazeValidateWithParserHandle.invokeExact(
+                    schemaHandle, instanceSeg, length, instanceSeg.byteSize(), parser.nativeId(), MemorySegment.NULL, 0L);
+                ValidationStatus result = ValidationStatus.fromNative(status);
+                commitValidateEvent(event, length, parser.name(), false, result);
+                return result;
             } catch (Throwable e) {
                 throw new RuntimeException("Failed to invoke native validate function", e);
+            } finally {
+                releaseHandle(schema);
+            }
+        }
+    }
+
+    // Byte instances up to this size are copied into a pooled native buffer that is reused
+    static final int POOLED_INSTANCE_LIMIT = 1 << 20;
+    // Slack left after the instances in buffers this library allocates, so the simdjson
+    // parser, which reads up to SIMDJSON_PADDING bytes past the end, parses them in place
+    static final int INSTANCE_PADDING = 64;
+    // Shared rather than per thread, so virtual threads do not each hold a buffer
+    private static final SharedPool<InstanceBuffer> INSTANCE_BUFFERS = new SharedPool<>(InstanceBuffer::new);
+
+    // Native copy of UTF-8 instances, used by one thread at a time, with INSTANCE_PADDING
+    // bytes to spare. It only grows, and a replaced buffer is freed by the garbage collector.
+    private static final class InstanceBuffer {
+        // Never NULL, which native code would reject even for an empty instance
+        private MemorySegment segment = Arena.ofAuto().allocate(4096 + INSTANCE_PADDING);
+
+        MemorySegment fill(MemorySegment instance) {
+            ensureCapacity(instance.byteSize());
+            MemorySegment.copy(instance, 0, segment, 0, instance.byteSize());
+            return segment;
+        }
+
+        MemorySegment fill(byte[] instance) {
+            ensureCapacity(instance.length);
+            MemorySegment.copy(instance, 0, segment, ValueLayout.JAVA_BYTE, 0, instance.length);
+            return segment;
+        }
+
+        private void ensureCapacity(long length) {
+            if (segment.byteSize() < length + INSTANCE_PADDING) {
+                segment = Arena.ofAuto().allocate((Long.highestOneBit(length - 1) << 1) + INSTANCE_PADDING);
+            }
+        }
+    }
+
+    static ValidationStatus validateStatus(CompiledSchema schema, byte[] instance, InstanceParser parser) {
+        if (instance.length > POOLED_INSTANCE_LIMIT) {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment copy = arena.allocate(instance.length + INSTANCE_PADDING);
+                MemorySegment.copy(instance, 0, copy, ValueLayout.JAVA_BYTE, 0, instance.length);
+                return validateStatus(schema, copy, instance.length, parser);
+            }
+        }
+        InstanceBuffer buffer = INSTANCE_BUFFERS.acquire();
+        try {
+            return validateStatus(schema, buffer.fill(instance), instance.length, parser);
+        } finally {
+            INSTANCE_BUFFERS.release(buffer);
+        }
+    }
+
+    static ValidationStatus validateStatus(CompiledSchema schema, MemorySegment instance, InstanceParser parser) {
+        if (instance.isNative()) {
+            return validateStatus(schema, instance, instance.byteSize(), parser);
+        }
+        if (instance.byteSize() > POOLED_INSTANCE_LIMIT) {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment copy = arena.allocate(instance.byteSize() + INSTANCE_PADDING);
+                MemorySegment.copy(instance, 0, copy, 0, instance.byteSize());
+                return validateStatus(schema, copy, instance.byteSize(), parser);
             }
         }
+        InstanceBuffer buffer = INSTANCE_BUFFERS.acquire();
+        try {
+            return validateStatus(schema, buffer.fill(instance), instance.byteSize(), parser);
+        } finally {
+            INSTANCE_BUFFERS.release(buffer);
+        }
+    }
+
+    // Validates the first length bytes of a native segment, whose remaining bytes the parser
+    // may read as padding. Nothing is allocated here once the JIT has compiled it: the handle
+    // is invoked exactly and the status is a primitive.
+    static ValidationStatus validateStatus(CompiledSchema schema, MemorySegment instance, long length,
+                                           InstanceParser parser) {
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        long schemaHandle = acquireHandle(schema);
+        int status;
+        try {
+            status = (int) blazeValidateWithParserHandle.invokeExact(
+                schemaHandle, instance, length, instance.byteSize(), parser.nativeId(), MemorySegment.NULL, 0L);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to invoke native validate function", e);
+        } finally {
+            releaseHandle(schema);
+        }
+        ValidationStatus result = ValidationStatus.fromNative(status);
+        commitValidateEvent(event, length, parser.name(), false, result);
+        return result;
     }
 
     static ValidationResult validateInstanceWithDetails(CompiledSchema schema, String instance) {
+        return validateInstanceWithDetails(schema, instance, InstanceParser.DEFAULT);
+    }
+
+    static ValidationResult validateInstanceWithDetails(CompiledSchema schema, String instance, InstanceParser parser) {
+        return validateInstanceWithDetails(schema, instance, parser, false);
+    }
+
+    static ValidationResult validateInstanceWithDetails(CompiledSchema schema, String instance, InstanceParser parser,
+                                                        boolean timed) {
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
         try (Arena arena = Arena.ofConfined()) {
             MemorySegment instanceSeg = arena.allocateFrom(instance);
-            long schemaHandle = schema.getHandle();
+            long schemaHandle = acquireHandle(schema);
+            MemorySegment timingsSeg = timed ? arena.allocate(ValueLayout.JAVA_LONG, TIMING_COUNT) : MemorySegment.NULL;
 
             try {
-                MemorySegment resultSeg = (MemorySegment) blazeValidateWithOutputHandle.invoke(schemaHandle, instanceSeg);
+                MemorySegment resultSeg = (MemorySegment) blazeValidateWithOutputTimedHandle.invoke(
+                    schemaHandle, instanceSeg, instanceSeg.byteSize() - 1, parser.nativeId(), timingsSeg);
                 if (resultSeg.equals(MemorySegment.NULL)) {
                     throw new RuntimeException("Failed to get validation details");
                 }
@@ -433,13 +701,209 @@ class BlazeWrapper {
                 // Free the memory allocated in C++
                 blazeFreeJsonHandle.invoke(resultSeg);
                 
-                return ValidationResult.fromJson(jsonResult);
+                ValidationResult result = ValidationResult.fromJson(jsonResult);
+                if (timed) {
+                    result = result.withTimings(new ValidationTimings(
+                        timingsSeg.getAtIndex(ValueLayout.JAVA_LONG, TIMING_PARSE),
+                        timingsSeg.getAtIndex(ValueLayout.JAVA_LONG, TIMING_EVALUATE),
+                        timingsSeg.getAtIndex(ValueLayout.JAVA_LONG, TIMING_FORMAT)));
+                }
+                commitValidateEvent(event, instanceSeg.byteSize() - 1, parser.name(), true, result.getStatus());
+                return result;
             } catch (Throwable e) {
                 throw new RuntimeException("Failed to invoke detailed validation function", e);
+            } finally {
+                releaseHandle(schema);
+            }
+        }
+    }
+
+    // Allocates an empty native profile, freed with freeProfile
+    static long createProfile() {
+        long profile;
+        try {
+            profile = (long) blazeProfileCreateHandle.invokeExact();
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to invoke native profile function", e);
+        }
+        if (profile == 0) {
+            throw new OutOfMemoryError("Failed to allocate a native validation profile");
+        }
+        return profile;
+    }
+
+    static void freeProfile(long profile) {
+        try {
+            blazeProfileFreeHandle.invokeExact(profile);
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to free native validation profile: " + e.getMessage());
+        }
+    }
+
+    static void resetProfile(long profile) {
+        try {
+            blazeProfileResetHandle.invokeExact(profile);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to invoke native profile function", e);
+        }
+    }
+
+    // Validates the first length bytes of a native segment, whose remaining bytes the parser
+    // may read as padding, adding the time spent at each schema location to the profile.
+    // Always runs natively, even for the Java backend.
+    static ValidationStatus validateProfiled(CompiledSchema schema, MemorySegment instance, long length,
+                                             InstanceParser parser, long profile) {
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        long schemaHandle = acquireHandle(schema);
+        int status;
+        try {
+            status = (int) blazeValidateProfiledHandle.invokeExact(
+                schemaHandle, instance, length, instance.byteSize(), parser.nativeId(), profile);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to invoke native profiled validate function", e);
+        } finally {
+            releaseHandle(schema);
+        }
+        ValidationStatus result = ValidationStatus.fromNative(status);
+        commitValidateEvent(event, length, parser.name(), false, result);
+        return result;
+    }
+
+    // The hottest locations of a profile as JSON, see blaze_profile_report
+    static String profileReport(long profile, int limit) {
+        try {
+            MemorySegment report = (MemorySegment) blazeProfileReportHandle.invokeExact(profile, limit);
+            if (report.equals(MemorySegment.NULL)) {
+                throw new RuntimeException("Failed to read the validation profile");
             }
+            try {
+                return getNullTerminatedUtf8String(report.reinterpret(Long.MAX_VALUE));
+            } finally {
+                blazeFreeJsonHandle.invokeExact(report);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to invoke native profile report function", e);
+        }
+    }
+
+    // The event's fields are only filled in when a recording wants it
+    private static void commitValidateEvent(ValidateEvent event, long bytes, String backend, boolean detailed,
+                                            ValidationStatus status) {
+        if (event.shouldCommit()) {
+            event.bytes = bytes;
+            event.backend = backend;
+            event.detailed = detailed;
+            event.outcome = status.name();
+            event.commit();
+        }
+    }
+
+    // UTF-8 length of an instance that never reached native code
+    private static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    // Drop the native parsed copy of a resolved schema so the next compile re-parses it
+    static void invalidateResolverCache(String uri) {
+        try (Arena arena = Arena.ofConfined()) {
+            blazeResolverCacheInvalidateHandle.invoke(arena.allocateFrom(uri));
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to invalidate native resolver cache for " + uri + ": " + e.getMessage());
+        }
+    }
+
+    // Drop every native parsed copy of resolved schemas
+    static void clearResolverCache() {
+        try {
+            blazeResolverCacheClearHandle.invoke();
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to clear native resolver cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the native memory counters, in the order of the {@code NATIVE_*} indices.
+     * Counters a native library does not provide are left at zero.
+     */
+    static long[] nativeMemoryStats() {
+        long[] stats = new long[NATIVE_STAT_COUNT];
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment out = arena.allocate(ValueLayout.JAVA_LONG.byteSize() * NATIVE_STAT_COUNT, ValueLayout.JAVA_LONG.byteAlignment());
+            int written = (int) blazeMemoryStatsHandle.invokeExact(out, NATIVE_STAT_COUNT);
+            MemorySegment.copy(out, ValueLayout.JAVA_LONG, 0, stats, 0, written);
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to read native memory stats: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    // The allocator the native library was built with, e.g. system, mimalloc or jemalloc+arena
+    static String nativeAllocator() {
+        try {
+            MemorySegment name = (MemorySegment) blazeAllocatorNameHandle.invokeExact();
+            return name.reinterpret(64).getString(0);
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to read native allocator name: " + e.getMessage());
+            return "unknown";
+        }
+    }
+
+    // Implementation behind an instance parser backend, or null if the library lacks it
+    static String instanceParserName(int parser) {
+        try {
+            MemorySegment name = (MemorySegment) blazeInstanceParserNameHandle.invokeExact(parser);
+            return name.equals(MemorySegment.NULL) ? null : name.reinterpret(64).getString(0);
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to read native instance parser name: " + e.getMessage());
+            return null;
         }
     }
 
+    // Keeps the native template of a schema alive until releaseHandle, so a concurrent
+    // close() frees it only once the native call has returned
+    private static long acquireHandle(CompiledSchema schema) {
+        CompiledSchema target = schema instanceof JavaCompiledSchema javaSchema ? javaSchema.nativeSchema() : schema;
+        return target instanceof CompiledSchemaImpl impl ? impl.acquire() : schema.getHandle();
+    }
+
+    private static void releaseHandle(CompiledSchema schema) {
+        CompiledSchema target = schema instanceof JavaCompiledSchema javaSchema ? javaSchema.nativeSchema() : schema;
+        if (target instanceof CompiledSchemaImpl impl) {
+            impl.release();
+        }
+    }
+
+    static long openCompiledSchemas() {
+        return CompiledSchemaImpl.OPEN.get();
+    }
+
+    static long compiledSchemasReclaimedByCleaner() {
+        return CompiledSchemaImpl.RECLAIMED.get();
+    }
+
+    // Whether the native template of a schema compiled here has been freed
+    static boolean isTemplateFreed(CompiledSchema schema) {
+        CompiledSchema target = schema instanceof JavaCompiledSchema javaSchema ? javaSchema.nativeSchema() : schema;
+        return ((CompiledSchemaImpl) target).state.cleaned;
+    }
+
     static void freeCompiledSchema(long schemaHandle) {
         try {
             blazeFreeTemplateHandle.invoke(schemaHandle);
@@ -449,14 +913,23 @@ class BlazeWrapper {
     }
 
     private static class CompiledSchemaImpl implements CompiledSchema {
+        // Schemas not yet closed or cleaned, and those the Cleaner had to free
+        static final AtomicLong OPEN = new AtomicLong();
+        static final AtomicLong RECLAIMED = new AtomicLong();
+
+        // Set in leases once the schema is closed; the other bits count native calls in flight
+        private static final int CLOSED = Integer.MIN_VALUE;
+
         private final long handle;
-        private boolean closed = false;
+        private final AtomicInteger leases = new AtomicInteger();
+        private final State state;
         private final Cleaner.Cleanable cleanable;
 
         // State class to hold the resources that need cleanup
         private static class State implements Runnable {
             private final long handle;
-            private boolean cleaned = false;
+            private volatile boolean cleaned = false;
+            private volatile boolean closedExplicitly = false;
 
             State(long handle) {
                 this.handle = handle;
@@ -468,29 +941,63 @@ class BlazeWrapper {
                     LOGGER.fine("Cleaning up schema resources via Cleaner for handle: " + handle);
                     freeCompiledSchema(handle);
                     cleaned = true;
+                    OPEN.decrementAndGet();
+                    if (!closedExplicitly) {
+                        RECLAIMED.incrementAndGet();
+                    }
                 }
             }
         }
 
         public CompiledSchemaImpl(long handle) {
             this.handle = handle;
-            this.cleanable = cleaner.register(this, new State(handle));
+            this.state = new State(handle);
+            OPEN.incrementAndGet();
+            this.cleanable = cleaner.register(this, state);
         }
 
         @Override
         public long getHandle() {
-            if (closed) {
+            if ((leases.get() & CLOSED) != 0) {
                 throw new IllegalStateException("Schema has been closed");
             }
             return handle;
         }
 
+        long acquire() {
+            while (true) {
+                int current = leases.get();
+                if ((current & CLOSED) != 0) {
+                    throw new IllegalStateException("Schema has been closed");
+                }
+                if (leases.compareAndSet(current, current + 1)) {
+                    return handle;
+                }
+            }
+        }
+
+        void release() {
+            // The last call to finish after close() frees the template
+            if (leases.decrementAndGet() == CLOSED) {
+                cleanable.clean();
+            }
+        }
+
         @Override
         public void close() {
-            if (!closed) {
-                cleanable.clean();
-                closed = true;
+            state.closedExplicitly = true;
+            while (true) {
+                int current = leases.get();
+                if ((current & CLOSED) != 0) {
+                    return;
+                }
+                if (leases.compareAndSet(current, current | CLOSED)) {
+                    if (current == 0) {
+                        cleanable.clean();
+                    }
+                    return;
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every schema resolved by a delegate resolver in memory.
+ * Misses are not cached, so a URI that failed once is tried again on the next compile.
+ */
+public final class CachingSchemaResolver implements SchemaResolver {
+    private final SchemaResolver delegate;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    CachingSchemaResolver(SchemaResolver delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate resolver cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String resolve(String uri) {
+        String cached = cache.get(uri);
+        if (cached != null) {
+            return cached;
+        }
+        String resolved = delegate.resolve(uri);
+        if (resolved != null) {
+            cache.put(uri, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Removes a single URI from the cache
+     *
+     * @param uri The URI to forget
+     */
+    public void invalidate(String uri) {
+        cache.remove(uri);
+    }
+
+    /**
+     * Removes every cached URI
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of cached URIs
+     *
+     * @return The cache size
+     */
+    public int size() {
+        return cache.size();
+    }
+}
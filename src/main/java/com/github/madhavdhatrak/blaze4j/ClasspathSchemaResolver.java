@@ -0,0 +1,43 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+/**
+ * Resolves {@code classpath://} schema URIs from the class loader that loaded Blaze4j.
+ */
+class ClasspathSchemaResolver implements SchemaResolver {
+    private static final Logger LOGGER = Logger.getLogger(ClasspathSchemaResolver.class.getName());
+    private static final String SCHEME_PREFIX = "classpath://";
+    static final ClasspathSchemaResolver INSTANCE = new ClasspathSchemaResolver();
+
+    @Override
+    public String resolve(String uri) {
+        if (!uri.startsWith(SCHEME_PREFIX)) {
+            return null;
+        }
+        String resourcePath = uri.substring(SCHEME_PREFIX.length());
+        LOGGER.fine("Resolving classpath resource: " + resourcePath);
+
+        // Remove leading slashes for classloader compatibility
+        String normalizedPath = resourcePath.replaceFirst("^/+", "");
+
+        try (InputStream inputStream = ClasspathSchemaResolver.class.getClassLoader()
+                .getResourceAsStream(normalizedPath)) {
+
+            if (inputStream == null) {
+                LOGGER.severe("Classpath resource not found: " + normalizedPath);
+                return null;
+            }
+
+            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            // Normalize JSON before returning
+            return content.trim().replaceFirst("^\\{\\s+", "{");
+        } catch (IOException e) {
+            LOGGER.severe("Error reading classpath resource: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one native schema compilation, including the resolution of every schema it
+ * references. The resolutions themselves are {@link ResolveEvent}s on the same thread.
+ */
+@Name("blaze4j.Compile")
+@Label("Schema Compilation")
+@Category("Blaze4j")
+@Description("Compilation of a JSON Schema into a native template")
+@StackTrace(false)
+final class CompileEvent extends jdk.jfr.Event {
+    @Label("Schema Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Default Dialect")
+    String defaultDialect;
+
+    @Label("Resolved Schemas")
+    @Description("Referenced schemas resolved during the compilation")
+    int resolvedSchemas;
+
+    @Label("Outcome")
+    @Description("success, or the reason the compilation failed")
+    String outcome;
+}
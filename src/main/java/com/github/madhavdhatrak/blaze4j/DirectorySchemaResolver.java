@@ -0,0 +1,42 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * Resolves URIs under a prefix from files in a local directory mirror.
+ */
+class DirectorySchemaResolver implements SchemaResolver {
+    private static final Logger LOGGER = Logger.getLogger(DirectorySchemaResolver.class.getName());
+    private final String uriPrefix;
+    private final Path root;
+
+    DirectorySchemaResolver(String uriPrefix, Path root) {
+        if (uriPrefix == null || root == null) {
+            throw new IllegalArgumentException("uriPrefix and root must not be null");
+        }
+        this.uriPrefix = uriPrefix;
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String resolve(String uri) {
+        if (!uri.startsWith(uriPrefix)) {
+            return null;
+        }
+        Path file = root.resolve(uri.substring(uriPrefix.length()).replaceFirst("^/+", "")).normalize();
+        // Never serve files outside the mirror root
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.severe("Error reading mirrored schema " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Schema text handed to the native resolver. Either pre-encoded as an immutable,
+ * NUL-terminated UTF-8 segment that native code borrows without copying or freeing,
+ * or plain text that is copied into a native string owned by the native side.
+ */
+final class EncodedSchema {
+    private final MemorySegment utf8;
+    private final String text;
+
+    private EncodedSchema(MemorySegment utf8, String text) {
+        this.utf8 = utf8;
+        this.text = text;
+    }
+
+    /**
+     * Encodes schema text into native memory released by the garbage collector
+     * once the last reference to the returned instance is gone.
+     */
+    static EncodedSchema encode(String schemaJson) {
+        byte[] bytes = schemaJson.getBytes(StandardCharsets.UTF_8);
+        MemorySegment segment = Arena.ofAuto().allocate(bytes.length + 1L);
+        MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, 0, bytes.length);
+        segment.set(ValueLayout.JAVA_BYTE, bytes.length, (byte) 0);
+        return new EncodedSchema(segment.asReadOnly(), null);
+    }
+
+    /**
+     * Wraps a NUL-terminated UTF-8 segment owned by someone else, such as a file mapping
+     */
+    static EncodedSchema borrow(MemorySegment utf8) {
+        return new EncodedSchema(utf8, null);
+    }
+
+    /**
+     * Wraps schema text that has not been encoded
+     */
+    static EncodedSchema text(String schemaJson) {
+        return new EncodedSchema(null, schemaJson);
+    }
+
+    boolean isEncoded() {
+        return utf8 != null;
+    }
+
+    // NUL-terminated UTF-8 bytes, only for encoded schemas
+    MemorySegment segment() {
+        return utf8;
+    }
+
+    // Length of the UTF-8 bytes without the terminator, only for encoded schemas
+    long byteLength() {
+        return utf8.byteSize() - 1;
+    }
+
+    String text() {
+        return text != null ? text : utf8.getString(0);
+    }
+}
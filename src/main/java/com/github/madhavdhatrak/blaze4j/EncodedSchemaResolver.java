@@ -0,0 +1,14 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Resolver that can hand out schemas already encoded for the native library.
+ */
+interface EncodedSchemaResolver {
+    /**
+     * Resolves a schema URI without decoding it to a Java string
+     *
+     * @param uri The URI requested by the compiler
+     * @return The schema, or null if the URI is unknown
+     */
+    EncodedSchema resolveEncoded(String uri);
+}
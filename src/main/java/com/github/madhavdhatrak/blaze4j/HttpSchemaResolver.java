@@ -0,0 +1,49 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Resolves {@code http://} and {@code https://} schema URIs with a shared HTTP client.
+ */
+class HttpSchemaResolver implements SchemaResolver {
+    private static final Logger LOGGER = Logger.getLogger(HttpSchemaResolver.class.getName());
+    static final HttpSchemaResolver INSTANCE = new HttpSchemaResolver();
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(3))
+        .build();
+
+    @Override
+    public String resolve(String uri) {
+        if (!uri.startsWith("http://") && !uri.startsWith("https://")) {
+            return null;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .timeout(Duration.ofSeconds(3))
+                .build();
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() == 200) {
+                return response.body();
+            } else {
+                LOGGER.warning("Failed to fetch schema from " + uri + ": HTTP " + response.statusCode());
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.severe("Interrupted while fetching schema from " + uri);
+            return null;
+        } catch (Exception e) {
+            LOGGER.severe("Error fetching schema from " + uri + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
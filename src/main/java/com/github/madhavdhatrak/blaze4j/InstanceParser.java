@@ -0,0 +1,45 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Native backend used to parse instance documents before they are validated.
+ * <p>
+ * The simdjson backend scans documents with SIMD instructions and is considerably faster on
+ * large, numeric-heavy instances. It is only present in native libraries built with
+ * {@code -DBLAZE4J_SIMDJSON=ON}; check {@link #isAvailable()} before selecting it.
+ */
+public enum InstanceParser {
+    /** The JSON parser of the sourcemeta core library, always available */
+    DEFAULT(0),
+    /** simdjson, with the SIMD kernel chosen at runtime from the CPU's features */
+    SIMDJSON(1);
+
+    private final int nativeId;
+
+    InstanceParser(int nativeId) {
+        this.nativeId = nativeId;
+    }
+
+    int nativeId() {
+        return nativeId;
+    }
+
+    /**
+     * Tells whether the loaded native library was built with this backend
+     *
+     * @return true if the backend can be selected
+     */
+    public boolean isAvailable() {
+        return getImplementation() != null;
+    }
+
+    /**
+     * Returns the implementation behind this backend, e.g. {@code "sourcemeta"} for the
+     * default parser or the SIMD kernel simdjson selected for this CPU, such as
+     * {@code "haswell"}, {@code "arm64"} or {@code "fallback"}
+     *
+     * @return The implementation name, or null if the backend is not available
+     */
+    public String getImplementation() {
+        return BlazeWrapper.instanceParserName(nativeId);
+    }
+}
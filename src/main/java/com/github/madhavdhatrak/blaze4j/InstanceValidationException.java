@@ -0,0 +1,59 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Thrown by {@link Blaze4jReader} when an instance is not bound because it failed
+ * validation.
+ */
+public class InstanceValidationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final ValidationStatus status;
+    // Not serializable; the message keeps its first error
+    private final transient ValidationResult result;
+
+    /**
+     * Creates a new InstanceValidationException.
+     * 
+     * @param status Why the instance was rejected
+     * @param result The detailed validation result, may be null
+     */
+    public InstanceValidationException(ValidationStatus status, ValidationResult result) {
+        super(message(status, result));
+        this.status = status;
+        this.result = result;
+    }
+
+    private static String message(ValidationStatus status, ValidationResult result) {
+        switch (status) {
+            case INVALID:
+                return result == null || result.getErrors().isEmpty()
+                    ? "Instance does not match the schema"
+                    : "Instance does not match the schema: " + result.getErrors().get(0).getMessage();
+            case MALFORMED_INSTANCE:
+                return result == null || result.getErrorMessage() == null
+                    ? "Instance is not valid JSON"
+                    : result.getErrorMessage();
+            default:
+                return "Instance could not be validated";
+        }
+    }
+
+    /**
+     * Gets why the instance was rejected.
+     * 
+     * @return {@code INVALID}, {@code MALFORMED_INSTANCE} or {@code ERROR}
+     */
+    public ValidationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the detailed validation result, with the errors and their locations.
+     * 
+     * @return The result, or null unless the reader was created with error details or if
+     *         the exception was deserialized
+     */
+    public ValidationResult getResult() {
+        return result;
+    }
+}
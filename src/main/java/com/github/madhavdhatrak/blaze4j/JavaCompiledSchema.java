@@ -0,0 +1,66 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * A natively compiled schema that also carries a pure-Java validator. Instances up to a
+ * length limit are validated in Java without crossing into native code; longer instances,
+ * and detailed validation, use the native template.
+ */
+final class JavaCompiledSchema implements CompiledSchema {
+    private final CompiledSchema nativeSchema;
+    private final JavaValidator validator;
+    private final int maxInstanceLength;
+    private volatile boolean closed = false;
+
+    JavaCompiledSchema(CompiledSchema nativeSchema, JavaValidator validator, int maxInstanceLength) {
+        this.nativeSchema = nativeSchema;
+        this.validator = validator;
+        this.maxInstanceLength = maxInstanceLength;
+    }
+
+    /**
+     * Validates an instance in Java if it is short enough
+     *
+     * @param instance The JSON instance
+     * @return The validation status, or null if the instance must be validated natively
+     */
+    ValidationStatus validate(String instance) {
+        if (closed) {
+            throw new IllegalStateException("Schema has been closed");
+        }
+        if (instance == null || instance.length() > maxInstanceLength) {
+            return null;
+        }
+        return validator.validate(instance);
+    }
+
+    /**
+     * Validates a document in Java whatever its length, for callers that already hold its
+     * tokens
+     *
+     * @param parser The parser positioned before the document
+     * @return The validation status, or null if the instance must be validated natively
+     */
+    ValidationStatus validate(JsonParser parser) {
+        if (closed) {
+            throw new IllegalStateException("Schema has been closed");
+        }
+        return validator.validate(parser);
+    }
+
+    CompiledSchema nativeSchema() {
+        return nativeSchema;
+    }
+
+    @Override
+    public long getHandle() {
+        return nativeSchema.getHandle();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        nativeSchema.close();
+    }
+}
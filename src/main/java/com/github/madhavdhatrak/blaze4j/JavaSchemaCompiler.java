@@ -0,0 +1,369 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates schemas into {@link JavaValidator}s. Only a subset of keywords is supported:
+ * assertions on types, numbers, strings, arrays and objects, {@code enum}/{@code const},
+ * {@code properties}/{@code required}/{@code additionalProperties}, the array forms of
+ * {@code items} and the boolean applicators. Schemas using anything else, including
+ * {@code $ref}, {@code pattern} and {@code format}, are left to the native validator.
+ */
+final class JavaSchemaCompiler {
+
+    private enum Draft { DRAFT4, DRAFT6, DRAFT7, DRAFT2019, DRAFT2020 }
+
+    // Thrown for any keyword outside the supported subset
+    private static final class UnsupportedSchemaException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedSchemaException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final UnsupportedSchemaException UNSUPPORTED = new UnsupportedSchemaException();
+
+    private JavaSchemaCompiler() {
+    }
+
+    /**
+     * Translates a schema into a pure-Java validator
+     *
+     * @param schemaJson The schema, already accepted by the native compiler
+     * @param defaultDialect Dialect to use if the schema doesn't specify one, or null
+     * @return The validator, or null if the schema uses unsupported keywords or dialects
+     */
+    static JavaValidator compile(String schemaJson, String defaultDialect) {
+        JsonNode schema;
+        try {
+            schema = JavaValidator.MAPPER.readTree(schemaJson);
+        } catch (IOException e) {
+            return null;
+        }
+        JsonNode declared = schema.isObject() ? schema.get("$schema") : null;
+        Draft draft = dialect(declared != null && declared.isTextual() ? declared.asText() : defaultDialect);
+        if (draft == null) {
+            return null;
+        }
+        try {
+            return new JavaValidator(compileNode(schema, draft, true));
+        } catch (UnsupportedSchemaException e) {
+            return null;
+        }
+    }
+
+    private static Draft dialect(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        String normalized = uri.endsWith("#") ? uri.substring(0, uri.length() - 1) : uri;
+        switch (normalized) {
+            case "http://json-schema.org/draft-04/schema":
+                return Draft.DRAFT4;
+            case "http://json-schema.org/draft-06/schema":
+                return Draft.DRAFT6;
+            case "http://json-schema.org/draft-07/schema":
+                return Draft.DRAFT7;
+            case "https://json-schema.org/draft/2019-09/schema":
+                return Draft.DRAFT2019;
+            case "https://json-schema.org/draft/2020-12/schema":
+                return Draft.DRAFT2020;
+            default:
+                return null;
+        }
+    }
+
+    private static JavaValidator.Node compileNode(JsonNode schema, Draft draft, boolean root)
+            throws UnsupportedSchemaException {
+        if (schema.isBoolean()) {
+            if (draft == Draft.DRAFT4) {
+                throw UNSUPPORTED;
+            }
+            return schema.booleanValue() ? JavaValidator.ANY : JavaValidator.NONE;
+        }
+        if (!schema.isObject()) {
+            throw UNSUPPORTED;
+        }
+
+        JavaValidator.SchemaNode node = new JavaValidator.SchemaNode();
+        boolean exclusiveMinimumFlag = false;
+        boolean exclusiveMaximumFlag = false;
+        JsonNode additionalItems = null;
+        boolean tupleItems = false;
+
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "$schema":
+                    // A nested dialect change is left to the native validator
+                    if (!root) {
+                        throw UNSUPPORTED;
+                    }
+                    break;
+                case "id":
+                case "$id":
+                case "$anchor":
+                case "$comment":
+                case "title":
+                case "description":
+                case "default":
+                case "examples":
+                case "readOnly":
+                case "writeOnly":
+                case "deprecated":
+                case "definitions":
+                case "$defs":
+                    // Annotations, and definitions that nothing can reference without $ref
+                    break;
+                case "type":
+                    node.types = types(value);
+                    break;
+                case "enum":
+                    if (!value.isArray()) {
+                        throw UNSUPPORTED;
+                    }
+                    node.enumValues = new ArrayList<>();
+                    value.forEach(node.enumValues::add);
+                    break;
+                case "const":
+                    if (draft == Draft.DRAFT4) {
+                        throw UNSUPPORTED;
+                    }
+                    node.constValue = value;
+                    break;
+                case "properties":
+                    if (!value.isObject()) {
+                        throw UNSUPPORTED;
+                    }
+                    Iterator<Map.Entry<String, JsonNode>> properties = value.fields();
+                    while (properties.hasNext()) {
+                        Map.Entry<String, JsonNode> property = properties.next();
+                        JavaValidator.Property entry = node.properties.computeIfAbsent(
+                            property.getKey(), name -> new JavaValidator.Property());
+                        entry.declared = true;
+                        entry.schema = compileNode(property.getValue(), draft, false);
+                    }
+                    break;
+                case "required":
+                    if (!value.isArray()) {
+                        throw UNSUPPORTED;
+                    }
+                    for (JsonNode name : value) {
+                        if (!name.isTextual()) {
+                            throw UNSUPPORTED;
+                        }
+                        JavaValidator.Property entry = node.properties.computeIfAbsent(
+                            name.asText(), key -> new JavaValidator.Property());
+                        if (entry.requiredBit == 0) {
+                            // Required names are tracked in a 64-bit mask
+                            int bit = Long.bitCount(node.requiredMask);
+                            if (bit == Long.SIZE) {
+                                throw UNSUPPORTED;
+                            }
+                            entry.requiredBit = 1L << bit;
+                            node.requiredMask |= entry.requiredBit;
+                        }
+                    }
+                    break;
+                case "additionalProperties":
+                    node.additionalProperties = compileAdditional(value, draft);
+                    break;
+                case "items":
+                    if (value.isArray()) {
+                        if (draft == Draft.DRAFT2020) {
+                            throw UNSUPPORTED;
+                        }
+                        node.prefixItems = compileAll(value, draft);
+                        tupleItems = true;
+                    } else {
+                        node.items = compileNode(value, draft, false);
+                    }
+                    break;
+                case "prefixItems":
+                    if (draft != Draft.DRAFT2020 || !value.isArray()) {
+                        throw UNSUPPORTED;
+                    }
+                    node.prefixItems = compileAll(value, draft);
+                    break;
+                case "additionalItems":
+                    if (draft == Draft.DRAFT2020) {
+                        throw UNSUPPORTED;
+                    }
+                    additionalItems = value;
+                    break;
+                case "minLength":
+                    node.minLength = count(value);
+                    break;
+                case "maxLength":
+                    node.maxLength = count(value);
+                    break;
+                case "minItems":
+                    node.minItems = count(value);
+                    break;
+                case "maxItems":
+                    node.maxItems = count(value);
+                    break;
+                case "minProperties":
+                    node.minProperties = count(value);
+                    break;
+                case "maxProperties":
+                    node.maxProperties = count(value);
+                    break;
+                case "minimum":
+                    node.minimum = number(value);
+                    break;
+                case "maximum":
+                    node.maximum = number(value);
+                    break;
+                case "exclusiveMinimum":
+                    if (draft == Draft.DRAFT4) {
+                        exclusiveMinimumFlag = flag(value);
+                    } else {
+                        node.exclusiveMinimum = number(value);
+                    }
+                    break;
+                case "exclusiveMaximum":
+                    if (draft == Draft.DRAFT4) {
+                        exclusiveMaximumFlag = flag(value);
+                    } else {
+                        node.exclusiveMaximum = number(value);
+                    }
+                    break;
+                case "multipleOf":
+                    node.multipleOf = number(value);
+                    if (node.multipleOf.signum() <= 0) {
+                        throw UNSUPPORTED;
+                    }
+                    if (value.isIntegralNumber() && value.canConvertToLong()) {
+                        node.multipleOfInteger = value.longValue();
+                    }
+                    break;
+                case "uniqueItems":
+                    node.uniqueItems = flag(value);
+                    break;
+                case "allOf":
+                    node.allOf = compileAll(value, draft);
+                    break;
+                case "anyOf":
+                    node.anyOf = compileAll(value, draft);
+                    break;
+                case "oneOf":
+                    node.oneOf = compileAll(value, draft);
+                    break;
+                case "not":
+                    node.not = compileNode(value, draft, false);
+                    break;
+                default:
+                    throw UNSUPPORTED;
+            }
+        }
+
+        // Draft 4 makes minimum and maximum exclusive with a boolean
+        if (exclusiveMinimumFlag && node.minimum != null) {
+            node.exclusiveMinimum = node.minimum;
+            node.minimum = null;
+        }
+        if (exclusiveMaximumFlag && node.maximum != null) {
+            node.exclusiveMaximum = node.maximum;
+            node.maximum = null;
+        }
+        // additionalItems only applies after an array form of items
+        if (tupleItems && additionalItems != null) {
+            node.items = compileAdditional(additionalItems, draft);
+        }
+        return node.seal();
+    }
+
+    // Even draft 4 allows a boolean for additionalProperties and additionalItems
+    private static JavaValidator.Node compileAdditional(JsonNode schema, Draft draft) throws UnsupportedSchemaException {
+        if (schema.isBoolean()) {
+            return schema.booleanValue() ? JavaValidator.ANY : JavaValidator.NONE;
+        }
+        return compileNode(schema, draft, false);
+    }
+
+    private static JavaValidator.Node[] compileAll(JsonNode schemas, Draft draft) throws UnsupportedSchemaException {
+        if (!schemas.isArray() || schemas.isEmpty()) {
+            throw UNSUPPORTED;
+        }
+        List<JavaValidator.Node> nodes = new ArrayList<>();
+        for (JsonNode schema : schemas) {
+            nodes.add(compileNode(schema, draft, false));
+        }
+        return nodes.toArray(new JavaValidator.Node[0]);
+    }
+
+    private static int types(JsonNode value) throws UnsupportedSchemaException {
+        if (value.isTextual()) {
+            return type(value.asText());
+        }
+        if (!value.isArray() || value.isEmpty()) {
+            throw UNSUPPORTED;
+        }
+        int types = 0;
+        for (JsonNode name : value) {
+            if (!name.isTextual()) {
+                throw UNSUPPORTED;
+            }
+            types |= type(name.asText());
+        }
+        return types;
+    }
+
+    private static int type(String name) throws UnsupportedSchemaException {
+        switch (name) {
+            case "null":
+                return JavaValidator.TYPE_NULL;
+            case "boolean":
+                return JavaValidator.TYPE_BOOLEAN;
+            case "object":
+                return JavaValidator.TYPE_OBJECT;
+            case "array":
+                return JavaValidator.TYPE_ARRAY;
+            case "number":
+                return JavaValidator.TYPE_NUMBER;
+            case "integer":
+                return JavaValidator.TYPE_INTEGER;
+            case "string":
+                return JavaValidator.TYPE_STRING;
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    private static BigDecimal number(JsonNode value) throws UnsupportedSchemaException {
+        if (!value.isNumber()) {
+            throw UNSUPPORTED;
+        }
+        return value.decimalValue();
+    }
+
+    private static long count(JsonNode value) throws UnsupportedSchemaException {
+        BigDecimal number = number(value);
+        if (number.signum() < 0 || !JavaValidator.isIntegral(number)) {
+            throw UNSUPPORTED;
+        }
+        try {
+            return number.longValueExact();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static boolean flag(JsonNode value) throws UnsupportedSchemaException {
+        if (!value.isBoolean()) {
+            throw UNSUPPORTED;
+        }
+        return value.booleanValue();
+    }
+}
@@ -0,0 +1,417 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates instances in pure Java against a schema translated by {@link JavaSchemaCompiler}.
+ * Each subschema becomes a node that checks its keywords while reading the instance's token
+ * stream once, and stops at the first failure. Only keywords that need the whole value
+ * ({@code enum}, {@code const}, {@code uniqueItems} and the boolean applicators) buffer it
+ * into a tree first. Instances with duplicate object keys are left to the native validator.
+ */
+final class JavaValidator {
+    // Floats are read exactly, like the bounds in the schema. Duplicate keys fail the parse,
+    // whether or not the validation already failed, as the native parser keeps other values.
+    static final ObjectMapper MAPPER = new ObjectMapper(JsonFactory.builder()
+            .enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION)
+            .build())
+        .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final Node root;
+
+    JavaValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Validates an instance document
+     *
+     * @param instance The JSON instance
+     * @return The validation status, or null if the instance exceeds the parser's limits or
+     *         has duplicate keys and must be validated natively
+     */
+    ValidationStatus validate(String instance) {
+        try (JsonParser parser = MAPPER.createParser(instance)) {
+            return validate(parser);
+        } catch (IOException e) {
+            return ValidationStatus.ERROR;
+        }
+    }
+
+    /**
+     * Validates the document read by a parser that has not started yet, such as one over
+     * tokens already buffered for data binding
+     *
+     * @param parser The parser positioned before the document
+     * @return The validation status, or null if the instance exceeds the parser's limits or
+     *         has duplicate keys and must be validated natively
+     */
+    ValidationStatus validate(JsonParser parser) {
+        try {
+            if (parser.nextToken() == null) {
+                return ValidationStatus.MALFORMED_INSTANCE;
+            }
+            boolean valid = root.validate(parser);
+            // Read the rest of the document, so malformed input is reported even after a failure
+            while (!parser.getParsingContext().inRoot()) {
+                if (parser.nextToken() == null) {
+                    return ValidationStatus.MALFORMED_INSTANCE;
+                }
+            }
+            if (parser.nextToken() != null) {
+                return ValidationStatus.MALFORMED_INSTANCE;
+            }
+            return valid ? ValidationStatus.VALID : ValidationStatus.INVALID;
+        } catch (StreamReadException e) {
+            return isDuplicateKey(e) ? null : ValidationStatus.MALFORMED_INSTANCE;
+        } catch (JsonProcessingException e) {
+            // Nesting or length limits, which the native parser does not share
+            return null;
+        } catch (IOException e) {
+            return ValidationStatus.ERROR;
+        }
+    }
+
+    /**
+     * A compiled subschema. Called with the parser on the first token of a value, it returns
+     * true only after consuming the whole value, and may stop anywhere when it returns false.
+     */
+    abstract static class Node {
+        abstract boolean validate(JsonParser parser) throws IOException;
+    }
+
+    static final Node ANY = new Node() {
+        @Override
+        boolean validate(JsonParser parser) throws IOException {
+            parser.skipChildren();
+            return true;
+        }
+    };
+
+    static final Node NONE = new Node() {
+        @Override
+        boolean validate(JsonParser parser) {
+            return false;
+        }
+    };
+
+    static final int TYPE_NULL = 1;
+    static final int TYPE_BOOLEAN = 1 << 1;
+    static final int TYPE_OBJECT = 1 << 2;
+    static final int TYPE_ARRAY = 1 << 3;
+    static final int TYPE_NUMBER = 1 << 4;
+    // Integral numbers only, including 1.0
+    static final int TYPE_INTEGER = 1 << 5;
+    static final int TYPE_STRING = 1 << 6;
+    static final int TYPE_ANY = (1 << 7) - 1;
+
+    // An entry of "properties" and/or "required"
+    static final class Property {
+        boolean declared;
+        Node schema;
+        long requiredBit;
+    }
+
+    static final class SchemaNode extends Node {
+        int types = TYPE_ANY;
+
+        // Keywords evaluated on a buffered copy of the value
+        List<JsonNode> enumValues;
+        JsonNode constValue;
+        boolean uniqueItems;
+        Node[] allOf;
+        Node[] anyOf;
+        Node[] oneOf;
+        Node not;
+
+        long minLength = 0;
+        long maxLength = Long.MAX_VALUE;
+
+        BigDecimal minimum;
+        BigDecimal exclusiveMinimum;
+        BigDecimal maximum;
+        BigDecimal exclusiveMaximum;
+        BigDecimal multipleOf;
+        // The divisor when the schema gives it as an integer, otherwise 0
+        long multipleOfInteger;
+
+        final Map<String, Property> properties = new HashMap<>();
+        Node additionalProperties;
+        long requiredMask;
+        long minProperties = 0;
+        long maxProperties = Long.MAX_VALUE;
+
+        Node[] prefixItems = new Node[0];
+        Node items;
+        long minItems = 0;
+        long maxItems = Long.MAX_VALUE;
+
+        private boolean buffered;
+        private boolean checksStrings;
+        private boolean checksNumbers;
+        private boolean checksObjects;
+        private boolean checksArrays;
+
+        // Called once all keywords are set
+        SchemaNode seal() {
+            buffered = enumValues != null || constValue != null || uniqueItems
+                || allOf != null || anyOf != null || oneOf != null || not != null;
+            checksStrings = minLength > 0 || maxLength != Long.MAX_VALUE;
+            checksNumbers = minimum != null || exclusiveMinimum != null || maximum != null
+                || exclusiveMaximum != null || multipleOf != null;
+            checksObjects = !properties.isEmpty() || additionalProperties != null
+                || minProperties > 0 || maxProperties != Long.MAX_VALUE;
+            checksArrays = prefixItems.length > 0 || items != null || minItems > 0 || maxItems != Long.MAX_VALUE;
+            return this;
+        }
+
+        @Override
+        boolean validate(JsonParser parser) throws IOException {
+            if (!buffered) {
+                return validateStream(parser);
+            }
+            JsonNode value = MAPPER.readTree(parser);
+            return validateBuffered(value) && validateStream(traverse(value));
+        }
+
+        private boolean validateStream(JsonParser parser) throws IOException {
+            switch (parser.currentToken()) {
+                case START_OBJECT:
+                    return (types & TYPE_OBJECT) != 0 && validateObject(parser);
+                case START_ARRAY:
+                    return (types & TYPE_ARRAY) != 0 && validateArray(parser);
+                case VALUE_STRING:
+                    return (types & TYPE_STRING) != 0 && validateString(parser);
+                case VALUE_NUMBER_INT:
+                    return (types & (TYPE_NUMBER | TYPE_INTEGER)) != 0 && validateNumber(parser);
+                case VALUE_NUMBER_FLOAT:
+                    return ((types & TYPE_NUMBER) != 0 || ((types & TYPE_INTEGER) != 0 && isIntegral(parser.getDecimalValue())))
+                        && validateNumber(parser);
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    return (types & TYPE_BOOLEAN) != 0;
+                case VALUE_NULL:
+                    return (types & TYPE_NULL) != 0;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean validateBuffered(JsonNode value) throws IOException {
+            if (constValue != null && !jsonEquals(constValue, value)) {
+                return false;
+            }
+            if (enumValues != null && !contains(enumValues, value)) {
+                return false;
+            }
+            if (uniqueItems && value.isArray() && !hasUniqueItems(value)) {
+                return false;
+            }
+            if (allOf != null) {
+                for (Node schema : allOf) {
+                    if (!schema.validate(traverse(value))) {
+                        return false;
+                    }
+                }
+            }
+            if (anyOf != null) {
+                boolean matched = false;
+                for (Node schema : anyOf) {
+                    if (schema.validate(traverse(value))) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            if (oneOf != null) {
+                int matches = 0;
+                for (Node schema : oneOf) {
+                    if (schema.validate(traverse(value)) && ++matches > 1) {
+                        return false;
+                    }
+                }
+                if (matches != 1) {
+                    return false;
+                }
+            }
+            return not == null || !not.validate(traverse(value));
+        }
+
+        private boolean validateString(JsonParser parser) throws IOException {
+            if (!checksStrings) {
+                return true;
+            }
+            String text = parser.getText();
+            long length = text.codePointCount(0, text.length());
+            return length >= minLength && length <= maxLength;
+        }
+
+        private boolean validateNumber(JsonParser parser) throws IOException {
+            if (!checksNumbers) {
+                return true;
+            }
+            BigDecimal value = parser.getDecimalValue();
+            return (minimum == null || value.compareTo(minimum) >= 0)
+                && (exclusiveMinimum == null || value.compareTo(exclusiveMinimum) > 0)
+                && (maximum == null || value.compareTo(maximum) <= 0)
+                && (exclusiveMaximum == null || value.compareTo(exclusiveMaximum) < 0)
+                && (multipleOf == null || isMultiple(parser, value));
+        }
+
+        // Like the native validator: integers divide exactly, any other number in doubles
+        private boolean isMultiple(JsonParser parser, BigDecimal value) throws IOException {
+            if (multipleOfInteger != 0 && parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+                    && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return parser.getLongValue() % multipleOfInteger == 0;
+            }
+            double quotient = value.doubleValue() / multipleOf.doubleValue();
+            return Double.isFinite(quotient) && quotient == Math.rint(quotient);
+        }
+
+        private boolean validateObject(JsonParser parser) throws IOException {
+            if (!checksObjects && requiredMask == 0) {
+                parser.skipChildren();
+                return true;
+            }
+            long count = 0;
+            long seen = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (++count > maxProperties) {
+                    return false;
+                }
+                Property property = properties.get(parser.currentName());
+                parser.nextToken();
+                Node schema = additionalProperties;
+                if (property != null) {
+                    seen |= property.requiredBit;
+                    if (property.declared) {
+                        schema = property.schema;
+                    }
+                }
+                if (schema == null) {
+                    parser.skipChildren();
+                } else if (!schema.validate(parser)) {
+                    return false;
+                }
+            }
+            return count >= minProperties && seen == requiredMask;
+        }
+
+        private boolean validateArray(JsonParser parser) throws IOException {
+            if (!checksArrays) {
+                parser.skipChildren();
+                return true;
+            }
+            long index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index >= maxItems) {
+                    return false;
+                }
+                Node schema = index < prefixItems.length ? prefixItems[(int) index] : items;
+                if (schema == null) {
+                    parser.skipChildren();
+                } else if (!schema.validate(parser)) {
+                    return false;
+                }
+                index++;
+            }
+            return index >= minItems;
+        }
+    }
+
+    /**
+     * Tells whether a parse failed on a duplicate object key. Such instances are well formed
+     * for the native parser, so they are validated natively rather than reported malformed.
+     *
+     * @param e The failure of a parser created by {@link #MAPPER}
+     * @return Whether the instance repeats a key
+     */
+    static boolean isDuplicateKey(StreamReadException e) {
+        String message = e.getOriginalMessage();
+        return message != null && message.startsWith("Duplicate field '");
+    }
+
+    private static JsonParser traverse(JsonNode value) throws IOException {
+        JsonParser parser = value.traverse(MAPPER);
+        parser.nextToken();
+        return parser;
+    }
+
+    static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static boolean contains(List<JsonNode> values, JsonNode value) {
+        for (JsonNode candidate : values) {
+            if (jsonEquals(candidate, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasUniqueItems(JsonNode array) {
+        for (int i = 0; i < array.size(); i++) {
+            for (int j = i + 1; j < array.size(); j++) {
+                if (jsonEquals(array.get(i), array.get(j))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // JSON Schema equality: numbers compare by value, so 1 equals 1.0
+    static boolean jsonEquals(JsonNode left, JsonNode right) {
+        if (left.isNumber() && right.isNumber()) {
+            return left.decimalValue().compareTo(right.decimalValue()) == 0;
+        }
+        if (left.getNodeType() != right.getNodeType()) {
+            return false;
+        }
+        if (left.isArray()) {
+            if (left.size() != right.size()) {
+                return false;
+            }
+            for (int i = 0; i < left.size(); i++) {
+                if (!jsonEquals(left.get(i), right.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (left.isObject()) {
+            if (left.size() != right.size()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = left.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode other = right.get(field.getKey());
+                if (other == null || !jsonEquals(field.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return left.equals(right);
+    }
+}
@@ -0,0 +1,781 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed schema registry for very large numbers of schemas.
+ * <p>
+ * Schemas are appended to a data file and located through an open-addressing hash index
+ * (URI to record offset) in a second file. Both files are memory-mapped, so opening a registry
+ * does not read any schema and schemas are only paged in when resolved. Resolved schemas are
+ * handed to the native resolver straight from the mapping, without copying.
+ * <p>
+ * Updates and removals append to the data file; {@link #compact()} writes the live schemas to
+ * a new generation of it. The data file is the source of truth: if the index is missing or
+ * does not match it, the index is rebuilt when the registry is opened. Files are never
+ * replaced while mapped: compaction and index growth write new versioned files, and the old
+ * ones are deleted once the operating system allows it.
+ * <p>
+ * Several registries, in this or other processes, may share a directory. Changes hold a lock
+ * on {@code schemas.lock} and first catch up with what the others wrote; reads notice those
+ * changes and reload.
+ */
+public final class MappedSchemaRegistry implements SchemaResolver, EncodedSchemaResolver, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MappedSchemaRegistry.class.getName());
+
+    // Generation 0 of the data file and version 0 of the index; later ones are numbered,
+    // as in schemas.1.dat
+    private static final String DATA_FILE = "schemas.dat";
+    private static final String INDEX_FILE = "schemas.idx";
+    private static final String LOCK_FILE = "schemas.lock";
+    private static final int FORMAT_VERSION = 1;
+
+    // Data file: [int magic][int version][long dataEnd] followed by records
+    // Record: [int uriLength][int jsonLength, -1 for removals][uri][json][NUL]
+    // The magic is written last, so a file without it is an unfinished compaction.
+    private static final int DATA_MAGIC = 0x42344A44;
+    // Replaces the magic of a generation superseded by a compaction
+    private static final int RETIRED_MAGIC = 0x42344A52;
+    private static final long DATA_HEADER = 16;
+    private static final long DATA_END_OFFSET = 8;
+    private static final long INITIAL_DATA_SIZE = 1 << 20;
+    private static final int REMOVED = -1;
+
+    // Index file: [int magic][int version][int capacity][int count][int used][int data generation]
+    // [long dataEnd] followed by slots of [long hash][long offset], offset 0 = empty, offset -1 = deleted
+    private static final int INDEX_MAGIC = 0x42344A49;
+    private static final long INDEX_HEADER = 32;
+    private static final long SLOT_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EMPTY_SLOT = 0;
+    private static final long DELETED_SLOT = -1;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+
+    // File locks are held per process, so registries of one process sharing a directory
+    // also take turns through these
+    private static final ConcurrentHashMap<Path, Lock> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock directoryLock;
+    private FileChannel lockChannel;
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    private MemorySegment data;
+    private MemorySegment index;
+    private int dataGeneration;
+    private int indexVersion;
+    private long dataEnd;
+    private int capacity;
+    private int count;
+    private int used;
+    private boolean closed;
+
+    private MappedSchemaRegistry(Path directory) {
+        this.directory = directory;
+        this.directoryLock = DIRECTORY_LOCKS.computeIfAbsent(directory.toAbsolutePath().normalize(),
+            key -> new ReentrantLock());
+    }
+
+    /**
+     * Opens the registry stored in a directory, creating it if needed
+     *
+     * @param directory Directory holding the registry files
+     * @return The opened registry
+     * @throws IOException If the files cannot be created, read or mapped
+     */
+    public static MappedSchemaRegistry open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MappedSchemaRegistry registry = new MappedSchemaRegistry(directory);
+        try {
+            registry.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try (HeldLock ignored = registry.lockFiles()) {
+                registry.openFiles();
+            }
+        } catch (IOException | RuntimeException e) {
+            registry.closeChannels();
+            registry.closeLock();
+            throw e;
+        }
+        return registry;
+    }
+
+    // Maps the newest complete data generation and its index. Called with the file lock held.
+    private void openFiles() throws IOException {
+        List<Integer> generations = versions(DATA_FILE);
+        dataGeneration = -1;
+        for (int generation : generations) {
+            Path dataPath = versioned(DATA_FILE, generation);
+            FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int magic = readMagic(channel);
+            if (magic == DATA_MAGIC) {
+                dataChannel = channel;
+                dataGeneration = generation;
+                mapData(dataChannel.size());
+                if (data.get(INT, 4) != FORMAT_VERSION) {
+                    throw new IOException("Unsupported schema registry format: " + dataPath);
+                }
+                break;
+            }
+            channel.close();
+            if (magic != 0 && magic != RETIRED_MAGIC) {
+                throw new IOException("Not a Blaze4j schema registry: " + dataPath);
+            }
+            // Superseded, or left behind by a compaction that did not finish
+            deleteQuietly(dataPath);
+        }
+        if (dataGeneration < 0) {
+            dataGeneration = generations.isEmpty() ? 0 : generations.get(0) + 1;
+            dataChannel = FileChannel.open(versioned(DATA_FILE, dataGeneration), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            mapData(INITIAL_DATA_SIZE);
+            data.set(INT, 4, FORMAT_VERSION);
+            data.set(LONG, DATA_END_OFFSET, DATA_HEADER);
+            data.force();
+            data.set(INT, 0, DATA_MAGIC);
+            data.force();
+        }
+        dataEnd = data.get(LONG, DATA_END_OFFSET);
+
+        List<Integer> indexVersions = versions(INDEX_FILE);
+        indexVersion = indexVersions.isEmpty() ? -1 : indexVersions.get(0);
+        if (indexVersion >= 0) {
+            indexChannel = FileChannel.open(versioned(INDEX_FILE, indexVersion),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (indexChannel.size() >= INDEX_HEADER) {
+                index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size(), Arena.ofAuto());
+                if (index.get(INT, 0) == INDEX_MAGIC && index.get(INT, 4) == FORMAT_VERSION
+                        && index.get(INT, 20) == dataGeneration
+                        && index.get(LONG, 24) == dataEnd
+                        && index.byteSize() == INDEX_HEADER + index.get(INT, 8) * SLOT_SIZE) {
+                    capacity = index.get(INT, 8);
+                    count = index.get(INT, 12);
+                    used = index.get(INT, 16);
+                    deleteSuperseded();
+                    return;
+                }
+            }
+            indexChannel.close();
+        }
+        LOGGER.info("Rebuilding schema registry index in " + directory);
+        index = null;
+        rebuildIndex(INITIAL_CAPACITY);
+        deleteSuperseded();
+    }
+
+    // Excludes other registries on the directory, in this process and others
+    private HeldLock lockFiles() throws IOException {
+        directoryLock.lock();
+        try {
+            return new HeldLock(lockChannel.lock(), directoryLock);
+        } catch (IOException | RuntimeException e) {
+            directoryLock.unlock();
+            throw e;
+        }
+    }
+
+    private record HeldLock(FileLock fileLock, Lock directoryLock) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            try {
+                fileLock.release();
+            } finally {
+                directoryLock.unlock();
+            }
+        }
+    }
+
+    // Remaps the files if another registry changed them. Called with the file lock held.
+    private void catchUp() throws IOException {
+        if (isStale() || Files.exists(versioned(DATA_FILE, dataGeneration + 1))) {
+            closeChannels();
+            data = null;
+            index = null;
+            openFiles();
+        }
+    }
+
+    // Whether another registry appended to or compacted the data file since it was mapped
+    private boolean isStale() {
+        return data.get(INT, 0) != DATA_MAGIC || data.get(LONG, DATA_END_OFFSET) != dataEnd;
+    }
+
+    // Catches up with other registries after a read found the mapping stale
+    private void reload() {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            try (HeldLock ignored = lockFiles()) {
+                catchUp();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reload schema registry " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a schema, replacing any schema registered under the same URI
+     *
+     * @param uri The URI of the schema
+     * @param schemaJson The schema JSON
+     */
+    public void register(String uri, String schemaJson) {
+        if (uri == null || schemaJson == null) {
+            throw new IllegalArgumentException("uri and schemaJson must not be null");
+        }
+        byte[] uriBytes = uri.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = schemaJson.getBytes(StandardCharsets.UTF_8);
+        boolean replaced;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            try (HeldLock ignored = lockFiles()) {
+                catchUp();
+                long offset = append(uriBytes, jsonBytes, jsonBytes.length);
+                replaced = insert(hash(uri), uriBytes, offset);
+                index.set(LONG, 24, dataEnd);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to register schema " + uri, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (replaced) {
+            BlazeWrapper.invalidateResolverCache(uri);
+        }
+    }
+
+    /**
+     * Removes the schema registered under a URI
+     *
+     * @param uri The URI of the schema
+     */
+    public void unregister(String uri) {
+        if (uri == null) {
+            throw new IllegalArgumentException("uri must not be null");
+        }
+        byte[] uriBytes = uri.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            try (HeldLock ignored = lockFiles()) {
+                catchUp();
+                long slot = find(hash(uri), uriBytes);
+                if (slot < 0) {
+                    return;
+                }
+                append(uriBytes, new byte[0], REMOVED);
+                index.set(LONG, slot + 8, DELETED_SLOT);
+                count--;
+                writeIndexHeader();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to unregister schema " + uri, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        BlazeWrapper.invalidateResolverCache(uri);
+    }
+
+    public boolean contains(String uri) {
+        return resolveEncoded(uri) != null;
+    }
+
+    @Override
+    public String resolve(String uri) {
+        EncodedSchema schema = resolveEncoded(uri);
+        return schema != null ? schema.text() : null;
+    }
+
+    @Override
+    public EncodedSchema resolveEncoded(String uri) {
+        byte[] uriBytes = uri.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(uri);
+        while (true) {
+            lock.readLock().lock();
+            try {
+                ensureOpen();
+                if (!isStale()) {
+                    EncodedSchema schema = lookup(hash, uriBytes);
+                    // Another registry may have written while the index was read
+                    if (!isStale()) {
+                        return schema;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            reload();
+        }
+    }
+
+    private EncodedSchema lookup(long hash, byte[] uriBytes) {
+        long slot = find(hash, uriBytes);
+        if (slot < 0) {
+            return null;
+        }
+        long offset = index.get(LONG, slot + 8);
+        int jsonLength = data.get(INT, offset + 4);
+        // The slice keeps the mapping alive for as long as the compiler holds it
+        MemorySegment json = data.asSlice(offset + 8 + uriBytes.length, jsonLength + 1L);
+        return EncodedSchema.borrow(json.asReadOnly());
+    }
+
+    /**
+     * Gets the number of registered schemas
+     *
+     * @return The number of live URIs
+     */
+    public int size() {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                ensureOpen();
+                if (!isStale()) {
+                    return count;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            reload();
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by the data file, including replaced and removed schemas
+     *
+     * @return The logical size of the data file
+     */
+    public long getDataSize() {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                ensureOpen();
+                if (!isStale()) {
+                    return dataEnd;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            reload();
+        }
+    }
+
+    /**
+     * Writes the live schemas to a new generation of the data file and rebuilds the index.
+     * Schemas resolved before compaction remain readable from the previous mapping.
+     *
+     * @throws IOException If the compacted files cannot be written
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            try (HeldLock ignored = lockFiles()) {
+                catchUp();
+                int generation = dataGeneration + 1;
+                FileChannel out = FileChannel.open(versioned(DATA_FILE, generation), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MemorySegment target;
+                try {
+                    long size = Math.max(INITIAL_DATA_SIZE, dataEnd);
+                    out.write(ByteBuffer.allocate(1), size - 1);
+                    target = out.map(FileChannel.MapMode.READ_WRITE, 0, size, Arena.ofAuto());
+                    target.set(INT, 4, FORMAT_VERSION);
+                    long position = DATA_HEADER;
+                    for (long slot = INDEX_HEADER; slot < INDEX_HEADER + capacity * SLOT_SIZE; slot += SLOT_SIZE) {
+                        long offset = index.get(LONG, slot + 8);
+                        if (offset == EMPTY_SLOT || offset == DELETED_SLOT) {
+                            continue;
+                        }
+                        long recordSize = recordSize(data.get(INT, offset), data.get(INT, offset + 4));
+                        MemorySegment.copy(data, offset, target, position, recordSize);
+                        position += recordSize;
+                    }
+                    target.set(LONG, DATA_END_OFFSET, position);
+                    target.force();
+                    target.set(INT, 0, DATA_MAGIC);
+                    target.force();
+                } catch (IOException | RuntimeException e) {
+                    out.close();
+                    throw e;
+                }
+
+                MemorySegment previous = data;
+                dataChannel.close();
+                dataChannel = out;
+                data = target;
+                dataGeneration = generation;
+                dataEnd = data.get(LONG, DATA_END_OFFSET);
+                // Offsets changed, so the index is replayed from the compacted data
+                indexChannel.close();
+                index = null;
+                rebuildIndex(capacityFor(count));
+                // Sends other registries to the new generation
+                previous.set(INT, 0, RETIRED_MAGIC);
+                previous.force();
+                deleteSuperseded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes pending changes of both files to disk
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            data.force();
+            index.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            data.force();
+            index.force();
+            closeChannels();
+            closeLock();
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void closeChannels() {
+        try {
+            if (dataChannel != null) {
+                dataChannel.close();
+            }
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Failed to close schema registry files: " + e.getMessage());
+        }
+    }
+
+    private void closeLock() {
+        try {
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Failed to close schema registry lock: " + e.getMessage());
+        }
+    }
+
+    // schemas.dat for version 0, schemas.1.dat for version 1 and so on
+    private Path versioned(String file, int version) {
+        if (version == 0) {
+            return directory.resolve(file);
+        }
+        int dot = file.lastIndexOf('.');
+        return directory.resolve(file.substring(0, dot) + "." + version + file.substring(dot));
+    }
+
+    // Versions of a file present in the directory, newest first
+    private List<Integer> versions(String file) throws IOException {
+        int dot = file.lastIndexOf('.');
+        String prefix = file.substring(0, dot + 1);
+        String suffix = file.substring(dot);
+        List<Integer> versions = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.equals(file)) {
+                    versions.add(0);
+                } else if (name.length() > prefix.length() + suffix.length()
+                        && name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        int version = Integer.parseInt(name.substring(prefix.length(), name.length() - suffix.length()));
+                        if (version > 0) {
+                            versions.add(version);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Not one of ours
+                    }
+                }
+            });
+        }
+        versions.sort(Comparator.reverseOrder());
+        return versions;
+    }
+
+    // Reads the magic without mapping the file, so a file that is skipped can be deleted
+    private static int readMagic(FileChannel channel) throws IOException {
+        if (channel.size() < DATA_HEADER) {
+            return 0;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+        while (magic.hasRemaining() && channel.read(magic, magic.position()) >= 0) {
+            // Keep reading until the int is complete
+        }
+        return magic.getInt(0);
+    }
+
+    // Removes older generations of both files. Where another mapping still holds one, the
+    // operating system may refuse, and a later open or compaction removes it instead.
+    private void deleteSuperseded() throws IOException {
+        for (int generation : versions(DATA_FILE)) {
+            if (generation < dataGeneration) {
+                deleteQuietly(versioned(DATA_FILE, generation));
+            }
+        }
+        for (int version : versions(INDEX_FILE)) {
+            if (version < indexVersion) {
+                deleteQuietly(versioned(INDEX_FILE, version));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.fine("Could not delete " + path + " yet: " + e.getMessage());
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Schema registry has been closed");
+        }
+    }
+
+    // Old mappings are released by the garbage collector once no resolved schema refers to them
+    private void mapData(long size) throws IOException {
+        if (dataChannel.size() < size) {
+            dataChannel.write(ByteBuffer.allocate(1), size - 1);
+        }
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, size, Arena.ofAuto());
+    }
+
+    private static long recordSize(int uriLength, int jsonLength) {
+        return 8L + uriLength + (jsonLength == REMOVED ? 0 : jsonLength + 1L);
+    }
+
+    private long append(byte[] uriBytes, byte[] jsonBytes, int jsonLength) throws IOException {
+        long offset = dataEnd;
+        long end = offset + recordSize(uriBytes.length, jsonLength);
+        if (end > data.byteSize()) {
+            mapData(Math.max(end, data.byteSize() * 2));
+        }
+        data.set(INT, offset, uriBytes.length);
+        data.set(INT, offset + 4, jsonLength);
+        MemorySegment.copy(uriBytes, 0, data, ValueLayout.JAVA_BYTE, offset + 8, uriBytes.length);
+        if (jsonLength != REMOVED) {
+            long jsonOffset = offset + 8 + uriBytes.length;
+            MemorySegment.copy(jsonBytes, 0, data, ValueLayout.JAVA_BYTE, jsonOffset, jsonBytes.length);
+            data.set(ValueLayout.JAVA_BYTE, jsonOffset + jsonBytes.length, (byte) 0);
+        }
+        dataEnd = end;
+        data.set(LONG, DATA_END_OFFSET, dataEnd);
+        return offset;
+    }
+
+    // Returns the slot position holding the URI, or -1
+    private long find(long hash, byte[] uriBytes) {
+        int mask = capacity - 1;
+        for (int probe = 0, i = (int) (hash & mask); probe < capacity; probe++, i = (i + 1) & mask) {
+            long slot = INDEX_HEADER + i * SLOT_SIZE;
+            long offset = index.get(LONG, slot + 8);
+            if (offset == EMPTY_SLOT) {
+                return -1;
+            }
+            // Offsets past dataEnd were written by another registry after this one mapped the data
+            if (offset != DELETED_SLOT && offset < dataEnd && index.get(LONG, slot) == hash
+                    && uriMatches(offset, uriBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean uriMatches(long offset, byte[] uriBytes) {
+        if (data.get(INT, offset) != uriBytes.length) {
+            return false;
+        }
+        return MemorySegment.mismatch(data, offset + 8, offset + 8 + uriBytes.length,
+            MemorySegment.ofArray(uriBytes), 0, uriBytes.length) == -1;
+    }
+
+    // Points the URI at a record offset, returns whether an existing entry was replaced
+    private boolean insert(long hash, byte[] uriBytes, long offset) throws IOException {
+        long existing = find(hash, uriBytes);
+        if (existing >= 0) {
+            index.set(LONG, existing + 8, offset);
+            return true;
+        }
+        if ((used + 1L) * 10 > capacity * 7L) {
+            indexChannel.close();
+            rebuildIndex(capacityFor(count + 1));
+        }
+        int mask = capacity - 1;
+        for (int i = (int) (hash & mask); ; i = (i + 1) & mask) {
+            long slot = INDEX_HEADER + i * SLOT_SIZE;
+            long slotOffset = index.get(LONG, slot + 8);
+            if (slotOffset == EMPTY_SLOT || slotOffset == DELETED_SLOT) {
+                if (slotOffset == EMPTY_SLOT) {
+                    used++;
+                }
+                index.set(LONG, slot, hash);
+                index.set(LONG, slot + 8, offset);
+                count++;
+                writeIndexHeader();
+                return false;
+            }
+        }
+    }
+
+    // Writes a fresh index to the next version of the file, carrying over the current one or
+    // replaying the data file. The magic is written last, so an unfinished index is never used.
+    private void rebuildIndex(int newCapacity) throws IOException {
+        int version = indexVersion + 1;
+        MemorySegment previousIndex = index;
+        int previousCapacity = capacity;
+        FileChannel out = FileChannel.open(versioned(INDEX_FILE, version), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            while (true) {
+                long size = INDEX_HEADER + newCapacity * SLOT_SIZE;
+                out.truncate(0);
+                out.write(ByteBuffer.allocate(1), size - 1);
+                index = out.map(FileChannel.MapMode.READ_WRITE, 0, size, Arena.ofAuto());
+                capacity = newCapacity;
+                count = 0;
+                used = 0;
+
+                if (previousIndex != null) {
+                    // Growing a valid index: carry over the live slots
+                    for (long slot = INDEX_HEADER; slot < INDEX_HEADER + previousCapacity * SLOT_SIZE; slot += SLOT_SIZE) {
+                        long offset = previousIndex.get(LONG, slot + 8);
+                        if (offset != EMPTY_SLOT && offset != DELETED_SLOT) {
+                            place(previousIndex.get(LONG, slot), offset);
+                        }
+                    }
+                    break;
+                }
+                if (replayData()) {
+                    break;
+                }
+                newCapacity *= 2;
+            }
+            writeIndexHeader();
+            index.force();
+            index.set(INT, 0, INDEX_MAGIC);
+            index.set(INT, 4, FORMAT_VERSION);
+            index.force();
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+        indexChannel = out;
+        if (indexVersion >= 0) {
+            deleteQuietly(versioned(INDEX_FILE, indexVersion));
+        }
+        indexVersion = version;
+    }
+
+    // Applies every record of the data file to an empty index, returns false if the index is too small
+    private boolean replayData() {
+        long offset = DATA_HEADER;
+        while (offset < dataEnd) {
+            int uriLength = data.get(INT, offset);
+            int jsonLength = data.get(INT, offset + 4);
+            byte[] uriBytes = data.asSlice(offset + 8, uriLength).toArray(ValueLayout.JAVA_BYTE);
+            long hash = hash(new String(uriBytes, StandardCharsets.UTF_8));
+            long slot = find(hash, uriBytes);
+            if (jsonLength == REMOVED) {
+                if (slot >= 0) {
+                    index.set(LONG, slot + 8, DELETED_SLOT);
+                    count--;
+                }
+            } else if (slot >= 0) {
+                index.set(LONG, slot + 8, offset);
+            } else {
+                if ((used + 1L) * 10 > capacity * 7L) {
+                    return false;
+                }
+                place(hash, offset);
+            }
+            offset += recordSize(uriLength, jsonLength);
+        }
+        return true;
+    }
+
+    private void place(long hash, long offset) {
+        int mask = capacity - 1;
+        for (int i = (int) (hash & mask); ; i = (i + 1) & mask) {
+            long slot = INDEX_HEADER + i * SLOT_SIZE;
+            if (index.get(LONG, slot + 8) == EMPTY_SLOT) {
+                index.set(LONG, slot, hash);
+                index.set(LONG, slot + 8, offset);
+                count++;
+                used++;
+                return;
+            }
+        }
+    }
+
+    private void writeIndexHeader() {
+        index.set(INT, 8, capacity);
+        index.set(INT, 12, count);
+        index.set(INT, 16, used);
+        index.set(INT, 20, dataGeneration);
+        index.set(LONG, 24, dataEnd);
+    }
+
+    // Smallest power of two keeping the load factor under 0.5 after a rebuild
+    private static int capacityFor(int entries) {
+        int needed = Math.max(INITIAL_CAPACITY, entries * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // Stable 64-bit FNV-1a hash of the URI, persisted in the index
+    private static long hash(String uri) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < uri.length(); i++) {
+            hash ^= uri.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -1,9 +1,36 @@
 package com.github.madhavdhatrak.blaze4j;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Logger;
 
+/**
+ * Loads the native library bundled in the JAR.
+ * <p>
+ * The library is extracted once into a cache directory, under a subdirectory named after
+ * its SHA-256, and reused by every later JVM that ships the same library. A cached copy is
+ * only loaded once its digest matches, and is extracted again otherwise. The cache
+ * directory defaults to {@code ~/.cache/blaze4j} and can be changed with the
+ * {@code blaze4j.native.cache} system property.
+ * <p>
+ * A library shipped outside the JAR is loaded in place instead: the one named by the
+ * {@code blaze4j.native.path} system property or, in a GraalVM native image, one next to
+ * the executable.
+ */
 public class NativeLoader {
+    private static final Logger LOGGER = Logger.getLogger(NativeLoader.class.getName());
+    static final String CACHE_DIR_PROPERTY = "blaze4j.native.cache";
+    static final String LIBRARY_PATH_PROPERTY = "blaze4j.native.path";
+    // How long to wait for another class loader of this JVM that is extracting the same library
+    private static final long LOCK_WAIT_NANOS = 30_000_000_000L;
+
     public static void loadLibrary(String libName) throws IOException {
         String os = System.getProperty("os.name").toLowerCase();
         String arch = System.getProperty("os.arch").toLowerCase();
@@ -20,7 +47,13 @@ public class NativeLoader {
                 libName = "lib" + libName + ".dylib";
             }
         } else if (os.contains("wsl") || os.contains("linux")) {
-            platform = "linux-amd64";
+            if (arch.equals("aarch64") || arch.equals("arm64")) {
+                platform = "linux-aarch64";
+            } else if (arch.equals("amd64") || arch.equals("x86_64")) {
+                platform = "linux-amd64";
+            } else {
+                throw new UnsupportedOperationException("Unsupported architecture: " + arch);
+            }
             if (libName.startsWith("lib")) {
                 libName += ".so";
             } else {
@@ -30,8 +63,160 @@ public class NativeLoader {
             throw new UnsupportedOperationException("Unsupported OS: " + os);
         }
 
+        Path external = externalLibrary(libName);
+        if (external != null) {
+            LOGGER.fine("Loading native library from " + external);
+            System.load(external.toAbsolutePath().toString());
+            return;
+        }
+
         String resourcePath = "native/" + platform + "/" + libName;
-         
+
+        Path library;
+        try {
+            library = extractToCache(resourcePath, libName, cacheDirectory());
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            // A read-only home directory must not stop the library from loading
+            LOGGER.warning("Native library cache unavailable, extracting to a temporary file: " + e.getMessage());
+            library = extractToTempFile(resourcePath, libName);
+        }
+        System.load(library.toAbsolutePath().toString());
+    }
+
+    /**
+     * Tells whether this code runs inside a GraalVM native image
+     *
+     * @return true at native image run time
+     */
+    static boolean inNativeImage() {
+        return "runtime".equals(System.getProperty("org.graalvm.nativeimage.imagecode"));
+    }
+
+    /**
+     * Finds a library shipped outside the JAR: the one configured with
+     * {@code blaze4j.native.path}, or the one next to a native image executable.
+     *
+     * @param libName The file name of the library
+     * @return The library, or null to extract the bundled one
+     * @throws FileNotFoundException If the configured library does not exist
+     */
+    static Path externalLibrary(String libName) throws FileNotFoundException {
+        String configured = System.getProperty(LIBRARY_PATH_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            Path library = Paths.get(configured);
+            if (!Files.isRegularFile(library)) {
+                throw new FileNotFoundException("Native library not found: " + library);
+            }
+            return library;
+        }
+        if (inNativeImage()) {
+            Path executable = ProcessHandle.current().info().command().map(Paths::get).orElse(null);
+            Path directory = executable == null ? null : executable.toAbsolutePath().getParent();
+            if (directory != null && Files.isRegularFile(directory.resolve(libName))) {
+                return directory.resolve(libName);
+            }
+        }
+        return null;
+    }
+
+    static Path cacheDirectory() {
+        String configured = System.getProperty(CACHE_DIR_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "blaze4j");
+    }
+
+    /**
+     * Extracts a bundled library into {@code cacheDir/<sha256>/libName} unless an earlier JVM
+     * already did and the cached copy still has that digest. Concurrent JVMs serialize on a
+     * lock file, and the library is written to a temporary file and renamed into place, so a
+     * crash never leaves a partial library behind. File locks only exclude other processes, so
+     * threads of this class loader are serialized here and other class loaders of this JVM,
+     * such as other web applications, are waited for while they hold the lock.
+     *
+     * @param resourcePath The classpath location of the library
+     * @param libName The file name of the library
+     * @param cacheDir The cache root
+     * @return The path of the cached library
+     * @throws IOException If the library is missing or the cache cannot be written
+     */
+    static synchronized Path extractToCache(String resourcePath, String libName, Path cacheDir) throws IOException {
+        // The build publishes a .sha256 next to the library, so a warm start only reads the cached copy
+        String hash = readBundledHash(resourcePath);
+        byte[] bytes = null;
+        if (hash == null) {
+            bytes = readResource(resourcePath);
+            hash = sha256(bytes);
+        }
+
+        Path directory = cacheDir.resolve(hash);
+        Path library = directory.resolve(libName);
+        if (isIntact(library, hash)) {
+            LOGGER.fine("Using cached native library " + library);
+            return library;
+        }
+
+        Files.createDirectories(directory);
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lock(lockChannel)) {
+            // Another JVM may have finished the extraction while we waited for the lock
+            if (isIntact(library, hash)) {
+                return library;
+            }
+            if (Files.exists(library)) {
+                LOGGER.warning("Cached native library " + library + " does not match its digest, extracting it again");
+            }
+            if (bytes == null) {
+                bytes = readResource(resourcePath);
+                String actual = sha256(bytes);
+                if (!actual.equals(hash)) {
+                    throw new IOException("Checksum mismatch for " + resourcePath + ": expected " + hash + " but was " + actual);
+                }
+            }
+
+            Path temp = Files.createTempFile(directory, libName, ".tmp");
+            try {
+                Files.write(temp, bytes);
+                try {
+                    Files.move(temp, library, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, library, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            LOGGER.fine("Extracted native library to " + library);
+            return library;
+        }
+    }
+
+    // Locks the whole file. The JVM refuses a second lock on a file it already holds, so a copy
+    // of this class in another class loader gets OverlappingFileLockException instead of
+    // blocking; poll until it releases the lock.
+    private static FileLock lock(FileChannel channel) throws IOException {
+        long start = System.nanoTime();
+        while (true) {
+            try {
+                return channel.lock();
+            } catch (OverlappingFileLockException e) {
+                if (System.nanoTime() - start > LOCK_WAIT_NANOS) {
+                    throw new IOException("Timed out waiting for another class loader to extract the native library", e);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the native library lock");
+                }
+            }
+        }
+    }
+
+    private static Path extractToTempFile(String resourcePath, String libName) throws IOException {
         try (InputStream in = NativeLoader.class.getClassLoader().getResourceAsStream(resourcePath)) {
             if (in == null) {
                 throw new FileNotFoundException("Native library not found: " + resourcePath);
@@ -40,7 +225,53 @@ public class NativeLoader {
             File tempFile = File.createTempFile("native-", libName);
             tempFile.deleteOnExit();
             Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            System.load(tempFile.getAbsolutePath());
+            return tempFile.toPath();
+        }
+    }
+
+    private static String readBundledHash(String resourcePath) throws IOException {
+        try (InputStream in = NativeLoader.class.getClassLoader().getResourceAsStream(resourcePath + ".sha256")) {
+            if (in == null) {
+                return null;
+            }
+            String hash = new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim().toLowerCase();
+            // Tolerate the "<hash>  <file>" format written by sha256sum
+            int space = hash.indexOf(' ');
+            return space >= 0 ? hash.substring(0, space) : hash;
+        }
+    }
+
+    private static byte[] readResource(String resourcePath) throws IOException {
+        try (InputStream in = NativeLoader.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new FileNotFoundException("Native library not found: " + resourcePath);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    // Whether a cached library exists and still has the digest it was extracted under
+    private static boolean isIntact(Path library, String hash) throws IOException {
+        if (!Files.isRegularFile(library)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(library)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest()).equals(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * Collects bytes in native memory that grows by powers of two, so serialized instances can
+ * be validated where they were written. Streams are reused through {@link #acquire()} and
+ * {@link #release(NativeOutputStream)} from a {@link SharedPool} rather than one per thread,
+ * so virtual threads do not each hold native memory; a stream that grew past
+ * {@link BlazeWrapper#POOLED_INSTANCE_LIMIT} is dropped for the garbage collector to free.
+ */
+final class NativeOutputStream extends OutputStream {
+    private static final long INITIAL_CAPACITY = 4096;
+    private static final SharedPool<NativeOutputStream> POOL = new SharedPool<>(NativeOutputStream::new);
+
+    private MemorySegment segment = Arena.ofAuto().allocate(INITIAL_CAPACITY + BlazeWrapper.INSTANCE_PADDING);
+    private long size;
+
+    // An empty stream for the calling thread only
+    static NativeOutputStream acquire() {
+        NativeOutputStream stream = POOL.acquire();
+        stream.size = 0;
+        return stream;
+    }
+
+    static void release(NativeOutputStream stream) {
+        if (stream.segment.byteSize() <= BlazeWrapper.POOLED_INSTANCE_LIMIT + BlazeWrapper.INSTANCE_PADDING) {
+            POOL.release(stream);
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        segment.set(ValueLayout.JAVA_BYTE, size++, (byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureCapacity(size + len);
+        MemorySegment.copy(b, off, segment, ValueLayout.JAVA_BYTE, size, len);
+        size += len;
+    }
+
+    // Native memory holding the bytes written so far, followed by unused capacity of at least
+    // BlazeWrapper.INSTANCE_PADDING bytes
+    MemorySegment segment() {
+        return segment;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void ensureCapacity(long capacity) {
+        if (capacity + BlazeWrapper.INSTANCE_PADDING > segment.byteSize()) {
+            long size = (Long.highestOneBit(capacity - 1) << 1) + BlazeWrapper.INSTANCE_PADDING;
+            MemorySegment grown = Arena.ofAuto().allocate(size);
+            MemorySegment.copy(segment, 0, grown, 0, size);
+            segment = grown;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Status codes returned by the native *_ex, validate and profile entry points. They mirror
+ * the {@code BlazeStatus} enum in blaze_wrapper.cpp and must be kept in step with it.
+ */
+final class NativeStatus {
+    static final int OK = 0;
+    static final int INVALID = 1;
+    static final int PARSE_ERROR = 2;
+    static final int SCHEMA_ERROR = 3;
+    static final int INVALID_ARGUMENT = 4;
+    static final int INTERNAL_ERROR = 5;
+
+    private NativeStatus() {
+    }
+}
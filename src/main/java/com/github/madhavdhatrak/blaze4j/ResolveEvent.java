@@ -0,0 +1,29 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@code $ref} target requested by the native compiler.
+ */
+@Name("blaze4j.Resolve")
+@Label("Schema Resolution")
+@Category("Blaze4j")
+@Description("Resolution of a referenced schema through the configured resolvers")
+@StackTrace(false)
+final class ResolveEvent extends jdk.jfr.Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Schema Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Outcome")
+    @Description("hit, miss or error")
+    String outcome;
+}
@@ -0,0 +1,94 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one resolver in a {@link SchemaResolverChain}.
+ */
+public final class ResolverMetrics {
+    private final String name;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    ResolverMetrics(String name) {
+        this.name = name;
+    }
+
+    void record(boolean hit, long elapsedNanos) {
+        requests.increment();
+        if (hit) {
+            hits.increment();
+        }
+        totalNanos.add(elapsedNanos);
+    }
+
+    void recordFailure(long elapsedNanos) {
+        requests.increment();
+        failures.increment();
+        totalNanos.add(elapsedNanos);
+    }
+
+    /**
+     * Gets the name of the resolver these metrics belong to
+     *
+     * @return The resolver name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of URIs this resolver was asked for
+     *
+     * @return The request count
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of URIs this resolver returned a schema for
+     *
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of URIs this resolver did not know
+     *
+     * @return The miss count, excluding failures
+     */
+    public long getMisses() {
+        return getRequests() - getHits() - getFailures();
+    }
+
+    /**
+     * Gets the number of requests that threw an exception
+     *
+     * @return The failure count
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the total time spent in this resolver
+     *
+     * @param unit The unit of the returned value
+     * @return The accumulated resolution time
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return name + "{requests=" + getRequests() + ", hits=" + getHits() + ", misses=" + getMisses()
+            + ", failures=" + getFailures() + ", totalMillis=" + getTotalTime(TimeUnit.MILLISECONDS) + "}";
+    }
+}
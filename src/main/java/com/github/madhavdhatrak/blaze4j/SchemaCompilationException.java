@@ -0,0 +1,67 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Thrown when a schema cannot be compiled. The details carry the native compiler's
+ * message, e.g. the position of a JSON syntax error or the reference that could not
+ * be resolved.
+ */
+public class SchemaCompilationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Why compilation failed
+     */
+    public enum Reason {
+        /** The schema is not valid JSON */
+        MALFORMED_SCHEMA,
+        /** The schema is valid JSON but could not be compiled, e.g. an unresolvable $ref or unknown dialect */
+        INVALID_SCHEMA,
+        /** The native library failed unexpectedly */
+        INTERNAL_ERROR
+    }
+
+    private final Reason reason;
+    private final String details;
+
+    /**
+     * Creates a new SchemaCompilationException.
+     * 
+     * @param reason Why compilation failed
+     * @param details The native compiler's message, may be empty
+     */
+    public SchemaCompilationException(Reason reason, String details) {
+        super("Schema compilation failed" + (details == null || details.isEmpty() ? "" : ": " + details));
+        this.reason = reason;
+        this.details = details == null ? "" : details;
+    }
+
+    // Maps a status code returned by blaze_compile_ex
+    static SchemaCompilationException fromNative(int code, String details) {
+        switch (code) {
+            case NativeStatus.PARSE_ERROR:
+                return new SchemaCompilationException(Reason.MALFORMED_SCHEMA, details);
+            case NativeStatus.SCHEMA_ERROR:
+                return new SchemaCompilationException(Reason.INVALID_SCHEMA, details);
+            default:
+                return new SchemaCompilationException(Reason.INTERNAL_ERROR, details);
+        }
+    }
+
+    /**
+     * Gets why compilation failed.
+     * 
+     * @return The failure reason
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets the native compiler's message.
+     * 
+     * @return The failure details, or an empty string
+     */
+    public String getDetails() {
+        return details;
+    }
+}
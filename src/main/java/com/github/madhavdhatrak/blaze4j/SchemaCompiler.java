@@ -1,6 +1,8 @@
 package com.github.madhavdhatrak.blaze4j;
 
 import java.lang.foreign.Arena;
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Class responsible for compiling JSON schemas.
@@ -8,6 +10,10 @@ import java.lang.foreign.Arena;
  */
 public class SchemaCompiler {
     private final SchemaRegistry registry;
+    private final SchemaResolver resolver;
+    private volatile int prefetchParallelism;
+    private volatile Duration prefetchDeadline;
+    private volatile int javaBackendMaxInstanceLength;
     
     /**
      * Creates a SchemaCompiler with no pre-registered schemas.
@@ -22,10 +28,78 @@ public class SchemaCompiler {
      * @param registry Schema registry containing pre-registered schemas
      */
     public SchemaCompiler(SchemaRegistry registry) {
+        this(registry, SchemaResolverChain.defaults());
+    }
+    
+    /**
+     * Creates a SchemaCompiler with no pre-registered schemas that resolves
+     * every referenced URI through the specified resolver.
+     * 
+     * @param resolver Resolver used for every referenced URI
+     */
+    public SchemaCompiler(SchemaResolver resolver) {
+        this(new SchemaRegistry(), resolver);
+    }
+    
+    /**
+     * Creates a SchemaCompiler with the specified schema registry and resolver.
+     * The registry is consulted first; URIs it does not contain are passed to the
+     * resolver instead of the default HTTP and classpath resolvers.
+     * 
+     * @param registry Schema registry containing pre-registered schemas
+     * @param resolver Resolver used for URIs missing from the registry
+     */
+    public SchemaCompiler(SchemaRegistry registry, SchemaResolver resolver) {
         if (registry == null) {
             throw new IllegalArgumentException("Schema registry cannot be null");
         }
+        if (resolver == null) {
+            throw new IllegalArgumentException("Schema resolver cannot be null");
+        }
         this.registry = registry;
+        this.resolver = resolver;
+    }
+    
+    /**
+     * Enables concurrent prefetching of referenced documents before compilation.
+     * Every {@code $ref}, {@code $dynamicRef} and {@code $schema} URI is resolved transitively
+     * on virtual threads, so the native compiler does not resolve remote documents one at a time.
+     * Documents not resolved before the deadline are resolved during compilation as usual.
+     * 
+     * @param maxParallelism Maximum number of documents resolved at the same time
+     * @param deadline Overall time budget for the prefetch phase
+     * @return This compiler
+     */
+    public SchemaCompiler enablePrefetch(int maxParallelism, Duration deadline) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism must be at least 1");
+        }
+        if (deadline == null || deadline.isNegative()) {
+            throw new IllegalArgumentException("deadline must be a non-negative duration");
+        }
+        this.prefetchDeadline = deadline;
+        this.prefetchParallelism = maxParallelism;
+        return this;
+    }
+    
+    /**
+     * Enables the pure-Java validation backend for small instances. Schemas that only use
+     * the keywords it supports (types, numeric, string, array and object assertions,
+     * {@code enum}, {@code const}, {@code properties}, {@code required}, {@code items} and the
+     * boolean applicators, but not {@code $ref}, {@code pattern} or {@code format}) are also
+     * translated into a Java validator. {@code validate} and {@code validateStatus} then check
+     * instances of at most {@code maxInstanceLength} characters in Java, skipping the native
+     * call. Detailed validation, larger instances and other schemas always use native code.
+     * 
+     * @param maxInstanceLength Longest instance, in characters, validated in Java
+     * @return This compiler
+     */
+    public SchemaCompiler enableJavaBackend(int maxInstanceLength) {
+        if (maxInstanceLength < 1) {
+            throw new IllegalArgumentException("maxInstanceLength must be at least 1");
+        }
+        this.javaBackendMaxInstanceLength = maxInstanceLength;
+        return this;
     }
     
     /**
@@ -36,7 +110,8 @@ public class SchemaCompiler {
      * @return A compiled schema
      */
     public CompiledSchema compile(String schema, Arena arena) {
-        return BlazeWrapper.compileSchema(schema, this.registry, arena);
+        return withJavaBackend(schema, null,
+            BlazeWrapper.compileSchema(schema, resolverFor(schema, null, registry.snapshot()), arena, null));
     }
     
     /**
@@ -48,7 +123,8 @@ public class SchemaCompiler {
      * @return A compiled schema
      */
     public CompiledSchema compile(String schema, Arena arena, String defaultDialect) {
-        return BlazeWrapper.compileSchema(schema, this.registry, arena, defaultDialect);
+        return withJavaBackend(schema, defaultDialect,
+            BlazeWrapper.compileSchema(schema, resolverFor(schema, defaultDialect, registry.snapshot()), arena, defaultDialect));
     }
     
     /**
@@ -62,6 +138,22 @@ public class SchemaCompiler {
         return compile(schema, arena);
     }
     
+    /**
+     * Compiles a JSON schema against a fixed registry snapshot instead of the live registry,
+     * so the same snapshot always resolves the same documents
+     * 
+     * @param schema JSON schema to compile
+     * @param snapshot Registry snapshot consulted before the resolver
+     * @return A compiled schema
+     */
+    public CompiledSchema compile(String schema, SchemaRegistrySnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Registry snapshot cannot be null");
+        }
+        return withJavaBackend(schema, null,
+            BlazeWrapper.compileSchema(schema, resolverFor(schema, null, snapshot), Arena.ofConfined(), null));
+    }
+    
     /**
      * Compiles a JSON schema with an explicit default dialect, creating and managing an Arena internally
      * 
@@ -74,6 +166,39 @@ public class SchemaCompiler {
         return compile(schema, arena, defaultDialect);
     }
     
+    // The native template is compiled first, so the Java backend only sees schemas Blaze accepts
+    private CompiledSchema withJavaBackend(String schema, String defaultDialect, CompiledSchema compiled) {
+        int maxInstanceLength = this.javaBackendMaxInstanceLength;
+        if (maxInstanceLength == 0) {
+            return compiled;
+        }
+        JavaValidator validator = JavaSchemaCompiler.compile(schema, defaultDialect);
+        return validator == null ? compiled : new JavaCompiledSchema(compiled, validator, maxInstanceLength);
+    }
+    
+    // Binds the compilation to one registry snapshot, seeded with prefetched documents when enabled
+    private SchemaResolver resolverFor(String schema, String defaultDialect, SchemaRegistrySnapshot snapshot) {
+        SchemaResolver resolution = SchemaResolverChain.builder()
+            .add("registry", snapshot)
+            .add("resolver", resolver)
+            .build();
+        int parallelism = this.prefetchParallelism;
+        if (parallelism == 0 || schema == null) {
+            return resolution;
+        }
+        Map<String, String> prefetched = new SchemaPrefetcher(resolution, parallelism, prefetchDeadline, defaultDialect)
+            .prefetch(schema);
+        if (prefetched.isEmpty()) {
+            return resolution;
+        }
+        // Registry entries stay first so they are still lent to native code without copying
+        return SchemaResolverChain.builder()
+            .add("registry", snapshot)
+            .add("prefetched", prefetched::get)
+            .add("resolver", resolver)
+            .build();
+    }
+    
     /**
      * Gets the schema registry associated with this compiler
      * 
@@ -82,4 +207,13 @@ public class SchemaCompiler {
     public SchemaRegistry getRegistry() {
         return registry;
     }
+    
+    /**
+     * Gets the resolver consulted for URIs missing from the registry
+     * 
+     * @return The schema resolver
+     */
+    public SchemaResolver getResolver() {
+        return resolver;
+    }
 }
@@ -0,0 +1,80 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of one schema location, read from a {@link SchemaProfile}. A location is the
+ * evaluate path of the instructions Blaze ran for a keyword, such as
+ * {@code /properties/id/pattern}.
+ * <p>
+ * Self time excludes the instructions nested under the location, so it points at the
+ * keywords doing the work; total time includes them, so applicators such as
+ * {@code properties} or {@code $ref} show what their whole subschema costs.
+ */
+public final class SchemaHotspot {
+    private final String evaluatePath;
+    private final long invocations;
+    private final long totalNanos;
+    private final long selfNanos;
+
+    SchemaHotspot(String evaluatePath, long invocations, long totalNanos, long selfNanos) {
+        this.evaluatePath = evaluatePath;
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.selfNanos = selfNanos;
+    }
+
+    /**
+     * Gets the evaluate path of the location
+     *
+     * @return A JSON Pointer into the schema, through any {@code $ref}s followed
+     */
+    public String getEvaluatePath() {
+        return evaluatePath;
+    }
+
+    /**
+     * Gets the keyword at the location, the last token of its evaluate path
+     *
+     * @return The keyword, or an empty string for the root
+     */
+    public String getKeyword() {
+        String token = evaluatePath.substring(evaluatePath.lastIndexOf('/') + 1);
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * Gets the number of instructions evaluated at the location
+     *
+     * @return The invocation count
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Gets the time spent at the location, including nested instructions
+     *
+     * @param unit The unit of the returned value
+     * @return The total time
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time spent at the location, excluding nested instructions
+     *
+     * @param unit The unit of the returned value
+     * @return The self time
+     */
+    public long getSelfTime(TimeUnit unit) {
+        return unit.convert(selfNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return evaluatePath + "{invocations=" + invocations + ", selfNanos=" + selfNanos
+            + ", totalNanos=" + totalNanos + "}";
+    }
+}
@@ -0,0 +1,236 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Resolves the {@code $ref} graph of a schema concurrently before compilation, so the native
+ * compiler finds every referenced document in memory instead of resolving them one by one.
+ */
+class SchemaPrefetcher {
+    private static final Logger LOGGER = Logger.getLogger(SchemaPrefetcher.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Keywords whose string value references another schema document
+    static final Set<String> REFERENCE_KEYWORDS = Set.of("$ref", "$dynamicRef", "$schema");
+    // Keywords whose object value maps names to subschemas
+    static final Set<String> SCHEMA_MAP_KEYWORDS = Set.of(
+        "properties", "patternProperties", "$defs", "definitions", "dependentSchemas", "dependencies");
+    // Keywords whose value is data rather than schemas
+    static final Set<String> DATA_KEYWORDS = Set.of(
+        "enum", "const", "examples", "default", "required", "dependentRequired", "$vocabulary");
+
+    private final SchemaResolver resolver;
+    private final int maxParallelism;
+    private final Duration deadline;
+    private final String defaultDialect;
+
+    SchemaPrefetcher(SchemaResolver resolver, int maxParallelism, Duration deadline, String defaultDialect) {
+        this.resolver = resolver;
+        this.maxParallelism = maxParallelism;
+        this.deadline = deadline;
+        this.defaultDialect = defaultDialect;
+    }
+
+    private static final class Fetched {
+        private final String uri;
+        private final String schemaJson;
+        private final Set<String> references;
+
+        Fetched(String uri, String schemaJson, Set<String> references) {
+            this.uri = uri;
+            this.schemaJson = schemaJson;
+            this.references = references;
+        }
+    }
+
+    /**
+     * Resolves every document transitively referenced by the schema. Documents that could not be
+     * resolved before the deadline are left out and resolved by the native compiler as usual.
+     *
+     * @param schemaJson The schema about to be compiled
+     * @return The resolved documents keyed by URI
+     */
+    Map<String, String> prefetch(String schemaJson) {
+        Map<String, String> resolved = new ConcurrentHashMap<>();
+        Set<String> pending;
+        try {
+            pending = collectReferences(MAPPER.readTree(schemaJson), null, defaultDialect);
+        } catch (IOException e) {
+            // Let the native compiler report the malformed schema
+            return resolved;
+        }
+        if (pending.isEmpty()) {
+            return resolved;
+        }
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        Semaphore permits = new Semaphore(maxParallelism);
+        Set<String> seen = new LinkedHashSet<>(pending);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<Fetched> completion = new ExecutorCompletionService<>(executor);
+            int outstanding = 0;
+            for (String uri : pending) {
+                completion.submit(() -> fetch(uri, permits));
+                outstanding++;
+            }
+
+            while (outstanding > 0) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<Fetched> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    LOGGER.fine("Schema prefetch deadline reached with " + outstanding + " documents outstanding");
+                    break;
+                }
+                outstanding--;
+                Fetched fetched = done.get();
+                if (fetched.schemaJson == null) {
+                    continue;
+                }
+                resolved.put(fetched.uri, fetched.schemaJson);
+                for (String reference : fetched.references) {
+                    if (seen.add(reference)) {
+                        completion.submit(() -> fetch(reference, permits));
+                        outstanding++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warning("Schema prefetch failed: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return resolved;
+    }
+
+    private Fetched fetch(String uri, Semaphore permits) throws InterruptedException {
+        permits.acquire();
+        String schemaJson;
+        try {
+            schemaJson = resolver.resolve(uri);
+        } catch (RuntimeException e) {
+            LOGGER.fine("Prefetch of " + uri + " failed: " + e.getMessage());
+            schemaJson = null;
+        } finally {
+            permits.release();
+        }
+        if (schemaJson == null) {
+            return new Fetched(uri, null, Set.of());
+        }
+        try {
+            return new Fetched(uri, schemaJson, collectReferences(MAPPER.readTree(schemaJson), uri, defaultDialect));
+        } catch (IOException e) {
+            // Still hand the text to the compiler, which reports the parse error
+            return new Fetched(uri, schemaJson, Set.of());
+        }
+    }
+
+    /**
+     * Collects the documents a schema references, leaving out the schema's own resources: the
+     * document itself and its embedded resources are found by the native compiler without
+     * asking the resolver.
+     *
+     * @param schema The schema document
+     * @param baseUri The URI the document was resolved from, or null for the compiled schema
+     * @param defaultDialect The dialect of schemas that do not declare one, or null
+     * @return The URIs of the referenced documents, without fragments
+     */
+    static Set<String> collectReferences(JsonNode schema, String baseUri, String defaultDialect) {
+        Set<String> resources = new HashSet<>();
+        Set<String> references = new LinkedHashSet<>();
+        if (baseUri != null) {
+            resources.add(baseUri);
+        }
+        walkSchema(schema, baseUri, defaultDialect, resources, references);
+        references.removeAll(resources);
+        return references;
+    }
+
+    private static void walkSchema(JsonNode schema, String baseUri, String dialect,
+                                   Set<String> resources, Set<String> references) {
+        if (!schema.isObject()) {
+            return;
+        }
+        String declaredDialect = SchemaResourceIndexer.textOf(schema, "$schema");
+        if (declaredDialect != null) {
+            dialect = declaredDialect;
+        }
+        // Draft 4 identifies resources with id, and before 2019-09 a fragment-only id is an anchor
+        String id = SchemaResourceIndexer.textOf(schema, SchemaResourceIndexer.idKeyword(dialect));
+        if (id != null && !(id.startsWith("#") && SchemaResourceIndexer.isPre2019(dialect))) {
+            String resolvedId = SchemaResourceIndexer.stripFragment(resolveUri(baseUri, id));
+            if (resolvedId != null && !resolvedId.isEmpty()) {
+                baseUri = resolvedId;
+                resources.add(resolvedId);
+            }
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String keyword = field.getKey();
+            JsonNode value = field.getValue();
+            if (REFERENCE_KEYWORDS.contains(keyword)) {
+                if (value.isTextual()) {
+                    addReference(baseUri, value.asText(), references);
+                }
+            } else if (DATA_KEYWORDS.contains(keyword)) {
+                continue;
+            } else if (SCHEMA_MAP_KEYWORDS.contains(keyword) && value.isObject()) {
+                for (JsonNode subschema : value) {
+                    walkSchema(subschema, baseUri, dialect, resources, references);
+                }
+            } else if (value.isObject()) {
+                walkSchema(value, baseUri, dialect, resources, references);
+            } else if (value.isArray()) {
+                for (JsonNode item : value) {
+                    walkSchema(item, baseUri, dialect, resources, references);
+                }
+            }
+        }
+    }
+
+    private static void addReference(String baseUri, String reference, Set<String> references) {
+        String document = SchemaResourceIndexer.stripFragment(resolveUri(baseUri, reference));
+        // Local references and the official metaschemas never reach the Java resolver
+        if (document == null || document.isEmpty()
+                || document.startsWith("http://json-schema.org/") || document.startsWith("https://json-schema.org/")) {
+            return;
+        }
+        references.add(document);
+    }
+
+    static String resolveUri(String baseUri, String reference) {
+        try {
+            if (baseUri == null) {
+                return new URI(reference).toString();
+            }
+            return new URI(baseUri).resolve(new URI(reference)).toString();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The hottest locations of one schema, read from a {@link SchemaProfiler}. Costs add up
+ * over every sampled validation since the schema was first profiled or last reset.
+ */
+public final class SchemaProfile {
+    static final SchemaProfile EMPTY = new SchemaProfile(0, 0, Collections.emptyList());
+
+    private final long validations;
+    private final long droppedInvocations;
+    private final List<SchemaHotspot> hotspots;
+
+    SchemaProfile(long validations, long droppedInvocations, List<SchemaHotspot> hotspots) {
+        this.validations = validations;
+        this.droppedInvocations = droppedInvocations;
+        this.hotspots = hotspots;
+    }
+
+    // Reads the JSON written by blaze_profile_report
+    static SchemaProfile fromJson(String json) {
+        try {
+            JsonNode root = new ObjectMapper().readTree(json);
+            List<SchemaHotspot> hotspots = new ArrayList<>();
+            for (JsonNode location : root.path("locations")) {
+                hotspots.add(new SchemaHotspot(location.path("evaluate_path").asText(),
+                    location.path("invocations").asLong(), location.path("total_nanos").asLong(),
+                    location.path("self_nanos").asLong()));
+            }
+            return new SchemaProfile(root.path("validations").asLong(), root.path("dropped").asLong(),
+                Collections.unmodifiableList(hotspots));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse validation profile JSON", e);
+        }
+    }
+
+    /**
+     * Gets the number of validations profiled
+     *
+     * @return The sampled validation count
+     */
+    public long getValidations() {
+        return validations;
+    }
+
+    /**
+     * Gets the number of instructions that were not attributed to a location, because the
+     * profile already tracked as many locations as it holds. Only deeply recursive schemas
+     * reach the limit.
+     *
+     * @return The unattributed invocation count
+     */
+    public long getDroppedInvocations() {
+        return droppedInvocations;
+    }
+
+    /**
+     * Gets the hottest locations
+     *
+     * @return The locations, by decreasing self time
+     */
+    public List<SchemaHotspot> getHotspots() {
+        return hotspots;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SchemaProfile{validations=").append(validations);
+        for (SchemaHotspot hotspot : hotspots) {
+            builder.append("\n  ").append(hotspot);
+        }
+        return builder.append(hotspots.isEmpty() ? "}" : "\n}").toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds the schema locations where validation spends its time, for a {@link BlazeValidator}
+ * created with {@link BlazeValidator#withProfiler(SchemaProfiler)}.
+ * <p>
+ * A sampled share of the validations runs through the native evaluator callback, which times
+ * every instruction and adds its invocations and time to the evaluate path it ran at, per
+ * schema. The other validations take the usual path and cost nothing extra, so a low sample
+ * rate can run briefly in production. Sampled validations are several times slower, always
+ * run natively and copy their instance.
+ * <p>
+ * Profiles live in native memory until the profiler is {@link #close() closed}, the schema
+ * is {@link #remove(CompiledSchema) removed}, or the profiler is next used after the schema
+ * was garbage collected.
+ */
+public final class SchemaProfiler implements AutoCloseable {
+    private final double sampleRate;
+    // Holds the schemas weakly, so profiles do not keep them reachable
+    private final WeakSchemaMap<Long> profiles = new WeakSchemaMap<>();
+    // Sampled validations hold the read lock, so no native profile is freed under them
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * Creates a profiler
+     *
+     * @param sampleRate The share of validations to profile, from just above 0 to 1 for all
+     * @throws IllegalArgumentException If the rate is not in that range
+     */
+    public SchemaProfiler(double sampleRate) {
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be greater than 0 and at most 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Gets the share of validations profiled
+     *
+     * @return The sample rate
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Reads the hottest locations of a schema
+     *
+     * @param schema The compiled schema
+     * @param limit The maximum number of locations to return
+     * @return The profile, empty if no validation of the schema was sampled
+     * @throws IllegalArgumentException If the limit is not positive
+     */
+    public SchemaProfile getProfile(CompiledSchema schema, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        lock.readLock().lock();
+        try {
+            Long profile = profiles.get(schema);
+            return profile == null ? SchemaProfile.EMPTY
+                : SchemaProfile.fromJson(BlazeWrapper.profileReport(profile, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops profiling a schema and frees its profile
+     *
+     * @param schema The compiled schema
+     */
+    public void remove(CompiledSchema schema) {
+        lock.writeLock().lock();
+        try {
+            Long profile = profiles.remove(schema, BlazeWrapper::freeProfile);
+            if (profile != null) {
+                BlazeWrapper.freeProfile(profile);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clears the profiles of every schema
+     */
+    public void reset() {
+        lock.readLock().lock();
+        try {
+            profiles.values().forEach(BlazeWrapper::resetProfile);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frees every profile. Validators using the profiler keep working, unprofiled.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            profiles.clear(BlazeWrapper::freeProfile).forEach(BlazeWrapper::freeProfile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Decides whether the calling validation is profiled
+    boolean sample() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // The validate methods return null once the profiler is closed, or if the schema was
+    // removed while its profile was created, for the validation to run unprofiled
+
+    ValidationStatus validate(CompiledSchema schema, String instance, InstanceParser parser) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocateFrom(instance);
+            return validate(schema, segment, segment.byteSize() - 1, parser);
+        }
+    }
+
+    ValidationStatus validate(CompiledSchema schema, byte[] instance, InstanceParser parser) {
+        try (Arena arena = Arena.ofConfined()) {
+            // Padded, so never empty, which native code would reject as NULL
+            MemorySegment segment = arena.allocate(instance.length + BlazeWrapper.INSTANCE_PADDING);
+            MemorySegment.copy(instance, 0, segment, ValueLayout.JAVA_BYTE, 0, instance.length);
+            return validate(schema, segment, instance.length, parser);
+        }
+    }
+
+    ValidationStatus validate(CompiledSchema schema, MemorySegment instance, InstanceParser parser) {
+        if (instance.isNative()) {
+            return validate(schema, instance, instance.byteSize(), parser);
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(instance.byteSize() + BlazeWrapper.INSTANCE_PADDING);
+            MemorySegment.copy(instance, 0, segment, 0, instance.byteSize());
+            return validate(schema, segment, instance.byteSize(), parser);
+        }
+    }
+
+    // Validates the first length bytes of a native segment, whose remaining bytes the parser
+    // may read as padding
+    ValidationStatus validate(CompiledSchema schema, MemorySegment instance, long length, InstanceParser parser) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            Long profile = profiles.get(schema);
+            if (profile == null) {
+                lock.readLock().unlock();
+                try {
+                    createProfile(schema);
+                } finally {
+                    lock.readLock().lock();
+                }
+                // Read again, as the profile may have been removed before the lock was taken back
+                profile = closed ? null : profiles.get(schema);
+                if (profile == null) {
+                    return null;
+                }
+            }
+            return BlazeWrapper.validateProfiled(schema, instance, length, parser, profile);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Creates the profile of a schema, and frees those of collected schemas meanwhile
+    private void createProfile(CompiledSchema schema) {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                profiles.computeIfAbsent(schema, key -> BlazeWrapper.createProfile(), BlazeWrapper::freeProfile);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
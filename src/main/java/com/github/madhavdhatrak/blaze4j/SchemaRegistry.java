@@ -1,13 +1,26 @@
 package com.github.madhavdhatrak.blaze4j;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
- * Thread-safe schema registry for JSON schema references
+ * Thread-safe schema registry for JSON schema references.
+ * Schemas are kept pre-encoded as native UTF-8 so the native resolver reads them in place.
+ * Changes to an entry also invalidate the native library's cached parse of that URI.
+ * <p>
+ * The registry is copy-on-write: every change publishes a new immutable
+ * {@link SchemaRegistrySnapshot}, and compilations resolve against the snapshot
+ * current when they started.
  */
-public class SchemaRegistry {
-    private final Map<String, String> schemas = new ConcurrentHashMap<>();
+public class SchemaRegistry implements SchemaResolver, EncodedSchemaResolver {
+    // Shared by all registries so snapshot versions are unique within the process
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final AtomicReference<SchemaRegistrySnapshot> current = new AtomicReference<>(
+        new SchemaRegistrySnapshot(PersistentHashMap.empty(), VERSIONS.incrementAndGet()));
     
     /**
      * Creates a new empty SchemaRegistry instance
@@ -22,22 +35,93 @@ public class SchemaRegistry {
         if (uri == null || schemaJson == null) {
             throw new IllegalArgumentException("uri and schemaJson must not be null");
         }
-        schemas.put(uri, schemaJson);
+        EncodedSchema schema = EncodedSchema.encode(schemaJson);
+        SchemaRegistrySnapshot previous = update(schemas -> schemas.put(uri, schema));
+        if (previous.contains(uri)) {
+            BlazeWrapper.invalidateResolverCache(uri);
+        }
+    }
+    
+    /**
+     * Registers a schema under its own {@code $id}. Embedded resources with their own
+     * {@code $id} are registered under their canonical URIs as well, so references to them
+     * resolve from the registry; references to an anchor resolve through the resource that
+     * declares it. All entries become visible together.
+     * 
+     * @param schemaJson The schema document, which must declare a top-level {@code $id}
+     * @return The URI the top-level schema was registered under
+     * @throws IllegalArgumentException If the schema is not valid JSON or has no top-level {@code $id}
+     */
+    public String register(String schemaJson) {
+        if (schemaJson == null) {
+            throw new IllegalArgumentException("schemaJson must not be null");
+        }
+        Map<String, EncodedSchema> resources = new LinkedHashMap<>();
+        SchemaResourceIndexer.index(schemaJson).forEach((uri, text) -> resources.put(uri, EncodedSchema.encode(text)));
+
+        SchemaRegistrySnapshot previous = update(schemas -> {
+            PersistentHashMap<EncodedSchema> next = schemas;
+            for (Map.Entry<String, EncodedSchema> resource : resources.entrySet()) {
+                next = next.put(resource.getKey(), resource.getValue());
+            }
+            return next;
+        });
+        for (String uri : resources.keySet()) {
+            if (previous.contains(uri)) {
+                BlazeWrapper.invalidateResolverCache(uri);
+            }
+        }
+        return resources.keySet().iterator().next();
     }
     
     public void unregister(String uri) {
-        schemas.remove(uri);
+        SchemaRegistrySnapshot previous = update(schemas -> schemas.remove(uri));
+        if (previous.contains(uri)) {
+            BlazeWrapper.invalidateResolverCache(uri);
+        }
     }
     
     public void clear() {
-        schemas.clear();
+        SchemaRegistrySnapshot previous = update(schemas -> PersistentHashMap.empty());
+        // Only this registry's entries; other registries keep their cached parses
+        previous.schemas().forEach((uri, schema) -> BlazeWrapper.invalidateResolverCache(uri));
     }
     
     public boolean contains(String uri) {
-        return schemas.containsKey(uri);
+        return current.get().contains(uri);
     }
     
+    @Override
     public String resolve(String uri) {
-        return schemas.get(uri);
+        return current.get().resolve(uri);
+    }
+    
+    @Override
+    public EncodedSchema resolveEncoded(String uri) {
+        return current.get().resolveEncoded(uri);
+    }
+    
+    /**
+     * Gets an immutable view of the registry as it is now
+     * 
+     * @return The current snapshot
+     */
+    public SchemaRegistrySnapshot snapshot() {
+        return current.get();
+    }
+    
+    // Publishes a new snapshot and returns the one it replaced
+    private SchemaRegistrySnapshot update(UnaryOperator<PersistentHashMap<EncodedSchema>> change) {
+        while (true) {
+            SchemaRegistrySnapshot previous = current.get();
+            PersistentHashMap<EncodedSchema> schemas = change.apply(previous.schemas());
+            if (schemas == previous.schemas()) {
+                return previous;
+            }
+            SchemaRegistrySnapshot next = new SchemaRegistrySnapshot(schemas, VERSIONS.incrementAndGet());
+            if (current.compareAndSet(previous, next)) {
+                return previous;
+            }
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable, versioned view of a {@link SchemaRegistry}. Later changes to the registry
+ * are not visible through a snapshot, so compiling against the same snapshot always
+ * resolves the same documents. Snapshots share structure with the registry and cost
+ * nothing to take, even for very large registries.
+ */
+public final class SchemaRegistrySnapshot implements SchemaResolver, EncodedSchemaResolver {
+    private final PersistentHashMap<EncodedSchema> schemas;
+    private final long version;
+
+    SchemaRegistrySnapshot(PersistentHashMap<EncodedSchema> schemas, long version) {
+        this.schemas = schemas;
+        this.version = version;
+    }
+
+    PersistentHashMap<EncodedSchema> schemas() {
+        return schemas;
+    }
+
+    /**
+     * Gets the version of this snapshot. Versions are unique across all registries in the
+     * process and increase with every change, so they can be used as cache keys.
+     * 
+     * @return The snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of registered schemas
+     * 
+     * @return The number of URIs in this snapshot
+     */
+    public int size() {
+        return schemas.size();
+    }
+
+    /**
+     * Gets the registered URIs
+     * 
+     * @return An unmodifiable, sorted set of URIs
+     */
+    public Set<String> getUris() {
+        Set<String> uris = new TreeSet<>();
+        schemas.forEach((uri, schema) -> uris.add(uri));
+        return Collections.unmodifiableSet(uris);
+    }
+
+    public boolean contains(String uri) {
+        return schemas.get(uri) != null;
+    }
+
+    @Override
+    public String resolve(String uri) {
+        EncodedSchema schema = schemas.get(uri);
+        return schema != null ? schema.text() : null;
+    }
+
+    @Override
+    public EncodedSchema resolveEncoded(String uri) {
+        return schemas.get(uri);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.nio.file.Path;
+
+/**
+ * Resolves schema URIs referenced during compilation (through {@code $ref},
+ * {@code $dynamicRef} or {@code $schema}) to their JSON text.
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface SchemaResolver {
+    /**
+     * Resolves a schema URI
+     *
+     * @param uri The URI requested by the compiler
+     * @return The schema JSON, or null if this resolver does not know the URI
+     */
+    String resolve(String uri);
+
+    /**
+     * Wraps this resolver so that every successfully resolved URI is kept in memory
+     *
+     * @return A caching view of this resolver
+     */
+    default CachingSchemaResolver cached() {
+        return new CachingSchemaResolver(this);
+    }
+
+    /**
+     * Resolver fetching {@code http://} and {@code https://} URIs over the network
+     *
+     * @return The HTTP resolver
+     */
+    static SchemaResolver http() {
+        return HttpSchemaResolver.INSTANCE;
+    }
+
+    /**
+     * Resolver reading {@code classpath://} URIs from the class loader
+     *
+     * @return The classpath resolver
+     */
+    static SchemaResolver classpath() {
+        return ClasspathSchemaResolver.INSTANCE;
+    }
+
+    /**
+     * Resolver serving URIs that start with a prefix from a local directory mirror.
+     * For example the prefix {@code https://schemas.example.com/} and root {@code /opt/schemas}
+     * resolve {@code https://schemas.example.com/a/b.json} to {@code /opt/schemas/a/b.json}.
+     *
+     * @param uriPrefix Prefix stripped from the URI before looking up the file
+     * @param root Directory containing the mirrored schemas
+     * @return The directory resolver
+     */
+    static SchemaResolver directory(String uriPrefix, Path root) {
+        return new DirectorySchemaResolver(uriPrefix, root);
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
+
+/**
+ * Ordered chain of resolvers. Each URI is offered to the resolvers in the order they were added
+ * until one returns a schema. Resolvers added for a scheme are only consulted for URIs of that scheme,
+ * so a local mirror placed before the HTTP resolver avoids the network for the URIs it knows.
+ *
+ * <pre>{@code
+ * SchemaResolver resolver = SchemaResolverChain.builder()
+ *     .add("mirror", SchemaResolver.directory("https://schemas.example.com/", Path.of("/opt/schemas")))
+ *     .addForScheme("https", SchemaResolver.http().cached())
+ *     .build();
+ * }</pre>
+ */
+public final class SchemaResolverChain implements SchemaResolver, EncodedSchemaResolver {
+    private static final Logger LOGGER = Logger.getLogger(SchemaResolverChain.class.getName());
+    private final List<Link> links;
+
+    private static final class Link {
+        private final String scheme;
+        private final SchemaResolver resolver;
+        private final ResolverMetrics metrics;
+
+        Link(String scheme, String name, SchemaResolver resolver) {
+            this.scheme = scheme;
+            this.resolver = resolver;
+            this.metrics = new ResolverMetrics(name);
+        }
+    }
+
+    private SchemaResolverChain(List<Link> links) {
+        this.links = List.copyOf(links);
+    }
+
+    /**
+     * Creates a builder for a resolver chain
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the chain used when no resolver is configured: HTTP(S) URIs are fetched over
+     * the network and {@code classpath://} URIs are read from the class loader.
+     *
+     * @return The default resolver chain
+     */
+    public static SchemaResolverChain defaults() {
+        return builder()
+            .addForScheme("http", SchemaResolver.http())
+            .addForScheme("https", SchemaResolver.http())
+            .addForScheme("classpath", SchemaResolver.classpath())
+            .build();
+    }
+
+    @Override
+    public String resolve(String uri) {
+        return resolveWith(uri, SchemaResolver::resolve);
+    }
+
+    @Override
+    public EncodedSchema resolveEncoded(String uri) {
+        return resolveWith(uri, SchemaResolverChain::resolveEncoded);
+    }
+
+    // Keeps pre-encoded schemas encoded and wraps plain text from other resolvers
+    static EncodedSchema resolveEncoded(SchemaResolver resolver, String uri) {
+        if (resolver instanceof EncodedSchemaResolver encoded) {
+            return encoded.resolveEncoded(uri);
+        }
+        String schemaJson = resolver.resolve(uri);
+        return schemaJson != null ? EncodedSchema.text(schemaJson) : null;
+    }
+
+    private <T> T resolveWith(String uri, BiFunction<SchemaResolver, String, T> resolution) {
+        String scheme = schemeOf(uri);
+        for (Link link : links) {
+            if (link.scheme != null && !link.scheme.equalsIgnoreCase(scheme)) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                T schema = resolution.apply(link.resolver, uri);
+                link.metrics.record(schema != null, System.nanoTime() - start);
+                if (schema != null) {
+                    return schema;
+                }
+            } catch (RuntimeException e) {
+                link.metrics.recordFailure(System.nanoTime() - start);
+                LOGGER.warning("Resolver " + link.metrics.getName() + " failed for " + uri + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the metrics of every resolver in the chain, in chain order
+     *
+     * @return An unmodifiable list of resolver metrics
+     */
+    public List<ResolverMetrics> getMetrics() {
+        List<ResolverMetrics> metrics = new ArrayList<>(links.size());
+        for (Link link : links) {
+            metrics.add(link.metrics);
+        }
+        return Collections.unmodifiableList(metrics);
+    }
+
+    private static String schemeOf(String uri) {
+        int colon = uri.indexOf(':');
+        if (colon <= 0) {
+            return null;
+        }
+        for (int i = 0; i < colon; i++) {
+            char c = uri.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '.') {
+                return null;
+            }
+        }
+        return uri.substring(0, colon);
+    }
+
+    /**
+     * Builder for {@link SchemaResolverChain}
+     */
+    public static final class Builder {
+        private final List<Link> links = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a resolver consulted for every URI
+         *
+         * @param resolver The resolver to add
+         * @return This builder
+         */
+        public Builder add(SchemaResolver resolver) {
+            return add("resolver-" + links.size(), resolver);
+        }
+
+        /**
+         * Adds a named resolver consulted for every URI
+         *
+         * @param name Name reported in the resolver metrics
+         * @param resolver The resolver to add
+         * @return This builder
+         */
+        public Builder add(String name, SchemaResolver resolver) {
+            return addLink(null, name, resolver);
+        }
+
+        /**
+         * Adds a resolver only consulted for URIs of the given scheme
+         *
+         * @param scheme URI scheme, for example {@code https} or {@code file}
+         * @param resolver The resolver to add
+         * @return This builder
+         */
+        public Builder addForScheme(String scheme, SchemaResolver resolver) {
+            if (scheme == null) {
+                throw new IllegalArgumentException("Scheme cannot be null");
+            }
+            return addLink(scheme, scheme, resolver);
+        }
+
+        private Builder addLink(String scheme, String name, SchemaResolver resolver) {
+            if (resolver == null) {
+                throw new IllegalArgumentException("Resolver cannot be null");
+            }
+            links.add(new Link(scheme, name, resolver));
+            return this;
+        }
+
+        /**
+         * Builds the resolver chain
+         *
+         * @return An immutable resolver chain
+         */
+        public SchemaResolverChain build() {
+            return new SchemaResolverChain(links);
+        }
+    }
+}
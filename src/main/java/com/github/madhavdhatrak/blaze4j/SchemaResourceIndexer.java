@@ -0,0 +1,141 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds the resources a schema document identifies: the document itself and every embedded
+ * resource with its own {@code $id}, so that each of them can be registered under its
+ * canonical URI. Anchors are not indexed separately: the resolver is only asked for base
+ * URIs, and an anchor is found inside the resource registered under its base URI.
+ */
+class SchemaResourceIndexer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SchemaResourceIndexer() {
+    }
+
+    /**
+     * Indexes a schema document. The top-level resource comes first and keeps its original
+     * text; embedded resources are re-serialized and inherit the enclosing {@code $schema}
+     * when they do not declare one.
+     *
+     * @param schemaJson The schema document
+     * @return The schema text for every identified URI, top-level resource first
+     * @throws IllegalArgumentException If the document is not valid JSON or has no top-level {@code $id}
+     */
+    static Map<String, String> index(String schemaJson) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(schemaJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Schema is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Schema must be a JSON object");
+        }
+
+        String dialect = textOf(root, "$schema");
+        String id = textOf(root, idKeyword(dialect));
+        String rootUri = id == null ? null : stripFragment(SchemaPrefetcher.resolveUri(null, id));
+        if (rootUri == null || rootUri.isEmpty()) {
+            throw new IllegalArgumentException("Schema must declare a top-level " + idKeyword(dialect));
+        }
+
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put(rootUri, schemaJson);
+        walkSchema(root, rootUri, dialect, true, resources);
+        return resources;
+    }
+
+    private static void walkSchema(JsonNode schema, String baseUri, String dialect, boolean isRoot,
+                                   Map<String, String> resources) {
+        if (!schema.isObject()) {
+            return;
+        }
+        String declaredDialect = textOf(schema, "$schema");
+        if (declaredDialect != null) {
+            dialect = declaredDialect;
+        }
+
+        String id = textOf(schema, idKeyword(dialect));
+        // Before 2019-09 a fragment-only id is how anchors were written, not a new resource
+        if (id != null && !(id.startsWith("#") && isPre2019(dialect))) {
+            String resolved = stripFragment(SchemaPrefetcher.resolveUri(baseUri, id));
+            if (resolved != null && !resolved.isEmpty()) {
+                if (!isRoot) {
+                    addResource(resolved, idKeyword(dialect), schema, dialect, resources);
+                }
+                baseUri = resolved;
+            }
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String keyword = field.getKey();
+            JsonNode value = field.getValue();
+            if (SchemaPrefetcher.DATA_KEYWORDS.contains(keyword)) {
+                continue;
+            } else if (SchemaPrefetcher.SCHEMA_MAP_KEYWORDS.contains(keyword) && value.isObject()) {
+                for (JsonNode subschema : value) {
+                    walkSchema(subschema, baseUri, dialect, false, resources);
+                }
+            } else if (value.isObject()) {
+                walkSchema(value, baseUri, dialect, false, resources);
+            } else if (value.isArray()) {
+                for (JsonNode item : value) {
+                    walkSchema(item, baseUri, dialect, false, resources);
+                }
+            }
+        }
+    }
+
+    // Registers an embedded resource under its URI, with its id made absolute, since the base
+    // URI it was relative to is not part of the registered text
+    private static void addResource(String uri, String idKeyword, JsonNode schema, String dialect,
+                                    Map<String, String> resources) {
+        if (resources.containsKey(uri)) {
+            return;
+        }
+        ObjectNode resource = MAPPER.createObjectNode();
+        if (dialect != null && !schema.has("$schema")) {
+            // Embedded resources inherit the dialect of the document they were taken from
+            resource.put("$schema", dialect);
+        }
+        resource.setAll((ObjectNode) schema);
+        resource.put(idKeyword, uri);
+        try {
+            resources.put(uri, MAPPER.writeValueAsString(resource));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize embedded schema " + uri, e);
+        }
+    }
+
+    static String idKeyword(String dialect) {
+        return dialect != null && (dialect.contains("draft-04") || dialect.contains("draft-03")) ? "id" : "$id";
+    }
+
+    static boolean isPre2019(String dialect) {
+        return dialect != null && dialect.contains("draft-0");
+    }
+
+    static String textOf(JsonNode schema, String keyword) {
+        JsonNode value = schema.get(keyword);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    static String stripFragment(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        int fragment = uri.indexOf('#');
+        return fragment >= 0 ? uri.substring(0, fragment) : uri;
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation counts and latencies of one schema, read from {@link ValidationMetrics}.
+ * Percentiles are the upper bounds of histogram buckets, so they overstate the exact
+ * value by at most 12.5%.
+ */
+public final class SchemaValidationStats {
+    private final String name;
+    private final long valid;
+    private final long invalid;
+    private final long malformed;
+    private final long errors;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] histogram;
+    private final long histogramCount;
+
+    SchemaValidationStats(String name, long valid, long invalid, long malformed, long errors,
+                          long totalNanos, long maxNanos, long[] histogram) {
+        this.name = name;
+        this.valid = valid;
+        this.invalid = invalid;
+        this.malformed = malformed;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.histogram = histogram;
+        long count = 0;
+        for (long bucket : histogram) {
+            count += bucket;
+        }
+        // Counters and histogram are read one after the other, so they may differ by in-flight calls
+        this.histogramCount = count;
+    }
+
+    /**
+     * Gets the name the schema is reported under
+     *
+     * @return The schema name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of validations
+     *
+     * @return The validation count
+     */
+    public long getValidations() {
+        return valid + invalid + malformed + errors;
+    }
+
+    /**
+     * Gets the number of valid instances
+     *
+     * @return The valid count
+     */
+    public long getValid() {
+        return valid;
+    }
+
+    /**
+     * Gets the number of instances that violated the schema
+     *
+     * @return The invalid count
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Gets the number of instances that were not valid JSON
+     *
+     * @return The malformed count
+     */
+    public long getMalformed() {
+        return malformed;
+    }
+
+    /**
+     * Gets the number of validations that could not run
+     *
+     * @return The error count
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the total time spent validating
+     *
+     * @param unit The unit of the returned value
+     * @return The accumulated validation time
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the mean validation latency
+     *
+     * @return The mean latency in nanoseconds, or 0 without validations
+     */
+    public long getMeanNanos() {
+        long validations = getValidations();
+        return validations == 0 ? 0 : totalNanos / validations;
+    }
+
+    /**
+     * Gets the median validation latency
+     *
+     * @return The 50th percentile in nanoseconds
+     */
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    /**
+     * Gets the 90th percentile of the validation latency
+     *
+     * @return The 90th percentile in nanoseconds
+     */
+    public long getP90Nanos() {
+        return getPercentileNanos(90);
+    }
+
+    /**
+     * Gets the 99th percentile of the validation latency
+     *
+     * @return The 99th percentile in nanoseconds
+     */
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    /**
+     * Gets the highest validation latency
+     *
+     * @return The maximum in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Gets a percentile of the validation latency
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The percentile in nanoseconds, or 0 without validations
+     * @throws IllegalArgumentException If the percentile is out of range
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (histogramCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * histogramCount));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(ValidationMetrics.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{validations=" + getValidations() + ", valid=" + valid + ", invalid=" + invalid
+            + ", malformed=" + malformed + ", errors=" + errors + ", p50Nanos=" + getP50Nanos()
+            + ", p99Nanos=" + getP99Nanos() + ", maxNanos=" + maxNanos + "}";
+    }
+}
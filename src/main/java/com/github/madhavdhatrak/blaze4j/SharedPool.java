@@ -0,0 +1,51 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of reusable objects shared by all threads. Unlike a {@link ThreadLocal}, it
+ * does not give every thread, and so every virtual thread, an object of its own: it keeps at
+ * most two per processor, each used by one thread at a time. Callers that find it empty get
+ * a new object, and objects released to a full pool are left to the garbage collector.
+ * <p>
+ * Taking and returning an object allocates nothing. A thread starts looking at a slot chosen
+ * by its id, so platform threads usually get back the object they last released.
+ *
+ * @param <T> The type of the pooled objects
+ */
+final class SharedPool<T> {
+    private static final int SLOTS = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors(), 1)) << 1;
+
+    private final AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(SLOTS);
+    private final Supplier<T> factory;
+
+    SharedPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    // A pooled object, or a new one if none is free
+    T acquire() {
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < SLOTS; i++) {
+            int slot = (start + i) & (SLOTS - 1);
+            if (slots.getPlain(slot) != null) {
+                T item = slots.getAndSet(slot, null);
+                if (item != null) {
+                    return item;
+                }
+            }
+        }
+        return factory.get();
+    }
+
+    // Returns an object to the pool, which must not be used afterwards
+    void release(T item) {
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < SLOTS; i++) {
+            if (slots.compareAndSet((start + i) & (SLOTS - 1), null, item)) {
+                return;
+            }
+        }
+    }
+}
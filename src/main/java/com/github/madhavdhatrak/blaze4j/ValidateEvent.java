@@ -0,0 +1,36 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one validation. Only validations slower than the threshold, 1 ms unless
+ * the recording overrides it, are recorded.
+ */
+@Name("blaze4j.Validate")
+@Label("Instance Validation")
+@Category("Blaze4j")
+@Description("Validation of a JSON instance against a compiled schema")
+@StackTrace(false)
+@Threshold("1 ms")
+final class ValidateEvent extends jdk.jfr.Event {
+    @Label("Instance Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Backend")
+    @Description("java for the pure-Java validator, otherwise the native instance parser")
+    String backend;
+
+    @Label("Detailed")
+    boolean detailed;
+
+    @Label("Outcome")
+    @Description("VALID, INVALID, MALFORMED_INSTANCE or ERROR")
+    String outcome;
+}
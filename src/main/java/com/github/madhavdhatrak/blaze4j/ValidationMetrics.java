@@ -0,0 +1,213 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-schema validation counts and latency histograms, recorded by a {@link BlazeValidator}
+ * created with {@link BlazeValidator#withMetrics(ValidationMetrics)}.
+ * <p>
+ * Recording is lock-free and allocates nothing once a schema has been seen: counts are
+ * {@link LongAdder}s and latencies go into fixed log-linear histograms, striped by thread,
+ * whose buckets are at most 12.5% wide. Each tracked schema costs about 20 KB, a histogram of
+ * 320 counters for each of up to 8 stripes. Schemas are held weakly: the metrics of a schema
+ * that is garbage collected are dropped, while closed schemas that stay reachable should be
+ * {@link #remove(CompiledSchema) removed}.
+ * <p>
+ * The metrics can be read with {@link #snapshot()} or published over JMX with
+ * {@link Blaze4jManagement#registerValidationMetrics(String, ValidationMetrics)}.
+ */
+public final class ValidationMetrics implements ValidationMetricsMXBean {
+    // Values below 2^SUB_BITS get a bucket each; above, every power of two is split in 2^SUB_BITS
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Latencies are clamped to 2^(MAX_EXPONENT + 1) ns, about 73 minutes
+    private static final int MAX_EXPONENT = 41;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int STRIPES = stripes();
+
+    private final WeakSchemaMap<Recorder> schemas = new WeakSchemaMap<>();
+    private final AtomicInteger unnamed = new AtomicInteger();
+
+    /**
+     * Creates an empty set of metrics
+     */
+    public ValidationMetrics() {
+    }
+
+    /**
+     * Names the metrics of a schema. Schemas validated without a name are reported as
+     * {@code schema-1}, {@code schema-2} and so on.
+     *
+     * @param schema The compiled schema
+     * @param name The name to report the schema under
+     * @throws IllegalArgumentException If the schema or the name is null
+     */
+    public void register(CompiledSchema schema, String name) {
+        if (schema == null || name == null) {
+            throw new IllegalArgumentException("Schema and name cannot be null");
+        }
+        schemas.computeIfAbsent(schema, key -> new Recorder(name), ValidationMetrics::drop).rename(name);
+    }
+
+    /**
+     * Stops tracking a schema and drops its metrics
+     *
+     * @param schema The compiled schema
+     */
+    public void remove(CompiledSchema schema) {
+        schemas.remove(schema, ValidationMetrics::drop);
+    }
+
+    /**
+     * Clears the counts and histograms of every tracked schema
+     */
+    @Override
+    public void reset() {
+        schemas.expunge(ValidationMetrics::drop);
+        schemas.values().forEach(Recorder::reset);
+    }
+
+    /**
+     * Reads the metrics of every tracked schema
+     *
+     * @return One entry per schema, in no particular order
+     */
+    public List<SchemaValidationStats> snapshot() {
+        schemas.expunge(ValidationMetrics::drop);
+        List<SchemaValidationStats> stats = new ArrayList<>();
+        for (Recorder recorder : schemas.values()) {
+            stats.add(recorder.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * Reads the metrics of one schema
+     *
+     * @param schema The compiled schema
+     * @return Its metrics, or null if it was never validated or registered
+     */
+    public SchemaValidationStats snapshot(CompiledSchema schema) {
+        Recorder recorder = schemas.get(schema);
+        return recorder == null ? null : recorder.snapshot();
+    }
+
+    @Override
+    public List<SchemaValidationStats> getSchemas() {
+        return snapshot();
+    }
+
+    void record(CompiledSchema schema, ValidationStatus status, long elapsedNanos) {
+        Recorder recorder = schemas.get(schema);
+        if (recorder == null) {
+            recorder = schemas.computeIfAbsent(schema, key -> new Recorder("schema-" + unnamed.incrementAndGet()),
+                ValidationMetrics::drop);
+        }
+        recorder.record(status, elapsedNanos);
+    }
+
+    // The recorders of collected schemas hold nothing to release
+    private static void drop(Recorder recorder) {
+    }
+
+    static int bucket(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Largest value that falls into the bucket
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long lower = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return processors <= 1 ? 1 : Math.min(8, Integer.highestOneBit(processors - 1) << 1);
+    }
+
+    private static final class Recorder {
+        private volatile String name;
+        private final LongAdder valid = new LongAdder();
+        private final LongAdder invalid = new LongAdder();
+        private final LongAdder malformed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        // One histogram per stripe, so threads rarely share a cache line
+        private final AtomicLongArray[] histograms = new AtomicLongArray[STRIPES];
+
+        Recorder(String name) {
+            this.name = name;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new AtomicLongArray(BUCKETS);
+            }
+        }
+
+        Recorder rename(String name) {
+            this.name = name;
+            return this;
+        }
+
+        void record(ValidationStatus status, long elapsedNanos) {
+            switch (status) {
+                case VALID:
+                    valid.increment();
+                    break;
+                case INVALID:
+                    invalid.increment();
+                    break;
+                case MALFORMED_INSTANCE:
+                    malformed.increment();
+                    break;
+                default:
+                    errors.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+            histograms[stripe].incrementAndGet(bucket(elapsedNanos));
+        }
+
+        void reset() {
+            valid.reset();
+            invalid.reset();
+            malformed.reset();
+            errors.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (AtomicLongArray histogram : histograms) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    histogram.set(i, 0);
+                }
+            }
+        }
+
+        SchemaValidationStats snapshot() {
+            long[] counts = new long[BUCKETS];
+            for (AtomicLongArray histogram : histograms) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] += histogram.get(i);
+                }
+            }
+            return new SchemaValidationStats(name, valid.sum(), invalid.sum(), malformed.sum(), errors.sum(),
+                totalNanos.sum(), maxNanos.get(), counts);
+        }
+    }
+}
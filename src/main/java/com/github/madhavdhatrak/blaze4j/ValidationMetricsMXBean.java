@@ -0,0 +1,21 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.List;
+
+/**
+ * Management interface of a {@link ValidationMetrics}, registered with
+ * {@link Blaze4jManagement#registerValidationMetrics(String, ValidationMetrics)} as
+ * {@code com.github.madhavdhatrak.blaze4j:type=ValidationMetrics,name=<name>}.
+ */
+public interface ValidationMetricsMXBean {
+
+    /**
+     * @return The counts and latency percentiles of every tracked schema
+     */
+    List<SchemaValidationStats> getSchemas();
+
+    /**
+     * Clears the counts and histograms of every tracked schema
+     */
+    void reset();
+}
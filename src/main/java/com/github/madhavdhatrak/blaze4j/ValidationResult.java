@@ -13,6 +13,9 @@ import java.io.IOException;
 public class ValidationResult {
     private final boolean valid;
     private final List<ValidationError> errors;
+    private final ValidationStatus status;
+    private final String errorMessage;
+    private final ValidationTimings timings;
 
     /**
      * Creates a new ValidationResult instance.
@@ -21,8 +24,33 @@ public class ValidationResult {
      * @param errors List of validation errors, if any
      */
     public ValidationResult(boolean valid, List<ValidationError> errors) {
-        this.valid = valid;
+        this(valid ? ValidationStatus.VALID : ValidationStatus.INVALID, errors, null);
+    }
+
+    /**
+     * Creates a new ValidationResult instance with an explicit status.
+     * 
+     * @param status The validation outcome
+     * @param errors List of validation errors, if any
+     * @param errorMessage Why validation could not run, for {@link ValidationStatus#MALFORMED_INSTANCE}
+     *                     and {@link ValidationStatus#ERROR}; may be null
+     */
+    public ValidationResult(ValidationStatus status, List<ValidationError> errors, String errorMessage) {
+        this(status, errors, errorMessage, null);
+    }
+
+    private ValidationResult(ValidationStatus status, List<ValidationError> errors, String errorMessage,
+                             ValidationTimings timings) {
+        this.status = status;
+        this.valid = status == ValidationStatus.VALID;
         this.errors = errors != null ? Collections.unmodifiableList(new ArrayList<>(errors)) : Collections.emptyList();
+        this.errorMessage = errorMessage;
+        this.timings = timings;
+    }
+
+    // The same result carrying native timings
+    ValidationResult withTimings(ValidationTimings timings) {
+        return new ValidationResult(status, errors, errorMessage, timings);
     }
 
     /**
@@ -38,6 +66,14 @@ public class ValidationResult {
             boolean valid = root.path("valid").asBoolean();
             List<ValidationError> errors = new ArrayList<>();
 
+            // Instances that could not be validated carry a status and an error message
+            String status = root.path("status").asText("");
+            if (status.equals("malformed_instance")) {
+                return new ValidationResult(ValidationStatus.MALFORMED_INSTANCE, errors, root.path("error").asText());
+            } else if (status.equals("error")) {
+                return new ValidationResult(ValidationStatus.ERROR, errors, root.path("error").asText());
+            }
+
             if (!valid && root.has("errors")) {
                 for (JsonNode errNode : root.get("errors")) {
                     String message = errNode.path("message").asText();
@@ -62,6 +98,26 @@ public class ValidationResult {
         return valid;
     }
 
+    /**
+     * Gets the validation outcome, which tells a schema violation apart from an
+     * instance that could not be validated.
+     * 
+     * @return The validation status
+     */
+    public ValidationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets why the instance could not be validated.
+     * 
+     * @return The error message, or null unless the status is
+     *         {@link ValidationStatus#MALFORMED_INSTANCE} or {@link ValidationStatus#ERROR}
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
     /**
      * Gets the list of validation errors.
      * 
@@ -70,4 +126,14 @@ public class ValidationResult {
     public List<ValidationError> getErrors() {
         return errors;
     }
+
+    /**
+     * Gets the native parse, evaluation and formatting times of this validation.
+     * 
+     * @return The timings, or null unless the validator was created with
+     *         {@link BlazeValidator#withTimings(boolean)}
+     */
+    public ValidationTimings getTimings() {
+        return timings;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.github.madhavdhatrak.blaze4j;
+
+/**
+ * Outcome of validating an instance, distinguishing schema violations from
+ * instances that could not be validated at all.
+ */
+public enum ValidationStatus {
+    /** The instance is valid against the schema */
+    VALID,
+    /** The instance is well-formed JSON but violates the schema */
+    INVALID,
+    /** The instance is not valid JSON */
+    MALFORMED_INSTANCE,
+    /** Validation could not run, e.g. because of an internal error */
+    ERROR;
+
+    // Maps a status code returned by the native *_ex entry points
+    static ValidationStatus fromNative(int code) {
+        switch (code) {
+            case NativeStatus.OK:
+                return VALID;
+            case NativeStatus.INVALID:
+                return INVALID;
+            case NativeStatus.PARSE_ERROR:
+                return MALFORMED_INSTANCE;
+            default:
+                return ERROR;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the native layer spent the time of one detailed validation, measured with a
+ * monotonic clock. Returned by {@link ValidationResult#getTimings()} for validators created
+ * with {@link BlazeValidator#withTimings(boolean)}.
+ * <p>
+ * A slow parse points at the size or shape of the payload, a slow evaluation at the schema.
+ * Error messages are built during evaluation, but their cost is counted as formatting.
+ */
+public final class ValidationTimings {
+    private final long parseNanos;
+    private final long evaluateNanos;
+    private final long formatNanos;
+
+    ValidationTimings(long parseNanos, long evaluateNanos, long formatNanos) {
+        this.parseNanos = parseNanos;
+        this.evaluateNanos = evaluateNanos;
+        this.formatNanos = formatNanos;
+    }
+
+    /**
+     * Gets the time spent parsing the instance
+     *
+     * @param unit The unit of the returned value
+     * @return The parse time
+     */
+    public long getParseTime(TimeUnit unit) {
+        return unit.convert(parseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time spent evaluating the schema, zero for instances that failed to parse
+     *
+     * @param unit The unit of the returned value
+     * @return The evaluation time
+     */
+    public long getEvaluateTime(TimeUnit unit) {
+        return unit.convert(evaluateNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time spent formatting errors and the native output document
+     *
+     * @param unit The unit of the returned value
+     * @return The formatting time
+     */
+    public long getFormatTime(TimeUnit unit) {
+        return unit.convert(formatNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the sum of the parse, evaluation and formatting times
+     *
+     * @param unit The unit of the returned value
+     * @return The measured native time
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(parseNanos + evaluateNanos + formatNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationTimings{parseNanos=" + parseNanos + ", evaluateNanos=" + evaluateNanos
+            + ", formatNanos=" + formatNanos + "}";
+    }
+}
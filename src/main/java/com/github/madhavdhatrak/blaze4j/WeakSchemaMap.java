@@ -0,0 +1,179 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Maps compiled schemas, by identity, to values without keeping the schemas reachable, so
+ * schemas that are dropped without being removed can still be collected and cleaned.
+ * <p>
+ * Lookups are lock-free and allocate nothing: they probe an open-addressing table that is
+ * replaced, never modified, by the synchronized writes. Writes copy the table, which suits
+ * maps that gain an entry per schema and are read on every validation. Entries of collected
+ * schemas are dropped by the next write or {@link #expunge(Consumer)}.
+ *
+ * @param <V> The type of the values
+ */
+final class WeakSchemaMap<V> {
+
+    private static final class Entry<V> extends WeakReference<CompiledSchema> {
+        final int hash;
+        final V value;
+
+        Entry(CompiledSchema schema, V value, ReferenceQueue<CompiledSchema> queue) {
+            super(schema, queue);
+            this.hash = System.identityHashCode(schema);
+            this.value = value;
+        }
+    }
+
+    private final ReferenceQueue<CompiledSchema> queue = new ReferenceQueue<>();
+    // At most half full, so every probe reaches an empty slot
+    private volatile Entry<V>[] table = newTable(2);
+
+    /**
+     * Gets the value of a schema
+     *
+     * @param schema The compiled schema
+     * @return Its value, or null if it has none
+     */
+    V get(CompiledSchema schema) {
+        Entry<V>[] table = this.table;
+        int mask = table.length - 1;
+        for (int i = System.identityHashCode(schema) & mask; ; i = (i + 1) & mask) {
+            Entry<V> entry = table[i];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.get() == schema) {
+                return entry.value;
+            }
+        }
+    }
+
+    /**
+     * Gets the value of a schema, adding one if it has none
+     *
+     * @param schema The compiled schema
+     * @param create Creates the value, called at most once and under the map's lock
+     * @param dropped Receives the values of collected schemas dropped from the map
+     * @return The value of the schema
+     */
+    V computeIfAbsent(CompiledSchema schema, Function<CompiledSchema, V> create, Consumer<V> dropped) {
+        V value = get(schema);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = get(schema);
+            if (value == null) {
+                value = create.apply(schema);
+                List<Entry<V>> entries = live(null, dropped);
+                entries.add(new Entry<>(schema, value, queue));
+                rebuild(entries);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Removes a schema
+     *
+     * @param schema The compiled schema
+     * @param dropped Receives the values of collected schemas dropped from the map
+     * @return Its value, or null if it had none
+     */
+    synchronized V remove(CompiledSchema schema, Consumer<V> dropped) {
+        V value = get(schema);
+        if (value != null) {
+            rebuild(live(schema, dropped));
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entries of collected schemas
+     *
+     * @param dropped Receives their values
+     */
+    void expunge(Consumer<V> dropped) {
+        if (queue.poll() == null) {
+            return;
+        }
+        synchronized (this) {
+            rebuild(live(null, dropped));
+        }
+    }
+
+    /**
+     * Removes every schema
+     *
+     * @param dropped Receives the values of collected schemas
+     * @return The values of the schemas still reachable
+     */
+    synchronized List<V> clear(Consumer<V> dropped) {
+        List<V> values = new ArrayList<>();
+        for (Entry<V> entry : live(null, dropped)) {
+            values.add(entry.value);
+        }
+        table = newTable(2);
+        return values;
+    }
+
+    /**
+     * Lists the values of the schemas still reachable
+     *
+     * @return The values, in no particular order
+     */
+    List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Entry<V> entry : table) {
+            if (entry != null && entry.get() != null) {
+                values.add(entry.value);
+            }
+        }
+        return values;
+    }
+
+    // The entries of reachable schemas other than the excluded one. Called under the lock.
+    private List<Entry<V>> live(CompiledSchema excluded, Consumer<V> dropped) {
+        while (queue.poll() != null) {
+            // Collected schemas are found by the scan below
+        }
+        List<Entry<V>> entries = new ArrayList<>();
+        for (Entry<V> entry : table) {
+            if (entry == null) {
+                continue;
+            }
+            CompiledSchema schema = entry.get();
+            if (schema == null) {
+                dropped.accept(entry.value);
+            } else if (schema != excluded) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void rebuild(List<Entry<V>> entries) {
+        Entry<V>[] rebuilt = newTable(Integer.highestOneBit(Math.max(entries.size(), 1)) << 2);
+        int mask = rebuilt.length - 1;
+        for (Entry<V> entry : entries) {
+            int i = entry.hash & mask;
+            while (rebuilt[i] != null) {
+                i = (i + 1) & mask;
+            }
+            rebuilt[i] = entry;
+        }
+        table = rebuilt;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V>[] newTable(int length) {
+        return (Entry<V>[]) new Entry<?>[length];
+    }
+}
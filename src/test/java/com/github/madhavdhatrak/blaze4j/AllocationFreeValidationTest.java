@@ -0,0 +1,165 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs in the {@code allocation-free} Surefire execution, a fork of its own whose JVM flags
+ * are fixed by the POM, so that no JFR recording or agent of another test adds allocations.
+ */
+@Tag("allocation")
+public class AllocationFreeValidationTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["id"],
+          "properties": {
+            "id": { "type": "integer" },
+            "tags": { "type": "array", "items": { "type": "string" } }
+          }
+        }""";
+
+    private static final byte[] VALID = "{\"id\": 1, \"tags\": [\"a\", \"b\"]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID = "{\"id\": \"one\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 10_000;
+    // Bytes allowed over the measured calls: one per call, about 10 KB in all, which no
+    // allocation per call fits in but leaves room for the odd allocation of the JIT
+    static final long ALLOCATION_BUDGET = MEASURED_CALLS;
+
+    private static CompiledSchema schema;
+
+    @BeforeAll
+    public static void compile() {
+        schema = new SchemaCompiler().compile(SCHEMA);
+    }
+
+    @AfterAll
+    public static void close() {
+        schema.close();
+    }
+
+    @Test
+    public void testByteAndSegmentInstances() {
+        BlazeValidator validator = new BlazeValidator();
+        assertTrue(validator.validate(schema, VALID));
+        assertFalse(validator.validate(schema, INVALID));
+        assertEquals(ValidationStatus.INVALID, validator.validateStatus(schema, INVALID));
+        assertEquals(ValidationStatus.MALFORMED_INSTANCE,
+            validator.validateStatus(schema, "{\"id\": 1".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(ValidationStatus.MALFORMED_INSTANCE, validator.validateStatus(schema, new byte[0]));
+        assertTrue(validator.validate(schema, MemorySegment.ofArray(VALID)));
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(VALID.length + 16L);
+            MemorySegment.copy(VALID, 0, segment, ValueLayout.JAVA_BYTE, 0, VALID.length);
+            assertTrue(validator.validate(schema, segment.asSlice(0, VALID.length)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(schema, (byte[]) null));
+    }
+
+    @Test
+    public void testInstancesAboveThePooledLimit() {
+        StringBuilder json = new StringBuilder("{\"id\": 1, \"tags\": [");
+        while (json.length() < BlazeWrapper.POOLED_INSTANCE_LIMIT + 1024) {
+            json.append("\"tag\",");
+        }
+        json.append("\"last\"]}");
+        byte[] large = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        BlazeValidator validator = new BlazeValidator();
+        assertTrue(validator.validate(schema, large));
+        assertTrue(validator.validate(schema, MemorySegment.ofArray(large)));
+        // A smaller instance afterwards still sees only its own bytes
+        assertFalse(validator.validate(schema, INVALID));
+    }
+
+    @Test
+    public void testVirtualThreadsShareBuffers() throws Exception {
+        BlazeValidator validator = new BlazeValidator();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                byte[] instance = i % 2 == 0 ? VALID : INVALID;
+                results.add(executor.submit(() -> validator.validate(schema, instance)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0, results.get(i).get());
+            }
+        }
+    }
+
+    @Test
+    public void testByteArrayValidationDoesNotAllocate() {
+        BlazeValidator validator = new BlazeValidator();
+        assertNoAllocation(() -> validator.validate(schema, VALID) && !validator.validate(schema, INVALID));
+    }
+
+    @Test
+    public void testSegmentValidationDoesNotAllocate() {
+        BlazeValidator validator = new BlazeValidator();
+        MemorySegment heap = MemorySegment.ofArray(VALID);
+        try (Arena arena = Arena.ofShared()) {
+            MemorySegment offHeap = arena.allocate(VALID.length);
+            MemorySegment.copy(heap, 0, offHeap, 0, VALID.length);
+            assertNoAllocation(() -> validator.validate(schema, heap) && validator.validate(schema, offHeap));
+        }
+    }
+
+    @Test
+    public void testValidationWithMetricsDoesNotAllocate() {
+        BlazeValidator validator = new BlazeValidator().withMetrics(new ValidationMetrics());
+        assertNoAllocation(() -> validator.validateStatus(schema, VALID) == ValidationStatus.VALID);
+    }
+
+    private static void assertNoAllocation(BooleanSupplier call) {
+        com.sun.management.ThreadMXBean threads = allocationCounters();
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            assertTrue(call.getAsBoolean());
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        boolean results = true;
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            results &= call.getAsBoolean();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(results);
+        assertTrue(allocated <= ALLOCATION_BUDGET,
+            allocated + " bytes allocated over " + MEASURED_CALLS + " validations");
+    }
+
+    // The allocation counters of the current thread, in a JVM whose JIT can remove allocations
+    static com.sun.management.ThreadMXBean allocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "Thread allocation counters are not available");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+        List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        assumeFalse(arguments.contains("-Xint"), "Interpreted code allocates what the JIT would not");
+        assumeFalse(arguments.stream().anyMatch(argument -> argument.startsWith("-javaagent")),
+            "Agents may allocate in instrumented code");
+        return threads;
+    }
+}
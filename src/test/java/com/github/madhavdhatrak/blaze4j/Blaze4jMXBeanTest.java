@@ -0,0 +1,126 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Blaze4jMXBeanTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    // The Cleaner frees schemas other tests leaked at any time, so counters shared with them
+    // are checked against bounds, and equalities are given time to settle
+    @Test
+    public void testTemplateAndCompiledSchemaCounts() {
+        Blaze4jMXBean bean = Blaze4jManagement.getMXBean();
+        SchemaCompiler compiler = new SchemaCompiler();
+
+        long compiledBefore = bean.getTemplatesCompiled();
+        long freedBefore = bean.getTemplatesFreed();
+
+        CompiledSchema first = compiler.compile(SCHEMA);
+        CompiledSchema second = compiler.compile(SCHEMA);
+        assertTrue(bean.getTemplatesCompiled() >= compiledBefore + 2);
+        assertTrue(bean.getLiveTemplates() >= 2);
+        assertTrue(bean.getOpenCompiledSchemas() >= 2);
+        long liveOpen = bean.getLiveTemplates();
+        long openOpen = bean.getOpenCompiledSchemas();
+
+        first.close();
+        second.close();
+        second.close();
+        assertTrue(bean.getTemplatesFreed() >= freedBefore + 2);
+        assertTrue(bean.getLiveTemplates() <= liveOpen - 2);
+        assertTrue(bean.getOpenCompiledSchemas() <= openOpen - 2);
+        assertEventually(() -> bean.getTemplatesCompiled() - bean.getTemplatesFreed() == bean.getLiveTemplates());
+    }
+
+    @Test
+    public void testOutputBuffersAreFreed() {
+        Blaze4jMXBean bean = Blaze4jManagement.getMXBean();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            long totalBefore = bean.getTotalOutputBytes();
+            ValidationResult result = new BlazeValidator().validateWithDetails(schema, "\"not an integer\"");
+            assertFalse(result.isValid());
+            assertTrue(bean.getTotalOutputBytes() > totalBefore);
+            assertEventually(() -> bean.getLiveOutputBuffers() == 0 && bean.getLiveOutputBytes() == 0);
+        }
+    }
+
+    @Test
+    public void testResolverStringsAreFreed() {
+        Blaze4jMXBean bean = Blaze4jManagement.getMXBean();
+        // A plain SchemaResolver hands its text over as an owned native string
+        SchemaCompiler compiler = new SchemaCompiler(uri -> uri.equals("https://example.com/mxbean.json") ? SCHEMA : null);
+        long totalBefore = bean.getTotalResolverStringBytes();
+        try (CompiledSchema schema = compiler.compile("""
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "https://example.com/mxbean.json"
+            }""")) {
+            assertTrue(new BlazeValidator().validate(schema, "42"));
+        }
+        assertTrue(bean.getTotalResolverStringBytes() > totalBefore);
+        assertEventually(() -> bean.getLiveResolverStrings() == 0);
+        assertTrue(bean.getResolverCacheEntries() > 0);
+    }
+
+    @Test
+    public void testRegistryClearOnlyInvalidatesItsOwnEntries() {
+        Blaze4jMXBean bean = Blaze4jManagement.getMXBean();
+        SchemaRegistry kept = SchemaRegistry.create();
+        kept.register("https://example.com/kept.json", SCHEMA);
+        SchemaRegistry cleared = SchemaRegistry.create();
+        cleared.register("https://example.com/cleared.json", SCHEMA);
+        for (String uri : new String[] {"https://example.com/kept.json", "https://example.com/cleared.json"}) {
+            SchemaRegistry registry = uri.contains("kept") ? kept : cleared;
+            try (CompiledSchema schema = new SchemaCompiler(registry).compile("""
+                {
+                  "$schema": "https://json-schema.org/draft/2020-12/schema",
+                  "$ref": "%s"
+                }""".formatted(uri))) {
+                assertTrue(new BlazeValidator().validate(schema, "42"));
+            }
+        }
+
+        long entries = bean.getResolverCacheEntries();
+        assertTrue(entries >= 2);
+        cleared.clear();
+        assertTrue(bean.getResolverCacheEntries() <= entries - 1);
+        assertTrue(bean.getResolverCacheBytes() > 0);
+    }
+
+    @Test
+    public void testRegisteredWithPlatformMBeanServer() throws Exception {
+        // Loading the native library registers the bean
+        Blaze4jManagement.getMXBean().getLiveTemplates();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Blaze4jManagement.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertNotNull(server.getAttribute(name, "OpenCompiledSchemas"));
+        String allocator = ((String) server.getAttribute(name, "NativeAllocator")).replace("+arena", "");
+        assertTrue(Set.of("system", "mimalloc", "jemalloc").contains(allocator), allocator);
+    }
+
+    private static void assertEventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Blaze4jReaderTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["sku", "price"],
+          "properties": {
+            "sku": { "type": "string", "minLength": 1 },
+            "price": { "type": "number", "exclusiveMinimum": 0 },
+            "tags": { "type": "array", "items": { "type": "string" } }
+          }
+        }""";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record Item(String sku, BigDecimal price, List<String> tags) {
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testBindsValidPayloads() throws Exception {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, MAPPER, Item.class);
+            Item item = reader.readValue(utf8("{\"sku\": \"é-1\", \"price\": 9.99, \"tags\": [\"a\"]}"));
+            assertEquals(new Item("é-1", new BigDecimal("9.99"), List.of("a")), item);
+        }
+    }
+
+    @Test
+    public void testRejectsBeforeBinding() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, MAPPER, Item.class);
+
+            InstanceValidationException invalid = assertThrows(InstanceValidationException.class,
+                () -> reader.readValue(utf8("{\"sku\": \"a\", \"price\": 0}")));
+            assertEquals(ValidationStatus.INVALID, invalid.getStatus());
+            assertNull(invalid.getResult());
+
+            InstanceValidationException malformed = assertThrows(InstanceValidationException.class,
+                () -> reader.readValue(utf8("{\"sku\": ")));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, malformed.getStatus());
+        }
+    }
+
+    @Test
+    public void testErrorDetails() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, MAPPER, Item.class).withErrorDetails(true);
+            InstanceValidationException e = assertThrows(InstanceValidationException.class,
+                () -> reader.readValue(utf8("{\"sku\": \"\", \"price\": 1}")));
+            assertNotNull(e.getResult());
+            assertFalse(e.getResult().isValid());
+            assertFalse(e.getResult().getErrors().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSingleParseMatchesNativeValidation() throws Exception {
+        String[] payloads = {
+            "{\"sku\": \"a\", \"price\": 0.3}",
+            "{\"sku\": \"a\", \"price\": -0.3}",
+            "{\"sku\": \"a\", \"price\": 1, \"tags\": [1]}",
+            "{\"price\": 1}",
+            "{\"sku\": \"a\", \"price\": 1} trailing",
+            "",
+        };
+        try (CompiledSchema nativeSchema = new SchemaCompiler().compile(SCHEMA);
+             CompiledSchema javaSchema = new SchemaCompiler().enableJavaBackend(4096).compile(SCHEMA)) {
+            Blaze4jReader<Item> reference = Blaze4jReader.forType(nativeSchema, MAPPER, Item.class);
+            Blaze4jReader<Item> single = Blaze4jReader.forType(javaSchema, MAPPER, Item.class).withSingleParse(true);
+            for (String payload : payloads) {
+                assertEquals(outcome(reference, payload), outcome(single, payload), payload);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleParseIsStrictWhateverTheMapper() {
+        ObjectMapper lenient = new ObjectMapper().enable(JsonParser.Feature.ALLOW_COMMENTS);
+        try (CompiledSchema schema = new SchemaCompiler().enableJavaBackend(4096).compile(SCHEMA)) {
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, lenient, Item.class).withSingleParse(true);
+            InstanceValidationException e = assertThrows(InstanceValidationException.class,
+                () -> reader.readValue(utf8("{/* comment */ \"sku\": \"a\", \"price\": 1}")));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, e.getStatus());
+        }
+    }
+
+    @Test
+    public void testGenericTypesAndBindingErrors() throws Exception {
+        String listSchema = """
+            { "$schema": "https://json-schema.org/draft/2020-12/schema", "type": "array" }""";
+        try (CompiledSchema schema = new SchemaCompiler().compile(listSchema)) {
+            Blaze4jReader<List<Integer>> reader = Blaze4jReader.forType(schema, MAPPER, new TypeReference<List<Integer>>() { });
+            assertEquals(List.of(1, 2), reader.readValue(utf8("[1, 2]")));
+            // Valid for the schema, but not bindable to the type
+            assertThrows(MismatchedInputException.class, () -> reader.readValue(utf8("[{}]")));
+        }
+    }
+
+    @Test
+    public void testMetricsSeeReaderValidations() throws Exception {
+        ValidationMetrics metrics = new ValidationMetrics();
+        BlazeValidator validator = new BlazeValidator().withMetrics(metrics);
+        try (CompiledSchema schema = new SchemaCompiler().enableJavaBackend(4096).compile(SCHEMA)) {
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, MAPPER, Item.class).withValidator(validator);
+            reader.readValue(utf8("{\"sku\": \"a\", \"price\": 1}"));
+            reader.withSingleParse(true).readValue(utf8("{\"sku\": \"b\", \"price\": 2}"));
+            assertEquals(2, metrics.snapshot(schema).getValid());
+        }
+    }
+
+    @Test
+    public void testProfilerSeesSingleParseValidations() throws Exception {
+        ValidationMetrics metrics = new ValidationMetrics();
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema schema = new SchemaCompiler().enableJavaBackend(4096).compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator().withMetrics(metrics).withProfiler(profiler);
+            Blaze4jReader<Item> reader = Blaze4jReader.forType(schema, MAPPER, Item.class)
+                .withValidator(validator).withSingleParse(true);
+            assertEquals("a", reader.readValue(utf8("{\"sku\": \"a\", \"price\": 1}")).sku());
+            assertThrows(InstanceValidationException.class, () -> reader.readValue(utf8("{\"price\": 1}")));
+            assertEquals(2, profiler.getProfile(schema, 5).getValidations());
+            assertEquals(1, metrics.snapshot(schema).getValid());
+            assertEquals(1, metrics.snapshot(schema).getInvalid());
+        }
+    }
+
+    private static Object outcome(Blaze4jReader<Item> reader, String payload) throws Exception {
+        try {
+            return reader.readValue(utf8(payload));
+        } catch (InstanceValidationException e) {
+            return e.getStatus();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load harness for shared templates, run with {@code mvn -Pstress test}. It prints the
+ * throughput and latency of one shared schema for increasing numbers of platform and
+ * virtual threads, then compiles, validates and closes schemas concurrently.
+ * <p>
+ * Tunable with {@code -Dblaze4j.stress.threads=1,2,4,...}, {@code -Dblaze4j.stress.millis}
+ * (per measurement) and {@code -Dblaze4j.stress.virtualThreads}.
+ */
+@Tag("stress")
+public class ConcurrencyStressTest {
+
+    private static final int[] THREAD_COUNTS = Arrays.stream(
+            System.getProperty("blaze4j.stress.threads", "1,2,4,8,16,32,64").split(","))
+        .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final long LEVEL_MILLIS = Long.getLong("blaze4j.stress.millis", 2000);
+    private static final int VIRTUAL_THREADS = Integer.getInteger("blaze4j.stress.virtualThreads", 1000);
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["id", "customer", "lines"],
+          "properties": {
+            "id": { "type": "string", "pattern": "^ord-[0-9]+$" },
+            "customer": { "$ref": "#/$defs/customer" },
+            "lines": { "type": "array", "minItems": 1, "items": { "$ref": "#/$defs/line" } }
+          },
+          "$defs": {
+            "customer": {
+              "type": "object",
+              "required": ["name"],
+              "properties": { "name": { "type": "string", "minLength": 1 }, "email": { "type": "string" } }
+            },
+            "line": {
+              "type": "object",
+              "required": ["sku", "quantity", "price"],
+              "properties": {
+                "sku": { "type": "string" },
+                "quantity": { "type": "integer", "minimum": 1 },
+                "price": { "type": "number", "exclusiveMinimum": 0 }
+              },
+              "additionalProperties": false
+            }
+          }
+        }""";
+
+    // Accepts and rejects the same instances as SCHEMA, and is simple enough for the Java backend
+    private static final String FLAT_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["id", "customer", "lines"],
+          "properties": {
+            "id": { "type": "string" },
+            "lines": {
+              "type": "array",
+              "minItems": 1,
+              "items": {
+                "type": "object",
+                "required": ["sku", "quantity", "price"],
+                "properties": { "quantity": { "type": "integer", "minimum": 1 } }
+              }
+            }
+          }
+        }""";
+
+    private static final String VALID = """
+        {"id": "ord-1", "customer": {"name": "Ada", "email": "ada@example.com"},
+         "lines": [{"sku": "a", "quantity": 2, "price": 9.5}, {"sku": "b", "quantity": 1, "price": 20}]}""";
+    private static final String INVALID = """
+        {"id": "ord-2", "customer": {"name": "Bob"}, "lines": [{"sku": "c", "quantity": 0, "price": 1}]}""";
+    private static final byte[] VALID_BYTES = VALID.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_BYTES = INVALID.getBytes(StandardCharsets.UTF_8);
+
+    private record Level(int threads, double opsPerSecond, long p50Nanos, long p99Nanos, long maxNanos) {
+    }
+
+    @Test
+    public void testPlatformThreadScaling() throws Exception {
+        List<Level> levels = new ArrayList<>();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            for (int threads : THREAD_COUNTS) {
+                levels.add(measure(schema, threads, Thread.ofPlatform().factory()));
+            }
+        }
+        report("platform threads", levels);
+        assertNoCollapse(levels);
+    }
+
+    @Test
+    public void testVirtualThreadScaling() throws Exception {
+        List<Level> levels = new ArrayList<>();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            for (int threads : THREAD_COUNTS) {
+                levels.add(measure(schema, threads, Thread.ofVirtual().factory()));
+            }
+            levels.add(measure(schema, VIRTUAL_THREADS, Thread.ofVirtual().factory()));
+        }
+        report("virtual threads", levels);
+        assertNoCollapse(levels);
+    }
+
+    @Test
+    public void testConcurrentCompileValidateClose() throws Exception {
+        SchemaCompiler compiler = new SchemaCompiler();
+        SchemaCompiler javaCompiler = new SchemaCompiler().enableJavaBackend(4096);
+        // Every schema of this test, checked at the end rather than the process-wide counters
+        Queue<CompiledSchema> compiled = new ConcurrentLinkedQueue<>();
+        CompiledSchema first = compiler.compile(SCHEMA);
+        compiled.add(first);
+        AtomicReference<CompiledSchema> current = new AtomicReference<>(first);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder validations = new LongAdder();
+        LongAdder closedRaces = new LongAdder();
+        LongAdder rotations = new LongAdder();
+        BlazeValidator validator = new BlazeValidator();
+
+        List<Thread> threads = new ArrayList<>();
+        int validators = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        for (int i = 0; i < validators; i++) {
+            ThreadFactory factory = i % 2 == 0 ? Thread.ofPlatform().factory() : Thread.ofVirtual().factory();
+            int seed = i;
+            threads.add(factory.newThread(() -> {
+                long n = seed;
+                while (!stop.get() && failure.get() == null) {
+                    CompiledSchema schema = current.get();
+                    boolean expected = (n & 1) == 0;
+                    try {
+                        boolean actual;
+                        switch ((int) (n++ % 3)) {
+                            case 0:
+                                actual = validator.validate(schema, expected ? VALID_BYTES : INVALID_BYTES);
+                                break;
+                            case 1:
+                                actual = validator.validate(schema, expected ? VALID : INVALID);
+                                break;
+                            default:
+                                actual = validator.validateWithDetails(schema, expected ? VALID : INVALID).isValid();
+                        }
+                        if (actual != expected) {
+                            failure.compareAndSet(null, new AssertionError("Expected " + expected + " from " + schema));
+                        }
+                        validations.increment();
+                    } catch (IllegalStateException e) {
+                        // The schema was closed before this call acquired it
+                        closedRaces.increment();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < 2; i++) {
+            int rotator = i;
+            threads.add(Thread.ofPlatform().unstarted(() -> {
+                long n = 0;
+                while (!stop.get() && failure.get() == null) {
+                    try {
+                        CompiledSchema next = (n++ + rotator) % 2 == 0
+                            ? compiler.compile(SCHEMA)
+                            : javaCompiler.compile(FLAT_SCHEMA);
+                        compiled.add(next);
+                        // Closed at once, while validators may still be using it
+                        current.getAndSet(next).close();
+                        rotations.increment();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(LEVEL_MILLIS * 3);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        current.get().close();
+
+        System.out.printf("compile/validate/close: %d validations, %d rotations, %d calls raced a close%n",
+            validations.sum(), rotations.sum(), closedRaces.sum());
+        if (failure.get() != null) {
+            fail("Concurrent compile, validate and close failed", failure.get());
+        }
+        assertTrue(validations.sum() > 0);
+        assertTrue(rotations.sum() > 0);
+        for (CompiledSchema schema : compiled) {
+            assertThrows(IllegalStateException.class, schema::getHandle);
+            assertTrue(BlazeWrapper.isTemplateFreed(schema), "Template of a closed schema was not freed");
+        }
+    }
+
+    private static Level measure(CompiledSchema schema, int threads, ThreadFactory factory) throws Exception {
+        ValidationMetrics metrics = new ValidationMetrics();
+        BlazeValidator validator = new BlazeValidator().withMetrics(metrics);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = factory.newThread(() -> {
+                try {
+                    start.await();
+                    long n = 0;
+                    while (!stop.get()) {
+                        boolean expected = (n++ & 1) == 0;
+                        if (validator.validate(schema, expected ? VALID_BYTES : INVALID_BYTES) != expected) {
+                            throw new AssertionError("Expected " + expected + " at call " + n);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // Warm up, then measure from a clean slate
+        start.countDown();
+        Thread.sleep(LEVEL_MILLIS / 4);
+        metrics.reset();
+        long begin = System.nanoTime();
+        Thread.sleep(LEVEL_MILLIS);
+        SchemaValidationStats stats = metrics.snapshot(schema);
+        long elapsed = System.nanoTime() - begin;
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            fail("Validation failed with " + threads + " threads", failure.get());
+        }
+        return new Level(threads, stats.getValidations() * 1e9 / elapsed,
+            stats.getP50Nanos(), stats.getP99Nanos(), stats.getMaxNanos());
+    }
+
+    private static void report(String kind, List<Level> levels) {
+        double single = levels.get(0).opsPerSecond() / levels.get(0).threads();
+        System.out.printf("Shared schema, %s (%d cores)%n", kind, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %14s %9s %12s %12s %12s%n", "threads", "ops/s", "speedup", "p50 us", "p99 us", "max us");
+        for (Level level : levels) {
+            System.out.printf("%8d %14.0f %8.2fx %12.1f %12.1f %12.1f%n", level.threads(), level.opsPerSecond(),
+                level.opsPerSecond() / single, level.p50Nanos() / 1e3, level.p99Nanos() / 1e3, level.maxNanos() / 1e3);
+        }
+    }
+
+    // More threads may stop adding throughput once the cores are busy, but must not lose most of it
+    private static void assertNoCollapse(List<Level> levels) {
+        double best = 0;
+        for (Level level : levels) {
+            assertTrue(level.opsPerSecond() > 0, "No validations completed with " + level.threads() + " threads");
+            best = Math.max(best, level.opsPerSecond());
+            assertTrue(level.opsPerSecond() >= best / 2, "Throughput collapsed at " + level.threads() + " threads: "
+                + Math.round(level.opsPerSecond()) + " ops/s after a peak of " + Math.round(best));
+        }
+    }
+}
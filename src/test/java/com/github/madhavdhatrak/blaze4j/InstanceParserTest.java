@@ -0,0 +1,145 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class InstanceParserTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["id", "readings"],
+          "properties": {
+            "id": { "type": "string", "minLength": 1 },
+            "count": { "type": "integer" },
+            "readings": {
+              "type": "array",
+              "items": { "type": "number", "minimum": -1000 }
+            },
+            "flags": { "type": "object", "additionalProperties": { "type": "boolean" } },
+            "note": { "type": ["string", "null"] }
+          }
+        }""";
+
+    private static final String[] INSTANCES = {
+        "{\"id\": \"sensor-1\", \"readings\": [1, 2.5, -3e2, 0.000125]}",
+        "{\"id\": \"sensor-2\", \"count\": 9223372036854775807, \"readings\": []}",
+        // Above INT64_MAX: must stay an integer
+        "{\"id\": \"sensor-3\", \"count\": 18446744073709551616, \"readings\": []}",
+        "{\"id\": \"sensor-4\", \"count\": 1.5, \"readings\": []}",
+        "{\"id\": \"sensor-5\", \"readings\": [-1001]}",
+        "{\"id\": \"\\u6771\\u4eac\", \"readings\": [1e308], \"flags\": {\"a\": true, \"b\": false}, \"note\": null}",
+        "{\"id\": \"sensor-7\", \"readings\": [1], \"flags\": {\"a\": 1}}",
+        "{\"readings\": [1]}",
+        "[1, 2, 3]",
+        "{\"id\": \"sensor-8\", \"readings\": [1, 2",
+        "{\"id\": \"sensor-9\" \"readings\": []}",
+        "",
+    };
+
+    // Builds that must run the simdjson cases, like the simdjson CI job, set blaze4j.test.simdjson
+    // so that a library built without it fails them instead of skipping them
+    private static void assumeSimdjson() {
+        if (Boolean.getBoolean("blaze4j.test.simdjson")) {
+            assertTrue(InstanceParser.SIMDJSON.isAvailable(), "Native library was built without simdjson");
+        }
+        assumeTrue(InstanceParser.SIMDJSON.isAvailable(), "Native library was built without simdjson");
+    }
+
+    @Test
+    public void testDefaultParserIsAlwaysAvailable() {
+        assertTrue(InstanceParser.DEFAULT.isAvailable());
+        assertEquals("sourcemeta", InstanceParser.DEFAULT.getImplementation());
+        assertEquals(InstanceParser.DEFAULT, new BlazeValidator().getInstanceParser());
+    }
+
+    @Test
+    public void testUnavailableParserIsRejected() {
+        assumeTrue(!InstanceParser.SIMDJSON.isAvailable(), "Native library was built with simdjson");
+
+        assertNull(InstanceParser.SIMDJSON.getImplementation());
+        assertThrows(UnsupportedOperationException.class,
+            () -> new BlazeValidator().withInstanceParser(InstanceParser.SIMDJSON));
+    }
+
+    @Test
+    public void testSimdjsonMatchesDefaultParser() {
+        assumeSimdjson();
+
+        BlazeValidator defaultValidator = new BlazeValidator();
+        BlazeValidator simdValidator = defaultValidator.withInstanceParser(InstanceParser.SIMDJSON);
+        assertEquals(InstanceParser.SIMDJSON, simdValidator.getInstanceParser());
+        assertNotNull(InstanceParser.SIMDJSON.getImplementation());
+
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            for (String instance : INSTANCES) {
+                assertEquals(defaultValidator.validateStatus(schema, instance),
+                    simdValidator.validateStatus(schema, instance), instance);
+                assertEquals(defaultValidator.validate(schema, instance),
+                    simdValidator.validate(schema, instance), instance);
+
+                ValidationResult expected = defaultValidator.validateWithDetails(schema, instance);
+                ValidationResult actual = simdValidator.validateWithDetails(schema, instance);
+                assertEquals(expected.getStatus(), actual.getStatus(), instance);
+                assertEquals(expected.getErrors().size(), actual.getErrors().size(), instance);
+            }
+        }
+    }
+
+    @Test
+    public void testSimdjsonOnLargeNumericDocument() {
+        assumeSimdjson();
+
+        StringBuilder instance = new StringBuilder("{\"id\": \"bulk\", \"readings\": [");
+        for (int i = 0; i < 100_000; i++) {
+            if (i > 0) {
+                instance.append(',');
+            }
+            instance.append(i % 2 == 0 ? Integer.toString(i) : (i * 0.25) + "e-1");
+        }
+        instance.append("]}");
+
+        BlazeValidator validator = new BlazeValidator().withInstanceParser(InstanceParser.SIMDJSON);
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertEquals(ValidationStatus.VALID, validator.validateStatus(schema, instance.toString()));
+            assertEquals(ValidationStatus.INVALID,
+                validator.validateStatus(schema, instance.toString().replace("[0,", "[-5000,")));
+        }
+    }
+
+    @Test
+    public void testSimdjsonReadsPaddedBuffersInPlace() throws Exception {
+        assumeSimdjson();
+
+        BlazeValidator defaultValidator = new BlazeValidator();
+        BlazeValidator simdValidator = defaultValidator.withInstanceParser(InstanceParser.SIMDJSON);
+        ObjectMapper mapper = new ObjectMapper();
+        byte[] filler = ("{\"id\": \"" + "x".repeat(8192) + "\", \"readings\": []}").getBytes(StandardCharsets.UTF_8);
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA);
+             Arena arena = Arena.ofConfined()) {
+            for (String instance : INSTANCES) {
+                byte[] bytes = instance.getBytes(StandardCharsets.UTF_8);
+                ValidationStatus expected = defaultValidator.validateStatus(schema, bytes);
+                // Leave the bytes of a longer document behind the instance in the pooled buffers
+                assertEquals(ValidationStatus.VALID, simdValidator.validateStatus(schema, filler));
+                assertEquals(expected, simdValidator.validateStatus(schema, bytes), instance);
+                assertEquals(expected, simdValidator.validateStatus(schema, MemorySegment.ofArray(bytes)), instance);
+                // A segment of exactly the instance's size has no padding, so it is copied
+                MemorySegment exact = arena.allocateFrom(instance).asSlice(0, bytes.length);
+                assertEquals(expected, simdValidator.validateStatus(schema, exact), instance);
+                if (expected != ValidationStatus.MALFORMED_INSTANCE) {
+                    assertEquals(expected,
+                        simdValidator.validateValueStatus(schema, mapper.readTree(instance), mapper), instance);
+                }
+            }
+        }
+    }
+}
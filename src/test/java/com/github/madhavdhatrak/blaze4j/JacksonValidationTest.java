@@ -0,0 +1,132 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JacksonValidationTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["order_id", "lines"],
+          "properties": {
+            "order_id": { "type": "string", "minLength": 1 },
+            "lines": { "type": "array", "items": { "type": "integer", "minimum": 1 } }
+          }
+        }""";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record Order(@JsonProperty("order_id") String id, List<Integer> lines) {
+    }
+
+    @Test
+    public void testJsonNode() throws Exception {
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            JsonNode valid = MAPPER.readTree("{\"order_id\": \"ord-ü\", \"lines\": [1, 2]}");
+            JsonNode invalid = MAPPER.readTree("{\"order_id\": \"ord-1\", \"lines\": [0]}");
+
+            assertTrue(validator.validate(schema, valid));
+            assertFalse(validator.validate(schema, invalid));
+            assertEquals(ValidationStatus.INVALID, validator.validateStatus(schema, MAPPER.createArrayNode()));
+        }
+    }
+
+    @Test
+    public void testPojoUsesTheMappersAnnotations() {
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertTrue(validator.validateValue(schema, new Order("ord-1", List.of(3)), MAPPER));
+            assertEquals(ValidationStatus.INVALID,
+                validator.validateValueStatus(schema, new Order("", List.of(3)), MAPPER));
+        }
+    }
+
+    @Test
+    public void testInstancesLargerThanTheBuffer() {
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            ObjectNode order = MAPPER.createObjectNode().put("order_id", "x".repeat(100_000));
+            ArrayNode lines = order.putArray("lines");
+            for (int i = 1; i <= 50_000; i++) {
+                lines.add(i);
+            }
+            assertTrue(validator.validate(schema, order));
+            lines.add(0);
+            assertFalse(validator.validate(schema, order));
+            // The thread's buffer is still usable afterwards
+            assertTrue(validator.validateValue(schema, new Order("ord-2", List.of(1)), MAPPER));
+        }
+    }
+
+    @Test
+    public void testMetricsSeeJacksonValidations() throws Exception {
+        ValidationMetrics metrics = new ValidationMetrics();
+        BlazeValidator validator = new BlazeValidator().withMetrics(metrics);
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            validator.validate(schema, MAPPER.readTree("{\"order_id\": \"a\", \"lines\": []}"));
+            validator.validateValue(schema, new Order("b", List.of(0)), MAPPER);
+            assertEquals(1, metrics.snapshot(schema).getValid());
+            assertEquals(1, metrics.snapshot(schema).getInvalid());
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertThrows(IllegalArgumentException.class, () -> validator.validate(schema, (JsonNode) null));
+            assertThrows(IllegalArgumentException.class, () -> validator.validateValue(schema, new Order("a", List.of()), null));
+            // Jackson refuses to serialize a bean without properties
+            assertThrows(IllegalArgumentException.class, () -> validator.validateValue(schema, new Object(), MAPPER));
+        }
+    }
+
+    @Test
+    public void testMappersOfOtherFormatsAreRejected() {
+        // Stands in for the YAML, CBOR or Smile factories, which are not on the test classpath
+        ObjectMapper yaml = new ObjectMapper(new JsonFactory() {
+            @Override
+            public String getFormatName() {
+                return "YAML";
+            }
+        });
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> validator.validateValueStatus(schema, new Order("ord-1", List.of(1)), yaml));
+            assertTrue(e.getMessage().contains("YAML"));
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsShareBuffers() throws Exception {
+        BlazeValidator validator = new BlazeValidator();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                Order order = new Order("ord-" + i, List.of(i % 2));
+                results.add(executor.submit(() -> validator.validateValue(schema, order, MAPPER)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 1, results.get(i).get());
+            }
+        }
+    }
+}
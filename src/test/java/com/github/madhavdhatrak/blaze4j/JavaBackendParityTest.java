@@ -0,0 +1,229 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JavaBackendParityTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["id", "tags"],
+          "properties": {
+            "id": { "type": "integer", "minimum": 1 },
+            "name": { "type": "string", "minLength": 1, "maxLength": 8 },
+            "tags": { "type": "array", "items": { "enum": ["a", "b", "c"] }, "uniqueItems": true },
+            "score": { "type": "number", "exclusiveMaximum": 100, "multipleOf": 0.5 }
+          },
+          "additionalProperties": false
+        }""";
+
+    private static final String[] INSTANCES = {
+        "{\"id\": 1, \"tags\": []}",
+        "{\"id\": 1.0, \"name\": \"blaze\", \"tags\": [\"a\", \"c\"], \"score\": 99.5}",
+        "{\"id\": 0, \"tags\": []}",
+        "{\"id\": 1, \"tags\": [\"a\", \"a\"]}",
+        "{\"id\": 1, \"tags\": [\"d\"]}",
+        "{\"id\": 1, \"tags\": [], \"score\": 100}",
+        "{\"id\": 1, \"tags\": [], \"score\": 0.25}",
+        "{\"id\": 1, \"tags\": [], \"extra\": true}",
+        "{\"id\": 1, \"name\": \"\", \"tags\": []}",
+        "{\"tags\": []}",
+        "[]",
+        "{\"id\": 1, \"tags\": [",
+        "{\"id\": 0, \"tags\": []} trailing",
+    };
+
+    // Directories of the JSON Schema Test Suite and the dialect each one defaults to
+    private static final String[][] SUITES = {
+        {"draft4", "http://json-schema.org/draft-04/schema#"},
+        {"draft6", "http://json-schema.org/draft-06/schema#"},
+        {"draft7", "http://json-schema.org/draft-07/schema#"},
+        {"draft2019-09", "https://json-schema.org/draft/2019-09/schema"},
+        {"draft2020-12", "https://json-schema.org/draft/2020-12/schema"},
+    };
+
+    @Test
+    public void testJavaBackendMatchesNativeValidator() {
+        assertParity(SCHEMA, INSTANCES);
+    }
+
+    @Test
+    public void testDuplicateKeysAreValidatedNatively() {
+        String schema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "maxProperties": 1,
+              "properties": { "id": { "type": "integer", "minimum": 1 } }
+            }""";
+        String[] duplicates = {
+            "{\"id\": 1, \"id\": 2}",
+            "{\"id\": 0, \"id\": 1}",
+            "{\"id\": 1, \"id\": 0}",
+            "{\"other\": {\"a\": 1, \"a\": 2}}",
+            "[{\"a\": 1, \"a\": 2}]",
+        };
+        assertParity(schema, duplicates);
+        try (CompiledSchema compiled = new SchemaCompiler().enableJavaBackend(4096).compile(schema)) {
+            JavaCompiledSchema javaSchema = assertInstanceOf(JavaCompiledSchema.class, compiled);
+            for (String instance : duplicates) {
+                assertNull(javaSchema.validate(instance), instance);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "0.1 | 0.3",
+        "0.1 | 0.7",
+        "0.1 | 1.1",
+        "0.1 | 2",
+        "0.01 | 0.07",
+        "0.5 | 4.5",
+        "0.5 | 4.25",
+        "1.5 | 4.5",
+        "3 | 9",
+        "3 | 9.0",
+        "3 | 10",
+        "3.0 | 9",
+        "3 | -9007199254740993",
+        "7 | 9223372036854775807",
+    })
+    public void testMultipleOfMatchesNativeValidator(String divisor, String instance) {
+        assertParity("{\"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"multipleOf\": "
+            + divisor + "}", new String[] {instance});
+    }
+
+    @Test
+    public void testDraft4BooleanAdditionalSchemas() {
+        String schema = """
+            {
+              "$schema": "http://json-schema.org/draft-04/schema#",
+              "type": "object",
+              "properties": {
+                "id": { "type": "integer" },
+                "point": { "type": "array", "items": [{ "type": "number" }, { "type": "number" }], "additionalItems": false }
+              },
+              "additionalProperties": false
+            }""";
+        assertParity(schema, new String[] {
+            "{\"id\": 1}",
+            "{\"id\": 1, \"extra\": true}",
+            "{\"point\": [1, 2]}",
+            "{\"point\": [1, 2, 3]}",
+            "{\"point\": [1, \"2\"]}",
+        });
+    }
+
+    private static void assertParity(String schema, String[] instances) {
+        BlazeValidator validator = new BlazeValidator();
+        try (CompiledSchema nativeSchema = new SchemaCompiler().compile(schema);
+             CompiledSchema javaSchema = new SchemaCompiler().enableJavaBackend(4096).compile(schema)) {
+            assertInstanceOf(JavaCompiledSchema.class, javaSchema);
+            for (String instance : instances) {
+                assertEquals(validator.validateStatus(nativeSchema, instance),
+                    validator.validateStatus(javaSchema, instance), instance);
+                assertEquals(validator.validate(nativeSchema, instance),
+                    validator.validate(javaSchema, instance), instance);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"$ref\": \"#/$defs/a\", \"$defs\": {\"a\": {}}}",
+        "{\"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"type\": \"string\", \"pattern\": \"^a\"}",
+        "{\"$schema\": \"http://json-schema.org/draft-07/schema#\", \"format\": \"email\"}",
+        "{\"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"unevaluatedProperties\": false}",
+    })
+    public void testUnsupportedSchemasStayNative(String schemaJson) {
+        try (CompiledSchema schema = new SchemaCompiler().enableJavaBackend(4096).compile(schemaJson)) {
+            assertFalse(schema instanceof JavaCompiledSchema, schemaJson);
+        }
+    }
+
+    @Test
+    public void testLongInstancesUseNativeValidator() {
+        try (CompiledSchema schema = new SchemaCompiler().enableJavaBackend(8).compile(SCHEMA)) {
+            JavaCompiledSchema javaSchema = assertInstanceOf(JavaCompiledSchema.class, schema);
+            assertNull(javaSchema.validate("{\"id\": 1, \"tags\": []}"));
+            assertTrue(new BlazeValidator().validate(schema, "{\"id\": 1, \"tags\": []}"));
+        }
+    }
+
+    @Test
+    public void testClosedSchemaIsRejected() {
+        CompiledSchema schema = new SchemaCompiler().enableJavaBackend(4096).compile(SCHEMA);
+        schema.close();
+        assertThrows(IllegalStateException.class, () -> new BlazeValidator().validate(schema, "{}"));
+    }
+
+    /**
+     * Runs every test case of the JSON Schema Test Suite whose schema the Java backend
+     * supports through both validators, which must agree on each of them
+     */
+    @Test
+    public void testJavaBackendMatchesNativeOnSupportedSuiteCases() throws IOException, URISyntaxException {
+        URL suite = getClass().getClassLoader().getResource("JSON-Schema-Test-Suite/tests");
+        assertNotNull(suite, "JSON Schema Test Suite is not checked out in src/test/resources");
+
+        BlazeValidator validator = new BlazeValidator();
+        int supported = 0;
+        List<String> failures = new ArrayList<>();
+        for (String[] draft : SUITES) {
+            Path directory = Paths.get(suite.toURI()).resolve(draft[0]);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+            }
+            for (Path file : files) {
+                JsonNode groups = Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+                for (JsonNode group : groups) {
+                    String schema = Json.mapper().writeValueAsString(group.get("schema"));
+                    JavaValidator javaValidator = JavaSchemaCompiler.compile(schema, draft[1]);
+                    if (javaValidator == null) {
+                        continue;
+                    }
+                    try (CompiledSchema nativeSchema = new SchemaCompiler().compile(schema, draft[1])) {
+                        for (JsonNode test : group.get("tests")) {
+                            String data = Json.mapper().writeValueAsString(test.get("data"));
+                            ValidationStatus actual = javaValidator.validate(data);
+                            if (actual == null) {
+                                // Left to the native validator
+                                continue;
+                            }
+                            supported++;
+                            ValidationStatus expected = validator.validateStatus(nativeSchema, data);
+                            if (actual != expected) {
+                                failures.add(draft[0] + "/" + file.getFileName() + ": " + group.get("description").asText()
+                                    + " - " + test.get("description").asText() + " (" + actual + ", native " + expected + ")");
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(supported > 0, "No suite case uses only supported keywords");
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+}
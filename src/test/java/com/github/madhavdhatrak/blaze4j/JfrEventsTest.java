@@ -0,0 +1,113 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventsTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "$ref": "jfr-integer"
+        }""";
+
+    private static final String INTEGER_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    @Test
+    public void testCompileResolveAndValidateEvents() throws Exception {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("jfr-integer", INTEGER_SCHEMA);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("blaze4j.Compile");
+            recording.enable("blaze4j.Resolve");
+            recording.enable("blaze4j.Validate").withThreshold(Duration.ZERO);
+            recording.start();
+
+            try (CompiledSchema schema = new SchemaCompiler(registry).compile(SCHEMA)) {
+                BlazeValidator validator = new BlazeValidator();
+                assertTrue(validator.validate(schema, "42"));
+                assertFalse(validator.validateWithDetails(schema, "\"text\"").isValid());
+            }
+            assertThrows(SchemaCompilationException.class, () -> new SchemaCompiler().compile("{\"type\": 1}"));
+
+            recording.stop();
+            Path file = Files.createTempFile("blaze4j", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("blaze4j."))
+                    .filter(event -> event.getThread() != null
+                        && event.getThread().getJavaThreadId() == Thread.currentThread().threadId())
+                    .collect(Collectors.toList());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        List<RecordedEvent> compiles = named(events, "blaze4j.Compile");
+        assertEquals(2, compiles.size());
+        assertEquals("success", compiles.get(0).getString("outcome"));
+        assertEquals(SCHEMA.length(), compiles.get(0).getLong("bytes"));
+        assertTrue(compiles.get(0).getInt("resolvedSchemas") >= 1);
+        assertNotEquals("success", compiles.get(1).getString("outcome"));
+
+        RecordedEvent resolve = named(events, "blaze4j.Resolve").stream()
+            .filter(event -> event.getString("uri").contains("jfr-integer"))
+            .findFirst().orElseThrow();
+        assertEquals("hit", resolve.getString("outcome"));
+        assertTrue(resolve.getLong("bytes") > 0);
+
+        List<RecordedEvent> validations = named(events, "blaze4j.Validate");
+        assertEquals(2, validations.size());
+        assertEquals("VALID", validations.get(0).getString("outcome"));
+        assertEquals(2, validations.get(0).getLong("bytes"));
+        assertFalse(validations.get(0).getBoolean("detailed"));
+        assertEquals("INVALID", validations.get(1).getString("outcome"));
+        assertEquals("DEFAULT", validations.get(1).getString("backend"));
+        assertTrue(validations.get(1).getBoolean("detailed"));
+    }
+
+    @Test
+    public void testFastValidationsAreBelowDefaultThreshold() throws Exception {
+        try (Recording recording = new Recording();
+             CompiledSchema schema = new SchemaCompiler().compile(INTEGER_SCHEMA)) {
+            recording.enable("blaze4j.Validate");
+            recording.start();
+            assertTrue(new BlazeValidator().validate(schema, "1"));
+            recording.stop();
+
+            Path file = Files.createTempFile("blaze4j", ".jfr");
+            try {
+                recording.dump(file);
+                assertTrue(RecordingFile.readAllEvents(file).stream()
+                    .noneMatch(event -> event.getEventType().getName().equals("blaze4j.Validate")
+                        && event.getDuration().compareTo(Duration.ofMillis(1)) < 0));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+    }
+}
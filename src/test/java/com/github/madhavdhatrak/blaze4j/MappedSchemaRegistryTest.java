@@ -0,0 +1,159 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedSchemaRegistryTest {
+
+    private static final String INTEGER_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    private static final String STRING_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "string"
+        }""";
+
+    @Test
+    public void testSchemasSurviveReopen(@TempDir Path dir) throws Exception {
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            registry.register("https://example.com/integer.json", INTEGER_SCHEMA);
+            registry.register("https://example.com/cities.json", """
+                {"enum": ["Zürich", "東京"]}""");
+            assertEquals(2, registry.size());
+        }
+
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            assertEquals(2, registry.size());
+            assertEquals(INTEGER_SCHEMA, registry.resolve("https://example.com/integer.json"));
+            assertTrue(registry.resolve("https://example.com/cities.json").contains("東京"));
+            assertNull(registry.resolve("https://example.com/missing.json"));
+        }
+    }
+
+    @Test
+    public void testReplaceAndUnregister(@TempDir Path dir) throws Exception {
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            registry.register("a", INTEGER_SCHEMA);
+            registry.register("b", INTEGER_SCHEMA);
+            registry.register("a", STRING_SCHEMA);
+            registry.unregister("b");
+            assertThrows(IllegalArgumentException.class, () -> registry.unregister(null));
+
+            assertEquals(1, registry.size());
+            assertEquals(STRING_SCHEMA, registry.resolve("a"));
+            assertFalse(registry.contains("b"));
+        }
+
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            assertEquals(1, registry.size());
+            assertEquals(STRING_SCHEMA, registry.resolve("a"));
+            assertFalse(registry.contains("b"));
+        }
+    }
+
+    @Test
+    public void testGrowthCompactionAndIndexRebuild(@TempDir Path dir) throws Exception {
+        int count = 5000;
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            for (int i = 0; i < count; i++) {
+                registry.register("https://example.com/schemas/" + i + ".json", "{\"minimum\":" + i + "}");
+            }
+            for (int i = 0; i < count; i += 2) {
+                registry.unregister("https://example.com/schemas/" + i + ".json");
+            }
+            long before = registry.getDataSize();
+            registry.compact();
+            assertTrue(registry.getDataSize() < before, "Compaction should drop superseded records");
+            assertEquals(count / 2, registry.size());
+        }
+
+        // A missing index is rebuilt from the data file on open
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path index : files.filter(file -> file.getFileName().toString().endsWith(".idx")).toList()) {
+                Files.delete(index);
+            }
+        }
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            assertEquals(count / 2, registry.size());
+            assertNull(registry.resolve("https://example.com/schemas/0.json"));
+            assertEquals("{\"minimum\":4999}", registry.resolve("https://example.com/schemas/4999.json"));
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsResolvedSchemasReadable(@TempDir Path dir) throws Exception {
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            registry.register("a", INTEGER_SCHEMA);
+            registry.register("b", STRING_SCHEMA);
+            registry.unregister("b");
+            EncodedSchema resolved = registry.resolveEncoded("a");
+
+            registry.compact();
+            registry.compact();
+            assertEquals(INTEGER_SCHEMA, resolved.text());
+            assertEquals(INTEGER_SCHEMA, registry.resolve("a"));
+            // Compaction writes a new generation instead of replacing the mapped file
+            assertFalse(Files.exists(dir.resolve("schemas.dat")));
+            assertTrue(Files.exists(dir.resolve("schemas.2.dat")));
+        }
+    }
+
+    @Test
+    public void testRegistriesSharingADirectory(@TempDir Path dir) throws Exception {
+        // Stands in for two processes: each registry maps the files on its own
+        try (MappedSchemaRegistry first = MappedSchemaRegistry.open(dir);
+             MappedSchemaRegistry second = MappedSchemaRegistry.open(dir)) {
+            first.register("a", INTEGER_SCHEMA);
+            assertEquals(INTEGER_SCHEMA, second.resolve("a"));
+
+            // Enough entries to grow the index
+            for (int i = 0; i < 2000; i++) {
+                second.register("https://example.com/schemas/" + i + ".json", "{\"minimum\":" + i + "}");
+            }
+            assertEquals(2001, first.size());
+            first.unregister("a");
+            assertFalse(second.contains("a"));
+
+            second.compact();
+            assertEquals("{\"minimum\":7}", first.resolve("https://example.com/schemas/7.json"));
+            first.register("b", STRING_SCHEMA);
+            first.compact();
+            assertEquals(STRING_SCHEMA, second.resolve("b"));
+            assertEquals(2001, second.size());
+        }
+
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            assertEquals(2001, registry.size());
+        }
+    }
+
+    @Test
+    public void testCompileAgainstMappedRegistry(@TempDir Path dir) throws Exception {
+        try (MappedSchemaRegistry registry = MappedSchemaRegistry.open(dir)) {
+            registry.register("https://example.com/integer.json", INTEGER_SCHEMA);
+
+            SchemaCompiler compiler = new SchemaCompiler(registry);
+            String mainSchema = """
+                {
+                  "$schema": "https://json-schema.org/draft/2020-12/schema",
+                  "$ref": "https://example.com/integer.json"
+                }""";
+
+            try (CompiledSchema schema = compiler.compile(mainSchema)) {
+                BlazeValidator validator = new BlazeValidator();
+                assertTrue(validator.validate(schema, "42"));
+                assertFalse(validator.validate(schema, "\"forty-two\""));
+            }
+        }
+    }
+}
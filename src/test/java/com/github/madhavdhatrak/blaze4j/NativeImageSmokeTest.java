@@ -0,0 +1,100 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises every native entry point once: each downcall, including the profiler, memory
+ * statistics and simdjson ones, the resolver upcall, resource loading and Jackson parsing. The {@code native} Maven profile runs it inside a GraalVM
+ * native image, where any missing reachability metadata fails it.
+ */
+public class NativeImageSmokeTest {
+
+    @Test
+    public void testCompileResolveAndValidate() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("https://example.com/positive.json", """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "integer",
+              "minimum": 1
+            }""");
+        SchemaCompiler compiler = new SchemaCompiler(registry);
+        BlazeValidator validator = new BlazeValidator();
+
+        try (CompiledSchema schema = compiler.compile("""
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "array",
+              "items": { "$ref": "https://example.com/positive.json" }
+            }""")) {
+            assertTrue(validator.validate(schema, "[1, 2, 3]"));
+            assertFalse(validator.validate(schema, "[1, 0]"));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, validator.validateStatus(schema, "[1,"));
+
+            ValidationResult result = validator.validateWithDetails(schema, "[0]");
+            assertFalse(result.isValid());
+            assertFalse(result.getErrors().isEmpty());
+        }
+
+        // Re-registering drops the native parse cache entry
+        registry.register("https://example.com/positive.json", """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "string"
+            }""");
+    }
+
+    @Test
+    public void testMalformedSchemaIsReported() {
+        SchemaCompilationException e = assertThrows(SchemaCompilationException.class,
+            () -> new SchemaCompiler().compile("{\"type\": "));
+        assertEquals(SchemaCompilationException.Reason.MALFORMED_SCHEMA, e.getReason());
+    }
+
+    @Test
+    public void testNativeIntrospection() {
+        Blaze4jMXBean bean = Blaze4jManagement.getMXBean();
+        assertNotNull(bean.getNativeAllocator());
+        assertTrue(bean.getTemplatesCompiled() >= bean.getTemplatesFreed());
+        assertEquals("sourcemeta", InstanceParser.DEFAULT.getImplementation());
+        assertTrue(bean.getLiveTemplates() >= 0);
+        assertTrue(bean.getResolverCacheBytes() >= 0);
+        BlazeWrapper.clearResolverCache();
+    }
+
+    @Test
+    public void testSimdjsonParser() {
+        // Asks the library for the parser even when it was built without simdjson
+        if (!InstanceParser.SIMDJSON.isAvailable()) {
+            return;
+        }
+        BlazeValidator validator = new BlazeValidator().withInstanceParser(InstanceParser.SIMDJSON);
+        try (CompiledSchema schema = new SchemaCompiler().compile("""
+            { "$schema": "https://json-schema.org/draft/2020-12/schema", "type": "array" }""")) {
+            assertTrue(validator.validate(schema, "[1]".getBytes(StandardCharsets.UTF_8)));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE,
+                validator.validateStatus(schema, "[1,".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testProfiledValidation() {
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema schema = new SchemaCompiler().compile("""
+                 { "$schema": "https://json-schema.org/draft/2020-12/schema", "type": "string", "minLength": 2 }""")) {
+            BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+            assertTrue(validator.validate(schema, "\"ab\""));
+            assertFalse(validator.validate(schema, "\"a\""));
+
+            SchemaProfile profile = profiler.getProfile(schema, 5);
+            assertEquals(2, profile.getValidations());
+            assertFalse(profile.getHotspots().isEmpty());
+            profiler.reset();
+            assertEquals(0, profiler.getProfile(schema, 5).getValidations());
+        }
+    }
+}
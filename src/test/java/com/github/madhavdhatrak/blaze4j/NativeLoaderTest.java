@@ -0,0 +1,112 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeLoaderTest {
+
+    private static final String SAMPLE = "native/test/libsample.bin";
+    private static final String HASHED = "native/test/libhashed.bin";
+
+    @Test
+    public void testExtractionIsKeyedByContentHashAndReused(@TempDir Path cache) throws Exception {
+        Path first = NativeLoader.extractToCache(SAMPLE, "libsample.bin", cache);
+        assertEquals("e29cfb799642c9824bcc0f9449036a7beacbec2ecd7f131f46dd4734d1f91e59",
+            first.getParent().getFileName().toString());
+        assertEquals("not really a shared library\n", Files.readString(first));
+
+        long modified = Files.getLastModifiedTime(first).toMillis();
+        Path second = NativeLoader.extractToCache(SAMPLE, "libsample.bin", cache);
+        assertEquals(first, second);
+        assertEquals(modified, Files.getLastModifiedTime(second).toMillis(), "Cached library should not be rewritten");
+    }
+
+    @Test
+    public void testBundledHashIsUsedWithoutRehashing(@TempDir Path cache) throws Exception {
+        Path library = NativeLoader.extractToCache(HASHED, "libhashed.bin", cache);
+        assertEquals("e29cfb799642c9824bcc0f9449036a7beacbec2ecd7f131f46dd4734d1f91e59",
+            library.getParent().getFileName().toString());
+    }
+
+    @Test
+    public void testTamperedCacheIsExtractedAgain(@TempDir Path cache) throws Exception {
+        Path library = NativeLoader.extractToCache(HASHED, "libhashed.bin", cache);
+        Files.writeString(library, "tampered\n");
+
+        Path again = NativeLoader.extractToCache(HASHED, "libhashed.bin", cache);
+        assertEquals(library, again);
+        assertEquals("not really a shared library\n", Files.readString(again));
+    }
+
+    @Test
+    public void testChecksumMismatchIsRejected(@TempDir Path cache) throws Exception {
+        IOException e = assertThrows(IOException.class,
+            () -> NativeLoader.extractToCache("native/test/libcorrupt.bin", "libcorrupt.bin", cache));
+        assertTrue(e.getMessage().contains("Checksum mismatch"));
+        try (Stream<Path> files = Files.walk(cache)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().startsWith("libcorrupt.bin")),
+                "No partial library should be left behind");
+        }
+    }
+
+    @Test
+    public void testMissingLibrary(@TempDir Path cache) {
+        assertThrows(FileNotFoundException.class,
+            () -> NativeLoader.extractToCache("native/test/libmissing.bin", "libmissing.bin", cache));
+    }
+
+    @Test
+    public void testConcurrentExtraction(@TempDir Path cache) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> NativeLoader.extractToCache(SAMPLE, "libsample.bin", cache)));
+            }
+            Path expected = results.get(0).get();
+            for (Future<Path> result : results) {
+                assertEquals(expected, result.get());
+            }
+            try (Stream<Path> files = Files.list(expected.getParent())) {
+                assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWaitsForAnotherClassLoaderHoldingTheLock(@TempDir Path cache) throws Exception {
+        // Stands in for a copy of NativeLoader in another class loader of this JVM
+        Path directory = Files.createDirectories(cache.resolve("e29cfb799642c9824bcc0f9449036a7beacbec2ecd7f131f46dd4734d1f91e59"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (FileChannel channel = FileChannel.open(directory.resolve(".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            Future<Path> result;
+            try (FileLock lock = channel.lock()) {
+                result = executor.submit(() -> NativeLoader.extractToCache(HASHED, "libhashed.bin", cache));
+                Thread.sleep(200);
+                assertFalse(result.isDone(), "Extraction should wait for the lock");
+            }
+            assertEquals("not really a shared library\n", Files.readString(result.get()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
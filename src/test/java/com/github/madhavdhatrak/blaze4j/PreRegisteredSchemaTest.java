@@ -43,6 +43,68 @@ public class PreRegisteredSchemaTest {
             assertFalse(invalidResult, "String should be invalid against pre-registered integer schema");
         }
     }
-    
 
+    @Test
+    public void testReRegisteredSchemaIsNotServedFromNativeCache() {
+        String schemaUri = "my-cached-schema";
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "my-cached-schema"
+            }""";
+
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register(schemaUri, """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "integer"
+            }""");
+        SchemaCompiler compiler = new SchemaCompiler(registry);
+        BlazeValidator validator = new BlazeValidator();
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(validator.validate(schema, "42"));
+        }
+
+        // Compiling again is served from the native parse cache
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(validator.validate(schema, "42"));
+        }
+
+        registry.register(schemaUri, """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "string"
+            }""");
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertFalse(validator.validate(schema, "42"), "Updated registry entry should replace the cached parse");
+            assertTrue(validator.validate(schema, "\"forty-two\""));
+        }
+    }
+
+    @Test
+    public void testRegisteredSchemaWithMultiByteCharacters() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("my-cities-schema", """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "enum": ["Zürich", "São Paulo", "東京"]
+            }""");
+        assertTrue(registry.resolve("my-cities-schema").contains("東京"));
+
+        SchemaCompiler compiler = new SchemaCompiler(registry);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "my-cities-schema"
+            }""";
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "\"東京\""));
+            assertTrue(validator.validate(schema, "\"São Paulo\""));
+            assertFalse(validator.validate(schema, "\"Zurich\""));
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for concurrent prefetching of referenced schemas
+ */
+public class SchemaPrefetchTest {
+
+    @Test
+    public void testCollectReferences() throws IOException {
+        String schema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$id": "https://example.com/root.json",
+              "properties": {
+                "$ref": { "$ref": "types/a.json" },
+                "b": { "$ref": "https://other.example.com/b.json#/$defs/x" },
+                "local": { "$ref": "#/$defs/local" }
+              },
+              "enum": [{ "$ref": "not-a-reference.json" }],
+              "$defs": {
+                "local": { "type": "string" },
+                "nested": { "$id": "nested/", "$ref": "c.json" }
+              }
+            }""";
+
+        Set<String> references = SchemaPrefetcher.collectReferences(Json.parse(schema), null, null);
+
+        assertEquals(Set.of(
+            "https://example.com/types/a.json",
+            "https://other.example.com/b.json",
+            "https://example.com/nested/c.json"), references);
+    }
+
+    @Test
+    public void testDraft4IdsSetTheBaseUri() throws IOException {
+        String schema = """
+            {
+              "$schema": "http://json-schema.org/draft-04/schema#",
+              "id": "https://example.com/schemas/root.json",
+              "properties": {
+                "a": { "$ref": "types/a.json" },
+                "anchor": { "id": "#anchor", "$ref": "b.json" }
+              }
+            }""";
+
+        Set<String> references = SchemaPrefetcher.collectReferences(Json.parse(schema), null, null);
+
+        assertEquals(Set.of(
+            "https://example.com/schemas/types/a.json",
+            "https://example.com/schemas/b.json"), references);
+    }
+
+    @Test
+    public void testReferencesToTheDocumentsOwnResourcesAreNotFetched() {
+        String schema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$id": "https://example.com/order.json",
+              "properties": {
+                "item": { "$ref": "item.json" }
+              },
+              "$defs": {
+                "item": {
+                  "$id": "item.json",
+                  "type": "object",
+                  "properties": { "parent": { "$ref": "order.json" } }
+                }
+              }
+            }""";
+        assertEquals(Set.of(), SchemaPrefetcher.collectReferences(Json.parse(schema), null, null));
+
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        SchemaResolver failing = uri -> {
+            calls.computeIfAbsent(uri, key -> new AtomicInteger()).incrementAndGet();
+            throw new IllegalStateException("Unreachable: " + uri);
+        };
+        SchemaCompiler compiler = new SchemaCompiler(failing).enablePrefetch(4, Duration.ofSeconds(10));
+        try (CompiledSchema compiled = compiler.compile(schema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(compiled, "{\"item\": {\"parent\": {}}}"));
+            assertFalse(validator.validate(compiled, "{\"item\": {\"parent\": {\"item\": 1}}}"));
+        }
+        assertEquals(Map.of(), calls);
+    }
+
+    @Test
+    public void testReferencesArePrefetchedConcurrentlyAndTransitively() {
+        Map<String, String> documents = new ConcurrentHashMap<>();
+        StringBuilder allOf = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            String uri = "store://leaf-" + i;
+            documents.put(uri, "{ \"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"$ref\": \"store://shared\" }");
+            allOf.append(i == 0 ? "" : ",").append("{ \"$ref\": \"").append(uri).append("\" }");
+        }
+        documents.put("store://shared", "{ \"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"type\": \"integer\" }");
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        SchemaResolver slowStore = uri -> {
+            calls.computeIfAbsent(uri, key -> new AtomicInteger()).incrementAndGet();
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return documents.get(uri);
+        };
+
+        String mainSchema = "{ \"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"allOf\": [" + allOf + "] }";
+        SchemaCompiler compiler = new SchemaCompiler(slowStore).enablePrefetch(4, Duration.ofSeconds(10));
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "1"));
+            assertFalse(validator.validate(schema, "\"one\""));
+        }
+
+        assertTrue(maxActive.get() > 1, "Documents should be resolved concurrently");
+        assertTrue(maxActive.get() <= 4, "Parallelism should be bounded");
+        // Every document is resolved exactly once; the compiler is served from the prefetched set
+        assertEquals(9, calls.size());
+        calls.forEach((uri, count) -> assertEquals(1, count.get(), "Resolved more than once: " + uri));
+    }
+
+    @Test
+    public void testDeadlineLeavesRemainingDocumentsToTheCompiler() {
+        SchemaResolver slowStore = uri -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{ \"$schema\": \"https://json-schema.org/draft/2020-12/schema\", \"type\": \"integer\" }";
+        };
+
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "store://integer"
+            }""";
+        SchemaCompiler compiler = new SchemaCompiler(slowStore).enablePrefetch(2, Duration.ofMillis(10));
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(new BlazeValidator().validate(schema, "1"));
+        }
+    }
+}
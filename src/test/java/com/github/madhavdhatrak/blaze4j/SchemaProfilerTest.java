@@ -0,0 +1,174 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaProfilerTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "properties": {
+            "id": { "type": "string", "pattern": "^(a+)+[0-9]{3}$" },
+            "tags": { "type": "array", "items": { "type": "string", "minLength": 1 } }
+          }
+        }""";
+
+    private static final String VALID = """
+        {"id": "aaaaaaaa123", "tags": ["x", "y", "z"]}""";
+
+    @Test
+    public void testProfiledStatusesMatchUnprofiled() {
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+
+            assertTrue(validator.validate(schema, VALID));
+            assertFalse(validator.validate(schema, "{\"id\": 1}"));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, validator.validateStatus(schema, "{\"id\":"));
+            assertTrue(validator.validate(schema, VALID.getBytes(StandardCharsets.UTF_8)));
+            assertFalse(validator.validate(schema, "{\"tags\": [\"\"]}".getBytes(StandardCharsets.UTF_8)));
+
+            // Instances that fail to parse are not profiled
+            assertEquals(4, profiler.getProfile(schema, 10).getValidations());
+        }
+    }
+
+    @Test
+    public void testHotspotsAreRankedBySelfTime() {
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+            for (int i = 0; i < 200; i++) {
+                assertTrue(validator.validate(schema, VALID));
+            }
+
+            SchemaProfile profile = profiler.getProfile(schema, 3);
+            assertEquals(200, profile.getValidations());
+            assertEquals(0, profile.getDroppedInvocations());
+            List<SchemaHotspot> hotspots = profile.getHotspots();
+            assertFalse(hotspots.isEmpty());
+            assertTrue(hotspots.size() <= 3);
+            for (int i = 0; i < hotspots.size(); i++) {
+                SchemaHotspot hotspot = hotspots.get(i);
+                assertTrue(hotspot.getInvocations() > 0);
+                assertTrue(hotspot.getSelfTime(TimeUnit.NANOSECONDS) <= hotspot.getTotalTime(TimeUnit.NANOSECONDS));
+                assertTrue(hotspot.getEvaluatePath().isEmpty() || hotspot.getEvaluatePath().endsWith("/" + hotspot.getKeyword()));
+                if (i > 0) {
+                    assertTrue(hotspots.get(i - 1).getSelfTime(TimeUnit.NANOSECONDS)
+                        >= hotspot.getSelfTime(TimeUnit.NANOSECONDS));
+                }
+            }
+
+            profiler.reset();
+            assertEquals(0, profiler.getProfile(schema, 3).getValidations());
+            assertTrue(profiler.getProfile(schema, 3).getHotspots().isEmpty());
+        }
+    }
+
+    /**
+     * Profiles outlive the instance arena of the validation that filled them, which the
+     * instance-arena CI build resets and reuses. Later validations must not overwrite them.
+     */
+    @Test
+    public void testProfilesSurviveLaterValidations() {
+        StringBuilder large = new StringBuilder("{\"id\": \"aaaa123\", \"tags\": [");
+        for (int i = 0; i < 20_000; i++) {
+            large.append("\"tag-").append(i).append("\",");
+        }
+        large.append("\"last\"]}");
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator profiled = new BlazeValidator().withProfiler(profiler);
+            BlazeValidator plain = new BlazeValidator();
+            assertTrue(profiled.validate(schema, VALID));
+            List<SchemaHotspot> first = profiler.getProfile(schema, 1000).getHotspots();
+
+            for (int i = 0; i < 20; i++) {
+                assertTrue(plain.validate(schema, large.toString()));
+                assertTrue(profiled.validate(schema, VALID));
+            }
+
+            SchemaProfile profile = profiler.getProfile(schema, 1000);
+            assertEquals(21, profile.getValidations());
+            assertEquals(first.size(), profile.getHotspots().size());
+            for (SchemaHotspot hotspot : profile.getHotspots()) {
+                assertTrue(first.stream().anyMatch(h -> h.getEvaluatePath().equals(hotspot.getEvaluatePath())),
+                    hotspot.getEvaluatePath());
+                assertEquals(0, hotspot.getInvocations() % 21, hotspot.getEvaluatePath());
+            }
+        }
+    }
+
+    @Test
+    public void testProfilesArePerSchema() {
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0);
+             CompiledSchema first = new SchemaCompiler().compile(SCHEMA);
+             CompiledSchema second = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+            validator.validate(first, VALID);
+            validator.validate(first, VALID);
+            validator.validate(second, VALID);
+
+            assertEquals(2, profiler.getProfile(first, 5).getValidations());
+            assertEquals(1, profiler.getProfile(second, 5).getValidations());
+
+            profiler.remove(second);
+            assertSame(SchemaProfile.EMPTY, profiler.getProfile(second, 5));
+            assertEquals(2, profiler.getProfile(first, 5).getValidations());
+        }
+    }
+
+    @Test
+    public void testProfilesDoNotKeepSchemasReachable() throws InterruptedException {
+        try (SchemaProfiler profiler = new SchemaProfiler(1.0)) {
+            BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+            WeakReference<CompiledSchema> dropped = validateWithoutClosing(validator);
+            ValidationMetricsTest.awaitCollection(dropped);
+            // Profiling another schema frees the profile of the collected one
+            try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+                assertTrue(validator.validate(schema, VALID));
+                assertEquals(1, profiler.getProfile(schema, 5).getValidations());
+            }
+        }
+    }
+
+    private static WeakReference<CompiledSchema> validateWithoutClosing(BlazeValidator validator) {
+        CompiledSchema schema = new SchemaCompiler().compile(SCHEMA);
+        assertTrue(validator.validate(schema, VALID));
+        return new WeakReference<>(schema);
+    }
+
+    @Test
+    public void testClosedProfilerStopsProfiling() {
+        SchemaProfiler profiler = new SchemaProfiler(1.0);
+        BlazeValidator validator = new BlazeValidator().withProfiler(profiler);
+        assertSame(profiler, validator.getProfiler());
+        assertNull(validator.withProfiler(null).getProfiler());
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertTrue(validator.validate(schema, VALID));
+            profiler.close();
+            assertTrue(validator.validate(schema, VALID));
+            assertEquals(0, profiler.getProfile(schema, 5).getValidations());
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SchemaProfiler(0));
+        assertThrows(IllegalArgumentException.class, () -> new SchemaProfiler(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new SchemaProfiler(Double.NaN));
+        try (SchemaProfiler profiler = new SchemaProfiler(0.01);
+             CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertEquals(0.01, profiler.getSampleRate());
+            assertThrows(IllegalArgumentException.class, () -> profiler.getProfile(schema, 0));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for copy-on-write registry snapshots
+ */
+public class SchemaRegistrySnapshotTest {
+
+    private static final String INTEGER_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    private static final String STRING_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "string"
+        }""";
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("a", INTEGER_SCHEMA);
+        SchemaRegistrySnapshot before = registry.snapshot();
+
+        registry.register("a", STRING_SCHEMA);
+        registry.register("b", INTEGER_SCHEMA);
+        registry.unregister("missing");
+        SchemaRegistrySnapshot after = registry.snapshot();
+
+        assertEquals(INTEGER_SCHEMA, before.resolve("a"));
+        assertFalse(before.contains("b"));
+        assertEquals(1, before.size());
+        assertEquals(STRING_SCHEMA, after.resolve("a"));
+        assertEquals(2, after.size());
+        assertTrue(after.getVersion() > before.getVersion());
+
+        // Taking a snapshot without changes returns the same version
+        assertEquals(after.getVersion(), registry.snapshot().getVersion());
+
+        registry.clear();
+        assertEquals(0, registry.snapshot().size());
+        assertEquals(2, after.size());
+    }
+
+    @Test
+    public void testCompileAgainstSnapshot() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("my-schema", INTEGER_SCHEMA);
+        SchemaRegistrySnapshot snapshot = registry.snapshot();
+        registry.register("my-schema", STRING_SCHEMA);
+
+        SchemaCompiler compiler = new SchemaCompiler(registry);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "my-schema"
+            }""";
+        BlazeValidator validator = new BlazeValidator();
+
+        try (CompiledSchema schema = compiler.compile(mainSchema, snapshot)) {
+            assertTrue(validator.validate(schema, "42"));
+        }
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(validator.validate(schema, "\"42\""));
+        }
+    }
+
+    @Test
+    public void testPersistentMapMatchesHashMap() {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer> map = PersistentHashMap.empty();
+        PersistentHashMap<Integer> checkpoint = null;
+        Map<String, Integer> checkpointExpected = null;
+
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(5000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            if (i == 10000) {
+                checkpoint = map;
+                checkpointExpected = new HashMap<>(expected);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<String, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+
+        // Older versions are untouched by later updates
+        Map<String, Integer> checkpointVisited = new HashMap<>();
+        checkpoint.forEach(checkpointVisited::put);
+        assertEquals(checkpointExpected, checkpointVisited);
+    }
+
+    @Test
+    public void testPersistentMapHashCollisions() {
+        // "Aa" and "BB" have the same String hash code
+        PersistentHashMap<String> map = PersistentHashMap.<String>empty()
+            .put("Aa", "first")
+            .put("BB", "second")
+            .put("AaAa", "third")
+            .put("BBBB", "fourth");
+
+        assertEquals("first", map.get("Aa"));
+        assertEquals("second", map.get("BB"));
+        assertEquals(4, map.size());
+
+        map = map.remove("Aa");
+        assertNull(map.get("Aa"));
+        assertEquals("second", map.get("BB"));
+        assertEquals(3, map.size());
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for pluggable schema resolvers
+ */
+public class SchemaResolverTest {
+
+    private static final String INTEGER_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    @Test
+    public void testCompileWithCustomResolver() {
+        SchemaResolver resolver = uri -> uri.equals("store://integer") ? INTEGER_SCHEMA : null;
+
+        SchemaCompiler compiler = new SchemaCompiler(resolver);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "store://integer"
+            }""";
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "42"));
+            assertFalse(validator.validate(schema, "\"not an integer\""));
+        }
+    }
+
+    @Test
+    public void testCustomResolverWithMultiByteCharacters() {
+        SchemaResolver resolver = uri -> """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "const": "naïve café"
+            }""";
+
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "store://const"
+            }""";
+
+        try (CompiledSchema schema = new SchemaCompiler(resolver).compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "\"naïve café\""));
+            assertFalse(validator.validate(schema, "\"naive cafe\""));
+        }
+    }
+
+    @Test
+    public void testRegistryTakesPrecedenceOverResolver() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register("store://integer", INTEGER_SCHEMA);
+        AtomicInteger calls = new AtomicInteger();
+        SchemaResolver resolver = uri -> {
+            calls.incrementAndGet();
+            return null;
+        };
+
+        SchemaCompiler compiler = new SchemaCompiler(registry, resolver);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "store://integer"
+            }""";
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(new BlazeValidator().validate(schema, "42"));
+        }
+        assertEquals(0, calls.get(), "Resolver should not be consulted for registered URIs");
+    }
+
+    @Test
+    public void testSchemeResolversOnlySeeTheirScheme() {
+        AtomicInteger fileCalls = new AtomicInteger();
+        SchemaResolverChain chain = SchemaResolverChain.builder()
+            .addForScheme("file", uri -> {
+                fileCalls.incrementAndGet();
+                return "{}";
+            })
+            .add("fallback", uri -> "true")
+            .build();
+
+        assertEquals("{}", chain.resolve("file:///schemas/a.json"));
+        assertEquals("true", chain.resolve("https://example.com/a.json"));
+        assertEquals(1, fileCalls.get());
+
+        List<ResolverMetrics> metrics = chain.getMetrics();
+        assertEquals("file", metrics.get(0).getName());
+        assertEquals(1, metrics.get(0).getHits());
+        assertEquals("fallback", metrics.get(1).getName());
+        assertEquals(1, metrics.get(1).getRequests());
+    }
+
+    @Test
+    public void testFailingResolverFallsThrough() {
+        SchemaResolverChain chain = SchemaResolverChain.builder()
+            .add("broken", uri -> {
+                throw new IllegalStateException("store unavailable");
+            })
+            .add("fallback", uri -> INTEGER_SCHEMA)
+            .build();
+
+        assertEquals(INTEGER_SCHEMA, chain.resolve("store://integer"));
+        assertEquals(1, chain.getMetrics().get(0).getFailures());
+        assertEquals(0, chain.getMetrics().get(0).getMisses());
+    }
+
+    @Test
+    public void testCachedResolverOnlyCallsDelegateOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingSchemaResolver cached = ((SchemaResolver) uri -> {
+            calls.incrementAndGet();
+            return uri.startsWith("store://") ? INTEGER_SCHEMA : null;
+        }).cached();
+
+        assertEquals(INTEGER_SCHEMA, cached.resolve("store://integer"));
+        assertEquals(INTEGER_SCHEMA, cached.resolve("store://integer"));
+        assertEquals(1, calls.get());
+
+        // Misses are not remembered
+        assertNull(cached.resolve("other://missing"));
+        assertNull(cached.resolve("other://missing"));
+        assertEquals(3, calls.get());
+
+        cached.invalidate("store://integer");
+        assertEquals(INTEGER_SCHEMA, cached.resolve("store://integer"));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testDirectoryMirror(@TempDir Path root) throws IOException {
+        Files.createDirectories(root.resolve("types"));
+        Files.writeString(root.resolve("types/integer.json"), INTEGER_SCHEMA);
+        SchemaResolver mirror = SchemaResolver.directory("https://schemas.example.com/", root);
+
+        assertEquals(INTEGER_SCHEMA, mirror.resolve("https://schemas.example.com/types/integer.json"));
+        assertNull(mirror.resolve("https://schemas.example.com/types/missing.json"));
+        assertNull(mirror.resolve("https://schemas.example.com/../outside.json"));
+        assertNull(mirror.resolve("https://other.example.com/types/integer.json"));
+
+        SchemaCompiler compiler = new SchemaCompiler(mirror);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "https://schemas.example.com/types/integer.json"
+            }""";
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            assertTrue(new BlazeValidator().validate(schema, "7"));
+            assertFalse(new BlazeValidator().validate(schema, "7.5"));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaResourceIndexingTest {
+
+    private static final String CATALOG_SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "$id": "https://example.com/catalog.json",
+          "$defs": {
+            "address": {
+              "$id": "address.json",
+              "type": "object",
+              "properties": {
+                "zip": { "$anchor": "zip", "type": "string", "pattern": "^[0-9]{5}$" }
+              },
+              "required": ["zip"]
+            },
+            "quantity": { "$anchor": "quantity", "type": "integer", "minimum": 1 }
+          },
+          "enum": [{ "$id": "https://example.com/not-a-schema.json" }]
+        }""";
+
+    @Test
+    public void testRegisterIndexesEmbeddedResources() {
+        SchemaRegistry registry = new SchemaRegistry();
+        String uri = registry.register(CATALOG_SCHEMA);
+
+        assertEquals("https://example.com/catalog.json", uri);
+        assertEquals(CATALOG_SCHEMA, registry.resolve(uri));
+        assertTrue(registry.contains("https://example.com/address.json"));
+        // Anchors resolve through the resource that declares them
+        assertFalse(registry.contains("https://example.com/address.json#zip"));
+        assertFalse(registry.contains("https://example.com/not-a-schema.json"), "enum values are data, not schemas");
+        assertEquals(2, registry.snapshot().size());
+
+        String address = registry.resolve("https://example.com/address.json");
+        assertTrue(address.contains("\"$schema\":\"https://json-schema.org/draft/2020-12/schema\""),
+            "Embedded resources inherit the parent dialect");
+        assertTrue(address.contains("\"$id\":\"https://example.com/address.json\""),
+            "Embedded resource ids are made absolute");
+    }
+
+    @Test
+    public void testEmbeddedResourceResolvesWithoutNetwork() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register(CATALOG_SCHEMA);
+
+        // A resolver that fails every lookup proves the registry served the embedded resource
+        SchemaCompiler compiler = new SchemaCompiler(registry, uri -> null);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "https://example.com/address.json"
+            }""";
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "{\"zip\": \"12345\"}"));
+            assertFalse(validator.validate(schema, "{\"zip\": \"abc\"}"));
+            assertFalse(validator.validate(schema, "{}"));
+        }
+    }
+
+    @Test
+    public void testAnchorsResolveThroughTheirResource() {
+        SchemaRegistry registry = new SchemaRegistry();
+        registry.register(CATALOG_SCHEMA);
+
+        SchemaCompiler compiler = new SchemaCompiler(registry, uri -> null);
+        String mainSchema = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "properties": {
+                "zip": { "$ref": "https://example.com/address.json#zip" },
+                "quantity": { "$ref": "https://example.com/catalog.json#quantity" }
+              }
+            }""";
+
+        try (CompiledSchema schema = compiler.compile(mainSchema)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "{\"zip\": \"12345\", \"quantity\": 2}"));
+            assertFalse(validator.validate(schema, "{\"zip\": \"abc\"}"));
+            assertFalse(validator.validate(schema, "{\"quantity\": 0}"));
+        }
+    }
+
+    @Test
+    public void testDraft4IdsAndFragmentAnchors() {
+        SchemaRegistry registry = new SchemaRegistry();
+        String uri = registry.register("""
+            {
+              "$schema": "http://json-schema.org/draft-04/schema#",
+              "id": "http://example.com/legacy.json",
+              "definitions": {
+                "positive": { "id": "#positive", "type": "integer", "minimum": 1 }
+              }
+            }""");
+
+        assertEquals("http://example.com/legacy.json", uri);
+        assertEquals(1, registry.snapshot().size());
+
+        SchemaCompiler compiler = new SchemaCompiler(registry, ignored -> null);
+        try (CompiledSchema schema = compiler.compile("""
+            {
+              "$schema": "http://json-schema.org/draft-04/schema#",
+              "$ref": "http://example.com/legacy.json#positive"
+            }""")) {
+            BlazeValidator validator = new BlazeValidator();
+            assertTrue(validator.validate(schema, "3"));
+            assertFalse(validator.validate(schema, "0"));
+        }
+    }
+
+    @Test
+    public void testRegisterRequiresTopLevelId() {
+        SchemaRegistry registry = new SchemaRegistry();
+        assertThrows(IllegalArgumentException.class, () -> registry.register("""
+            { "$schema": "https://json-schema.org/draft/2020-12/schema", "type": "string" }"""));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("{ not json"));
+        assertEquals(0, registry.snapshot().size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationMetricsTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "integer"
+        }""";
+
+    @Test
+    public void testCountsPerSchema() {
+        ValidationMetrics metrics = new ValidationMetrics();
+        BlazeValidator validator = new BlazeValidator().withMetrics(metrics);
+        try (CompiledSchema first = new SchemaCompiler().compile(SCHEMA);
+             CompiledSchema second = new SchemaCompiler().compile(SCHEMA)) {
+            metrics.register(first, "first");
+
+            assertTrue(validator.validate(first, "1"));
+            assertFalse(validator.validate(first, "\"text\""));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, validator.validateStatus(first, "[1,"));
+            assertFalse(validator.validateWithDetails(first, "1.5").isValid());
+            assertTrue(validator.validate(second, "2"));
+
+            SchemaValidationStats stats = metrics.snapshot(first);
+            assertEquals("first", stats.getName());
+            assertEquals(4, stats.getValidations());
+            assertEquals(1, stats.getValid());
+            assertEquals(2, stats.getInvalid());
+            assertEquals(1, stats.getMalformed());
+            assertEquals(0, stats.getErrors());
+            assertTrue(stats.getMaxNanos() > 0);
+            assertTrue(stats.getTotalTime(TimeUnit.NANOSECONDS) >= stats.getMaxNanos());
+
+            SchemaValidationStats unnamed = metrics.snapshot(second);
+            assertEquals("schema-1", unnamed.getName());
+            assertEquals(1, unnamed.getValid());
+            assertEquals(2, metrics.snapshot().size());
+
+            metrics.remove(second);
+            assertNull(metrics.snapshot(second));
+            metrics.reset();
+            assertEquals(0, metrics.snapshot(first).getValidations());
+        }
+    }
+
+    @Test
+    public void testValidatorWithoutMetricsRecordsNothing() {
+        ValidationMetrics metrics = new ValidationMetrics();
+        BlazeValidator validator = new BlazeValidator().withMetrics(metrics);
+        assertSame(metrics, validator.getMetrics());
+        assertSame(metrics, validator.withInstanceParser(InstanceParser.DEFAULT).getMetrics());
+
+        BlazeValidator plain = validator.withMetrics(null);
+        assertNull(plain.getMetrics());
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            assertTrue(plain.validate(schema, "1"));
+            assertNull(metrics.snapshot(schema));
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        ValidationMetrics metrics = new ValidationMetrics();
+        CompiledSchema schema = new SchemaCompiler().compile(SCHEMA);
+        try (schema) {
+            for (int i = 1; i <= 1000; i++) {
+                metrics.record(schema, ValidationStatus.VALID, i * 1000L);
+            }
+            SchemaValidationStats stats = metrics.snapshot(schema);
+            assertEquals(1_000_000, stats.getMaxNanos());
+            assertEquals(500_500, stats.getMeanNanos());
+            // Percentiles are bucket upper bounds, at most 12.5% above the exact value
+            assertBetween(500_000, 562_500, stats.getP50Nanos());
+            assertBetween(900_000, 1_012_500, stats.getP90Nanos());
+            assertBetween(990_000, 1_000_000, stats.getP99Nanos());
+            assertEquals(1_000_000, stats.getPercentileNanos(100));
+            assertThrows(IllegalArgumentException.class, () -> stats.getPercentileNanos(101));
+        }
+    }
+
+    @Test
+    public void testBucketsCoverEveryLatency() {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket < ValidationMetrics.BUCKETS; bucket++) {
+            long upper = ValidationMetrics.bucketUpperBound(bucket);
+            assertEquals(bucket, ValidationMetrics.bucket(previousUpper + 1));
+            assertEquals(bucket, ValidationMetrics.bucket(upper));
+            assertTrue(upper - previousUpper <= Math.max(1, (previousUpper + 1) / 8));
+            previousUpper = upper;
+        }
+        assertEquals(ValidationMetrics.BUCKETS - 1, ValidationMetrics.bucket(Long.MAX_VALUE));
+        assertEquals(0, ValidationMetrics.bucket(-5));
+    }
+
+    @Test
+    @Tag("allocation")
+    public void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = AllocationFreeValidationTest.allocationCounters();
+        ValidationMetrics metrics = new ValidationMetrics();
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            for (int i = 0; i < 100_000; i++) {
+                metrics.record(schema, ValidationStatus.VALID, i);
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 100_000; i++) {
+                metrics.record(schema, ValidationStatus.INVALID, i);
+            }
+            assertTrue(threads.getCurrentThreadAllocatedBytes() - before <= AllocationFreeValidationTest.ALLOCATION_BUDGET);
+        }
+    }
+
+    @Test
+    public void testMetricsDoNotKeepSchemasReachable() throws InterruptedException {
+        ValidationMetrics metrics = new ValidationMetrics();
+        WeakReference<CompiledSchema> dropped = validateWithoutClosing(metrics);
+        try (CompiledSchema kept = new SchemaCompiler().compile(SCHEMA)) {
+            metrics.register(kept, "kept");
+            awaitCollection(dropped);
+            List<SchemaValidationStats> stats = metrics.snapshot();
+            assertEquals(1, stats.size());
+            assertEquals("kept", stats.get(0).getName());
+        }
+    }
+
+    private static WeakReference<CompiledSchema> validateWithoutClosing(ValidationMetrics metrics) {
+        CompiledSchema schema = new SchemaCompiler().compile(SCHEMA);
+        assertTrue(new BlazeValidator().withMetrics(metrics).validate(schema, "1"));
+        return new WeakReference<>(schema);
+    }
+
+    static void awaitCollection(WeakReference<?> reference) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (reference.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get(), "The schema is still reachable");
+    }
+
+    @Test
+    public void testJmxExport() throws Exception {
+        ValidationMetrics metrics = new ValidationMetrics();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = Blaze4jManagement.registerValidationMetrics("metrics-test", metrics);
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            metrics.register(schema, "integer");
+            new BlazeValidator().withMetrics(metrics).validate(schema, "1");
+
+            CompositeData[] schemas = (CompositeData[]) server.getAttribute(name, "Schemas");
+            assertEquals(1, schemas.length);
+            assertEquals("integer", schemas[0].get("name"));
+            assertEquals(1L, schemas[0].get("valid"));
+            assertTrue((Long) schemas[0].get("p99Nanos") > 0);
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertEquals(0, metrics.snapshot(schema).getValidations());
+        } finally {
+            Blaze4jManagement.unregisterValidationMetrics("metrics-test");
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " is not between " + min + " and " + max);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationStatusTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": ["name"]
+        }""";
+
+    @Test
+    public void testMalformedInstanceIsNotASchemaViolation() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator();
+
+            assertEquals(ValidationStatus.VALID, validator.validateStatus(schema, "{\"name\": \"blaze\"}"));
+            assertEquals(ValidationStatus.INVALID, validator.validateStatus(schema, "{}"));
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, validator.validateStatus(schema, "{\"name\": "));
+
+            // The boolean API keeps treating malformed input as invalid
+            assertFalse(validator.validate(schema, "{\"name\": "));
+        }
+    }
+
+    @Test
+    public void testDetailedResultReportsMalformedInstance() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            ValidationResult result = new BlazeValidator().validateWithDetails(schema, "{\"name\": ");
+
+            assertFalse(result.isValid());
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, result.getStatus());
+            assertTrue(result.getErrors().isEmpty());
+            assertTrue(result.getErrorMessage().contains("line 1"), result.getErrorMessage());
+
+            ValidationResult violation = new BlazeValidator().validateWithDetails(schema, "{}");
+            assertEquals(ValidationStatus.INVALID, violation.getStatus());
+            assertNull(violation.getErrorMessage());
+        }
+    }
+
+    @Test
+    public void testMalformedSchemaThrowsWithDetails() {
+        SchemaCompilationException e = assertThrows(SchemaCompilationException.class,
+            () -> new SchemaCompiler().compile("{\"type\": "));
+        assertEquals(SchemaCompilationException.Reason.MALFORMED_SCHEMA, e.getReason());
+        assertTrue(e.getDetails().contains("line 1"), e.getDetails());
+    }
+
+    @Test
+    public void testUnresolvableReferenceThrowsInvalidSchema() {
+        SchemaCompiler compiler = new SchemaCompiler(uri -> null);
+        SchemaCompilationException e = assertThrows(SchemaCompilationException.class, () -> compiler.compile("""
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "$ref": "https://example.com/does-not-exist.json"
+            }"""));
+        assertEquals(SchemaCompilationException.Reason.INVALID_SCHEMA, e.getReason());
+        assertFalse(e.getDetails().isEmpty());
+    }
+}
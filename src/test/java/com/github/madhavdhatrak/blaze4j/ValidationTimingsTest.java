@@ -0,0 +1,77 @@
+package com.github.madhavdhatrak.blaze4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationTimingsTest {
+
+    private static final String SCHEMA = """
+        {
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "array",
+          "items": { "type": "integer", "minimum": 0 }
+        }""";
+
+    private static String numbers(int count, boolean negative) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(negative ? -i - 1 : i);
+        }
+        return json.append(']').toString();
+    }
+
+    @Test
+    public void testResultsCarryTimingsOnlyWhenEnabled() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            BlazeValidator validator = new BlazeValidator();
+            assertFalse(validator.hasTimings());
+            assertNull(validator.validateWithDetails(schema, "[1]").getTimings());
+
+            BlazeValidator timed = validator.withTimings(true);
+            assertTrue(timed.hasTimings());
+            assertTrue(timed.withInstanceParser(InstanceParser.DEFAULT).hasTimings());
+            assertFalse(timed.withTimings(false).hasTimings());
+
+            ValidationResult result = timed.validateWithDetails(schema, numbers(10_000, false));
+            assertTrue(result.isValid());
+            ValidationTimings timings = result.getTimings();
+            assertNotNull(timings);
+            assertTrue(timings.getParseTime(TimeUnit.NANOSECONDS) > 0);
+            assertTrue(timings.getEvaluateTime(TimeUnit.NANOSECONDS) > 0);
+            assertTrue(timings.getFormatTime(TimeUnit.NANOSECONDS) >= 0);
+            assertEquals(timings.getParseTime(TimeUnit.NANOSECONDS) + timings.getEvaluateTime(TimeUnit.NANOSECONDS)
+                + timings.getFormatTime(TimeUnit.NANOSECONDS), timings.getTotalTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Test
+    public void testErrorFormattingIsMeasuredSeparately() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            ValidationResult result = new BlazeValidator().withTimings(true)
+                .validateWithDetails(schema, numbers(10_000, true));
+            assertFalse(result.isValid());
+            assertFalse(result.getErrors().isEmpty());
+            ValidationTimings timings = result.getTimings();
+            assertTrue(timings.getFormatTime(TimeUnit.NANOSECONDS) > 0);
+            assertTrue(timings.getEvaluateTime(TimeUnit.NANOSECONDS) >= 0);
+        }
+    }
+
+    @Test
+    public void testMalformedInstanceOnlyParses() {
+        try (CompiledSchema schema = new SchemaCompiler().compile(SCHEMA)) {
+            ValidationResult result = new BlazeValidator().withTimings(true).validateWithDetails(schema, "[1, 2");
+            assertEquals(ValidationStatus.MALFORMED_INSTANCE, result.getStatus());
+            ValidationTimings timings = result.getTimings();
+            assertNotNull(timings);
+            assertEquals(0, timings.getEvaluateTime(TimeUnit.NANOSECONDS));
+            assertEquals(0, timings.getFormatTime(TimeUnit.NANOSECONDS));
+        }
+    }
+}